@@ -0,0 +1,74 @@
+package com.projectmanagement.benchmark;
+
+import com.projectmanagement.pagination.CursorRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Requests that end in {@code GlobalExceptionHandler}, through the full MVC dispatch: exception
+ * construction, handler resolution and rendering of the error body. {@link #found} is the
+ * successful read of the same endpoint, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Mvc {
+        MockMvc mockMvc;
+        Long taskId;
+
+        @Setup(Level.Trial)
+        public void build(SeededApplication app) {
+            mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) app.context).build();
+            taskId = app.taskService.findByProjectId(app.projectIds.get(0), CursorRequest.firstPage(1)).getContent().get(0).id();
+        }
+    }
+
+    @Benchmark
+    public MvcResult found(Mvc mvc) throws Exception {
+        return mvc.mockMvc.perform(get("/api/tasks/{id}", mvc.taskId)).andReturn();
+    }
+
+    // ResourceNotFoundException, 404
+    @Benchmark
+    public MvcResult notFound(Mvc mvc) throws Exception {
+        return mvc.mockMvc.perform(get("/api/tasks/{id}", Long.MAX_VALUE)).andReturn();
+    }
+
+    // BadRequestException, 400
+    @Benchmark
+    public MvcResult badRequest(Mvc mvc) throws Exception {
+        return mvc.mockMvc.perform(get("/api/employees/search").param("name", " ")).andReturn();
+    }
+
+    // MethodArgumentNotValidException, 400 with the field errors
+    @Benchmark
+    public MvcResult validationFailed(Mvc mvc) throws Exception {
+        return mvc.mockMvc.perform(post("/api/tasks")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"\"}")).andReturn();
+    }
+}
@@ -0,0 +1,148 @@
+package com.projectmanagement.benchmark;
+
+import com.projectmanagement.ProjectmanagementApplication;
+import com.projectmanagement.dto.EmployeeDto;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.service.BulkImportService;
+import com.projectmanagement.service.EmployeeService;
+import com.projectmanagement.service.NameSearchIndex;
+import com.projectmanagement.service.ProjectService;
+import com.projectmanagement.service.TaskService;
+import com.projectmanagement.service.TeamService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * The application on the test configuration (in-memory H2), seeded once per trial. Sizes are
+ * JMH parameters, e.g. {@code -Djmh.args="-p employees=20000 -p tasksPerProject=200"}.
+ *
+ * <p>Rows are loaded through the bulk import service; team memberships and task assignments go
+ * through the regular service methods. The name search index is rebuilt after seeding so
+ * searches never take the database fallback.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+    private static final String[] FIRST_NAMES = {"Margaret", "Oliver", "Amelia", "Jonas", "Priya", "Mateo",
+            "Ingrid", "Kwame", "Sofia", "Henrik", "Aiko", "Rafael", "Leila", "Tomasz", "Chloe", "Dmitri"};
+    private static final String[] LAST_NAMES = {"Quackenbush", "Lindqvist", "Okafor", "Moreau", "Castellanos",
+            "Nakamura", "Fitzgerald", "Petrov", "Haddad", "Oyelaran", "Vanderberg", "Kowalski"};
+    private static final String[] POSITIONS = {"Engineer", "Architect", "Designer", "Analyst", "Manager"};
+
+    @Param("2000")
+    public int employees;
+
+    @Param("50")
+    public int teams;
+
+    @Param("100")
+    public int projects;
+
+    @Param("20")
+    public int tasksPerProject;
+
+    @Param("2")
+    public int assigneesPerTask;
+
+    ConfigurableApplicationContext context;
+    TaskService taskService;
+    EmployeeService employeeService;
+    TeamService teamService;
+
+    List<Long> employeeIds;
+    List<Long> teamIds;
+    List<Long> projectIds;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = new SpringApplicationBuilder(ProjectmanagementApplication.class)
+                .properties("server.port=0", "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        employeeService = context.getBean(EmployeeService.class);
+        teamService = context.getBean(TeamService.class);
+        ProjectService projectService = context.getBean(ProjectService.class);
+        BulkImportService bulkImportService = context.getBean(BulkImportService.class);
+
+        bulkImportService.importEmployees(ndjson(employees, i -> String.format(
+                "{\"firstName\":\"%s\",\"lastName\":\"%s\",\"email\":\"employee%d@company.com\",\"position\":\"%s\",\"salary\":%d}",
+                FIRST_NAMES[i % FIRST_NAMES.length], LAST_NAMES[i / FIRST_NAMES.length % LAST_NAMES.length],
+                i, POSITIONS[i % POSITIONS.length], 40_000 + i % 60 * 1000)));
+        employeeIds = ids(employeeService::findAll, EmployeeDto::id);
+
+        teamIds = new ArrayList<>();
+        for (int t = 0; t < teams; t++) {
+            Team team = new Team();
+            team.setName("Team " + t);
+            team.setDescription("Owns service area " + t);
+            Long teamId = teamService.create(team).id();
+            teamIds.add(teamId);
+            for (int e = t; e < employeeIds.size(); e += teams) {
+                teamService.addEmployeeToTeam(teamId, employeeIds.get(e));
+            }
+        }
+
+        bulkImportService.importProjects(ndjson(projects, i -> String.format(
+                "{\"name\":\"Project %d\",\"startDate\":\"2024-01-01\",\"budget\":%d,\"teamId\":%d}",
+                i, 10_000 + i * 100, teamIds.get(i % teamIds.size()))));
+        projectIds = ids(projectService::findAll, ProjectDto::id);
+
+        bulkImportService.importTasks(ndjson(projectIds.size() * tasksPerProject, i -> String.format(
+                "{\"title\":\"Task %d\",\"estimatedHours\":%d,\"priority\":\"%s\",\"projectId\":%d}",
+                i, 1 + i % 16, i % 3 == 0 ? "HIGH" : "MEDIUM", projectIds.get(i / tasksPerProject))));
+        int assignee = 0;
+        for (Long projectId : projectIds) {
+            for (Long taskId : ids(page -> taskService.findByProjectId(projectId, page), TaskDto::id)) {
+                for (int a = 0; a < assigneesPerTask; a++) {
+                    taskService.assignEmployeeToTask(taskId, employeeIds.get(assignee++ % employeeIds.size()));
+                }
+            }
+        }
+
+        context.getBean(NameSearchIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // Every id of a keyset-paginated listing
+    private static <T> List<Long> ids(Function<CursorRequest, CursorPage<T>> listing, Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>();
+        CursorRequest request = CursorRequest.firstPage(CursorRequest.MAX_SIZE);
+        CursorPage<T> page;
+        do {
+            page = listing.apply(request);
+            page.getContent().forEach(item -> ids.add(id.apply(item)));
+            request.setCursor(page.getNextCursor());
+        } while (page.isHasNext());
+        return ids;
+    }
+
+    private static ByteArrayInputStream ndjson(int rows, IntFunction<String> row) {
+        StringBuilder body = new StringBuilder(rows * 128);
+        for (int i = 0; i < rows; i++) {
+            body.append(row.apply(i)).append('\n');
+        }
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,69 @@
+package com.projectmanagement.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.dto.TeamDto;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.service.ProjectService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies with the application's {@link ObjectMapper}.
+ * Controllers render DTOs rather than entities, so the task and project graphs are measured in
+ * the shape the API returns them: a page of tasks with their assignees, a project, and a team
+ * with its members.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Bodies {
+        ObjectMapper objectMapper;
+        CursorPage<TaskDto> taskPage;
+        ProjectDto project;
+        TeamDto team;
+
+        @Setup(Level.Trial)
+        public void load(SeededApplication app) {
+            objectMapper = app.context.getBean(ObjectMapper.class);
+            Long projectId = app.projectIds.get(0);
+            taskPage = app.taskService.findByProjectId(projectId, new CursorRequest());
+            project = app.context.getBean(ProjectService.class).findById(projectId);
+            team = app.teamService.findById(app.teamIds.get(0));
+        }
+    }
+
+    @Benchmark
+    public byte[] taskPage(Bodies bodies) throws JsonProcessingException {
+        return bodies.objectMapper.writeValueAsBytes(bodies.taskPage);
+    }
+
+    @Benchmark
+    public byte[] project(Bodies bodies) throws JsonProcessingException {
+        return bodies.objectMapper.writeValueAsBytes(bodies.project);
+    }
+
+    @Benchmark
+    public byte[] teamWithMembers(Bodies bodies) throws JsonProcessingException {
+        return bodies.objectMapper.writeValueAsBytes(bodies.team);
+    }
+}
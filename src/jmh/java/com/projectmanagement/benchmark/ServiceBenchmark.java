@@ -0,0 +1,80 @@
+package com.projectmanagement.benchmark;
+
+import com.projectmanagement.dto.EmployeeDto;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.dto.TeamDto;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service methods behind the busiest endpoints, each through its Spring proxy (transaction,
+ * cache) against the seeded database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    // Prefixes, a misspelling and a name plus position, as typed into a search box
+    private static final String[] SEARCHES = {"marg quack", "lindqvst", "okafor engineer", "sof", "nakamura aiko",
+            "petrov architect"};
+
+    @State(Scope.Thread)
+    public static class Requests {
+        int next;
+    }
+
+    /** An employee outside a team, added by the benchmark and removed again after each call. */
+    @State(Scope.Thread)
+    public static class Membership {
+        Long teamId;
+        Long employeeId;
+        int next;
+
+        @Setup(Level.Invocation)
+        public void pick(SeededApplication app) {
+            int team = next++ % app.teamIds.size();
+            teamId = app.teamIds.get(team);
+            // Seeding puts employee e into team e % teams
+            employeeId = app.employeeIds.get((team + 1) % app.employeeIds.size());
+        }
+
+        @TearDown(Level.Invocation)
+        public void remove(SeededApplication app) {
+            app.teamService.removeEmployeeFromTeam(teamId, employeeId);
+        }
+    }
+
+    @Benchmark
+    public CursorPage<TaskDto> findTasksByProject(SeededApplication app, Requests requests) {
+        Long projectId = app.projectIds.get(requests.next++ % app.projectIds.size());
+        return app.taskService.findByProjectId(projectId, new CursorRequest());
+    }
+
+    @Benchmark
+    public List<EmployeeDto> searchEmployeesByName(SeededApplication app, Requests requests) {
+        return app.employeeService.searchByName(SEARCHES[requests.next++ % SEARCHES.length], null);
+    }
+
+    @Benchmark
+    public TeamDto addEmployeeToTeam(SeededApplication app, Membership membership) {
+        return app.teamService.addEmployeeToTeam(membership.teamId, membership.employeeId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.service.BatchLoader;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Opens a {@link BatchLoader} scope for every GET request, so the read models loaded while
+ * serving it are remembered. Requests that write get none: what they read must reflect their
+ * own changes.
+ */
+@Component
+public class BatchLoaderInterceptor implements AsyncHandlerInterceptor, WebMvcConfigurer {
+
+    private static final String SCOPE = BatchLoaderInterceptor.class.getName() + ".scope";
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            request.setAttribute(SCOPE, BatchLoader.open());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        close(request);
+    }
+
+    // The scope is bound to the request thread, which moves on when the handler goes async
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        close(request);
+    }
+
+    private static void close(HttpServletRequest request) {
+        if (request.getAttribute(SCOPE) instanceof BatchLoader.Scope scope) {
+            request.removeAttribute(SCOPE);
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.service.Bulkhead;
+import com.projectmanagement.service.Bulkheads;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Admission control: a handler in a {@link Bulkhead} runs only once it holds a permit of that
+ * bulkhead, which is released when the request completes. A shed request is answered by
+ * {@code GlobalExceptionHandler} with 503 and {@code Retry-After}. Off with
+ * {@code app.bulkhead.enabled=false}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.bulkhead.enabled", matchIfMissing = true)
+public class BulkheadInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final String PERMIT = BulkheadInterceptor.class.getName() + ".permit";
+    private static final String NONE = "none";
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Autowired
+    private Environment environment;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch of the same request already holds its permit
+        if (!(handler instanceof HandlerMethod method) || request.getAttribute(PERMIT) != null) {
+            return true;
+        }
+        String name = bulkhead(method);
+        if (name != null && !NONE.equals(name)) {
+            request.setAttribute(PERMIT, bulkheads.acquire(name));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT) instanceof Bulkheads.Permit permit) {
+            permit.release();
+        }
+    }
+
+    private String bulkhead(HandlerMethod method) {
+        Bulkhead annotation = method.getMethodAnnotation(Bulkhead.class);
+        return environment.getProperty("app.bulkhead.handlers." + method.getBeanType().getSimpleName() + "."
+                + method.getMethod().getName(), annotation == null ? null : annotation.value());
+    }
+}
@@ -0,0 +1,26 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.dto.CacheStatsDto;
+import com.projectmanagement.service.ReadCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    @Autowired
+    private ReadCache readCache;
+
+    // Hit/miss counters of the employee and team read caches
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStatistics() {
+        List<CacheStatsDto> statistics = readCache.statistics();
+        return ResponseEntity.ok(statistics);
+    }
+}
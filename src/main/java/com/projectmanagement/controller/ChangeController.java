@@ -0,0 +1,30 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.service.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeController {
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    // Server-Sent Events of committed writes, e.g. ?teamId=3; reconnects send Last-Event-ID
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(required = false) Long projectId,
+                                                    @RequestParam(required = false) Long teamId,
+                                                    @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = changeFeed.subscribe(projectId, teamId, lastEventId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(emitter);
+    }
+}
@@ -1,13 +1,24 @@
 package com.projectmanagement.controller;
 
+import com.projectmanagement.dto.BulkResult;
+import com.projectmanagement.dto.EmployeeDto;
 import com.projectmanagement.model.Employee;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.service.BulkImportService;
+import com.projectmanagement.service.Bulkhead;
+import com.projectmanagement.service.ETags;
 import com.projectmanagement.service.EmployeeService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -17,30 +28,65 @@ public class EmployeeController {
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
     @PostMapping
-    public ResponseEntity<Employee> createEmployee(@Valid @RequestBody Employee employee) {
-        Employee createdEmployee = employeeService.create(employee);
+    public ResponseEntity<EmployeeDto> createEmployee(@Valid @RequestBody Employee employee) {
+        EmployeeDto createdEmployee = employeeService.create(employee);
         return new ResponseEntity<>(createdEmployee, HttpStatus.CREATED);
     }
 
+    // Accepts a JSON array or an NDJSON stream; rows are parsed and inserted in chunks
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Bulkhead(Bulkhead.BULK)
+    public ResponseEntity<BulkResult> createEmployeesInBulk(HttpServletRequest request) throws IOException {
+        BulkResult result = bulkImportService.importEmployees(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Employee>> getAllEmployees() {
-        List<Employee> employees = employeeService.findAll();
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<EmployeeDto>> getAllEmployees(CursorRequest page) {
+        CursorPage<EmployeeDto> employees = employeeService.findAll(page);
         return ResponseEntity.ok(employees);
     }
 
+    // Up to 10000 employees by id, in the order of the ids; unknown ids are left out
+    @GetMapping(params = "ids")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<EmployeeDto>> getEmployeesByIds(@RequestParam List<Long> ids) {
+        List<EmployeeDto> employees = employeeService.findAllById(ids);
+        return ResponseEntity.ok(employees);
+    }
+
+    // The same for id lists too long for a query string
+    @PostMapping("/by-ids")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<EmployeeDto>> getEmployeesByIdList(@RequestBody List<Long> ids) {
+        List<EmployeeDto> employees = employeeService.findAllById(ids);
+        return ResponseEntity.ok(employees);
+    }
+
+    // Served from the read cache, so the ETag check needs no SQL either
     @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable Long id) {
-        Employee employee = employeeService.findById(id);
-        return ResponseEntity.ok(employee);
+    public ResponseEntity<EmployeeDto> getEmployeeById(@PathVariable Long id, HttpServletRequest request,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        EmployeeDto employee = employeeService.findById(id);
+        String etag = ETags.selected(ETags.employee(employee), FieldSelectionAdvice.selection(request));
+        if (ETags.noneMatchHit(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(employee);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Employee> updateEmployee(
+    public ResponseEntity<EmployeeDto> updateEmployee(
             @PathVariable Long id,
-            @Valid @RequestBody Employee employee) {
-        Employee updatedEmployee = employeeService.update(id, employee);
-        return ResponseEntity.ok(updatedEmployee);
+            @Valid @RequestBody Employee employee,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        EmployeeDto updatedEmployee = employeeService.update(id, employee, ifMatch);
+        return ResponseEntity.ok().eTag(ETags.employee(updatedEmployee)).body(updatedEmployee);
     }
 
     @DeleteMapping("/{id}")
@@ -50,34 +96,40 @@ public class EmployeeController {
     }
 
     @GetMapping("/email")
-    public ResponseEntity<Employee> getEmployeeByEmail(@RequestParam String email) {
-        Employee employee = employeeService.findByEmail(email);
+    public ResponseEntity<EmployeeDto> getEmployeeByEmail(@RequestParam String email) {
+        EmployeeDto employee = employeeService.findByEmail(email);
         return ResponseEntity.ok(employee);
     }
 
     @GetMapping("/position/{position}")
-    public ResponseEntity<List<Employee>> getEmployeesByPosition(@PathVariable String position) {
-        List<Employee> employees = employeeService.findByPosition(position);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<EmployeeDto>> getEmployeesByPosition(@PathVariable String position, CursorRequest page) {
+        CursorPage<EmployeeDto> employees = employeeService.findByPosition(position, page);
         return ResponseEntity.ok(employees);
     }
 
     @GetMapping("/team/{teamId}")
-    public ResponseEntity<List<Employee>> getEmployeesByTeam(@PathVariable Long teamId) {
-        List<Employee> employees = employeeService.findByTeamId(teamId);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<EmployeeDto>> getEmployeesByTeam(@PathVariable Long teamId, CursorRequest page) {
+        CursorPage<EmployeeDto> employees = employeeService.findByTeamId(teamId, page);
         return ResponseEntity.ok(employees);
     }
 
+    // Best matches first, typo-tolerant; the last word may be a prefix, e.g. ?name=jon smi
     @GetMapping("/search")
-    public ResponseEntity<List<Employee>> searchEmployees(@RequestParam String name) {
-        List<Employee> employees = employeeService.searchByName(name);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<EmployeeDto>> searchEmployees(@RequestParam String name, @RequestParam(required = false) Integer limit) {
+        List<EmployeeDto> employees = employeeService.searchByName(name, limit);
         return ResponseEntity.ok(employees);
     }
 
     @GetMapping("/salary-range")
-    public ResponseEntity<List<Employee>> getEmployeesBySalaryRange(
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<EmployeeDto>> getEmployeesBySalaryRange(
             @RequestParam Double min,
-            @RequestParam Double max) {
-        List<Employee> employees = employeeService.findBySalaryRange(min, max);
+            @RequestParam Double max,
+            CursorRequest page) {
+        CursorPage<EmployeeDto> employees = employeeService.findBySalaryRange(min, max, page);
         return ResponseEntity.ok(employees);
     }
 }
\ No newline at end of file
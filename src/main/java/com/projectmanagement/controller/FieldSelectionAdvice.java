@@ -0,0 +1,136 @@
+package com.projectmanagement.controller;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.projectmanagement.dto.FieldSelection;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Applies {@code ?fields=} and {@code ?expand=} to the body of every GET endpoint returning read
+ * models, single or in a list or page, so that unrequested properties are never serialized. The
+ * selection applies to the top-level read models; those embedded in them are written whole.
+ * List endpoints that can also leave the columns out of the query take a {@link FieldSelection}
+ * argument; everything else is trimmed here only.
+ *
+ * <p>Also registers an empty filter provider with the application's object mapper, so the read
+ * models serialize in full wherever no selection is set.
+ */
+@RestControllerAdvice
+public class FieldSelectionAdvice extends AbstractMappingJacksonResponseBodyAdvice
+        implements Jackson2ObjectMapperBuilderCustomizer {
+
+    @Override
+    public void customize(Jackson2ObjectMapperBuilder builder) {
+        builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue container, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET || !(request instanceof ServletServerHttpRequest servlet)) {
+            return;
+        }
+        FieldSelection selection = selection(servlet.getServletRequest());
+        Class<? extends Record> readModel = readModel(ResolvableType.forMethodParameter(returnType));
+        if (!selection.isPartial() || readModel == null) {
+            return;
+        }
+        selection.validate(readModel);
+        container.setFilters(filters(selection));
+    }
+
+    // The request's ?fields= and ?expand=, also for handlers that write the body themselves
+    static FieldSelection selection(HttpServletRequest request) {
+        return new FieldSelection(names(request.getParameterValues("fields")), names(request.getParameterValues("expand")));
+    }
+
+    static FilterProvider filters(FieldSelection selection) {
+        return new SimpleFilterProvider().addFilter(FieldSelection.FILTER, new SelectionFilter(selection));
+    }
+
+    // Same parsing as request binding: repeated parameters and comma-separated values
+    private static Set<String> names(String[] values) {
+        if (values == null) {
+            return null;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        Arrays.stream(values)
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .forEach(names::add);
+        return names;
+    }
+
+    // The read model in ResponseEntity<CursorPage<TaskDto>>, List<TeamDto> and the like
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Record> readModel(ResolvableType type) {
+        Class<?> raw = type.resolve();
+        if (raw != null && raw.isRecord() && raw.isAnnotationPresent(JsonFilter.class)) {
+            return (Class<? extends Record>) raw;
+        }
+        for (ResolvableType generic : type.getGenerics()) {
+            Class<? extends Record> found = readModel(generic);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static final class SelectionFilter extends SimpleBeanPropertyFilter {
+
+        private final FieldSelection selection;
+
+        SelectionFilter(FieldSelection selection) {
+            this.selection = selection;
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator gen, SerializerProvider provider, PropertyWriter writer)
+                throws Exception {
+            String name = writer.getName();
+            boolean included = writer.getType().isCollectionLikeType() ? selection.expands(name) : selection.includes(name);
+            if (included || isEmbedded(gen)) {
+                writer.serializeAsField(pojo, gen, provider);
+            } else if (!gen.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, gen, provider);
+            }
+        }
+
+        // True inside another read model, e.g. for the employees of a task
+        private static boolean isEmbedded(JsonGenerator gen) {
+            for (JsonStreamContext context = gen.getOutputContext().getParent(); context != null;
+                 context = context.getParent()) {
+                Object value = context.getCurrentValue();
+                if (value != null && value.getClass().isAnnotationPresent(JsonFilter.class)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.projectmanagement.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.service.ETags;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A response body serialized once, so that requests coalesced by
+ * {@link com.projectmanagement.service.SingleFlight} share the bytes as well as the load. The
+ * field selection is applied here, as {@link FieldSelectionAdvice} does for bodies written by
+ * the message converters, and mixed into the tag of a partial body.
+ */
+record JsonBody(String etag, byte[] json) {
+
+    static JsonBody write(ObjectMapper objectMapper, String etag, Object body, FieldSelection selection,
+                          Class<? extends Record> readModel) {
+        try {
+            if (!selection.isPartial()) {
+                return new JsonBody(etag, objectMapper.writeValueAsBytes(body));
+            }
+            selection.validate(readModel);
+            return new JsonBody(ETags.selected(etag, selection),
+                    objectMapper.writer(FieldSelectionAdvice.filters(selection)).writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + readModel.getSimpleName(), e);
+        }
+    }
+
+    ResponseEntity<byte[]> toResponse() {
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+}
@@ -1,14 +1,36 @@
 package com.projectmanagement.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.dto.BulkResult;
+import com.projectmanagement.dto.BulkUpdateResult;
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.ProjectBulkUpdate;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.ProjectProgressDto;
+import com.projectmanagement.dto.ProjectSearch;
+import com.projectmanagement.dto.StatsDriftReport;
 import com.projectmanagement.model.Project;
 import com.projectmanagement.model.Project.ProjectStatus;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.service.BulkImportService;
+import com.projectmanagement.service.Bulkhead;
+import com.projectmanagement.service.ETags;
+import com.projectmanagement.service.ExportService;
 import com.projectmanagement.service.ProjectService;
+import com.projectmanagement.service.ProjectStatsService;
+import com.projectmanagement.service.SingleFlight;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,30 +40,85 @@ public class ProjectController {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
-    public ResponseEntity<Project> createProject(@Valid @RequestBody Project project) {
-        Project createdProject = projectService.create(project);
+    public ResponseEntity<ProjectDto> createProject(@Valid @RequestBody Project project) {
+        ProjectDto createdProject = projectService.create(project);
         return new ResponseEntity<>(createdProject, HttpStatus.CREATED);
     }
 
+    // Accepts a JSON array or an NDJSON stream; rows are parsed and inserted in chunks
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Bulkhead(Bulkhead.BULK)
+    public ResponseEntity<BulkResult> createProjectsInBulk(HttpServletRequest request) throws IOException {
+        BulkResult result = bulkImportService.importProjects(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Project>> getAllProjects() {
-        List<Project> projects = projectService.findAll();
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<ProjectDto>> getAllProjects(CursorRequest page, FieldSelection fields) {
+        CursorPage<ProjectDto> projects = projectService.findAll(page, fields);
+        return ResponseEntity.ok(projects);
+    }
+
+    // Up to 10000 projects by id, in the order of the ids; unknown ids are left out
+    @GetMapping(params = "ids")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<ProjectDto>> getProjectsByIds(@RequestParam List<Long> ids) {
+        List<ProjectDto> projects = projectService.findAllById(ids);
+        return ResponseEntity.ok(projects);
+    }
+
+    // The same for id lists too long for a query string
+    @PostMapping("/by-ids")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<ProjectDto>> getProjectsByIdList(@RequestBody List<Long> ids) {
+        List<ProjectDto> projects = projectService.findAllById(ids);
         return ResponseEntity.ok(projects);
     }
 
+    // Polling clients send back the ETag; an unchanged project is answered from its version alone.
+    // Concurrent identical requests share one load and one serialized body
     @GetMapping("/{id}")
-    public ResponseEntity<Project> getProjectById(@PathVariable Long id) {
-        Project project = projectService.findById(id);
-        return ResponseEntity.ok(project);
+    public ResponseEntity<byte[]> getProjectById(@PathVariable Long id, HttpServletRequest request,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection selection = FieldSelectionAdvice.selection(request);
+        if (ifNoneMatch != null) {
+            String etag = ETags.selected(singleFlight.execute(SingleFlight.PROJECT_ETAG, id, () -> projectService.currentETag(id)), selection);
+            if (ETags.noneMatchHit(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        JsonBody body = singleFlight.execute(SingleFlight.PROJECT, List.of(id, selection), () -> {
+            ProjectDto project = projectService.findById(id);
+            return JsonBody.write(objectMapper, ETags.project(project), project, selection, ProjectDto.class);
+        });
+        return body.toResponse();
     }
 
+    // With If-Match, the update only applies to the version the client last read (412 otherwise)
     @PutMapping("/{id}")
-    public ResponseEntity<Project> updateProject(
+    public ResponseEntity<ProjectDto> updateProject(
             @PathVariable Long id,
-            @Valid @RequestBody Project project) {
-        Project updatedProject = projectService.update(id, project);
-        return ResponseEntity.ok(updatedProject);
+            @Valid @RequestBody Project project,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ProjectDto updatedProject = projectService.update(id, project, ifMatch);
+        return ResponseEntity.ok().eTag(ETags.project(updatedProject)).body(updatedProject);
     }
 
     @DeleteMapping("/{id}")
@@ -51,36 +128,87 @@ public class ProjectController {
     }
 
     @PutMapping("/{projectId}/team/{teamId}")
-    public ResponseEntity<Project> assignProjectToTeam(
+    public ResponseEntity<ProjectDto> assignProjectToTeam(
             @PathVariable Long projectId,
             @PathVariable Long teamId) {
-        Project project = projectService.assignToTeam(projectId, teamId);
+        ProjectDto project = projectService.assignToTeam(projectId, teamId);
         return ResponseEntity.ok(project);
     }
 
     @PatchMapping("/{projectId}/status")
-    public ResponseEntity<Project> updateProjectStatus(
+    public ResponseEntity<ProjectDto> updateProjectStatus(
             @PathVariable Long projectId,
             @RequestParam ProjectStatus status) {
-        Project project = projectService.updateStatus(projectId, status);
+        ProjectDto project = projectService.updateStatus(projectId, status);
         return ResponseEntity.ok(project);
     }
 
+    // Changes the status of many projects at once, selected by ids or by filter, in a single UPDATE
+    @PatchMapping("/bulk")
+    @Bulkhead(Bulkhead.BULK)
+    public ResponseEntity<BulkUpdateResult> updateProjectsInBulk(@RequestBody ProjectBulkUpdate update) {
+        BulkUpdateResult result = projectService.bulkUpdate(update);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/team/{teamId}")
-    public ResponseEntity<List<Project>> getProjectsByTeam(@PathVariable Long teamId) {
-        List<Project> projects = projectService.findByTeamId(teamId);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<ProjectDto>> getProjectsByTeam(@PathVariable Long teamId, CursorRequest page, FieldSelection fields) {
+        CursorPage<ProjectDto> projects = projectService.findByTeamId(teamId, page, fields);
         return ResponseEntity.ok(projects);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Project>> getProjectsByStatus(@PathVariable ProjectStatus status) {
-        List<Project> projects = projectService.findByStatus(status);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<ProjectDto>> getProjectsByStatus(@PathVariable ProjectStatus status, CursorRequest page, FieldSelection fields) {
+        CursorPage<ProjectDto> projects = projectService.findByStatus(status, page, fields);
+        return ResponseEntity.ok(projects);
+    }
+
+    // e.g. ?status=IN_PROGRESS&memberId=7&minBudget=10000&endTo=2024-12-31
+    @GetMapping("/search")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<ProjectDto>> searchProjects(ProjectSearch search, CursorRequest page, FieldSelection fields) {
+        CursorPage<ProjectDto> projects = projectService.search(search, page, fields);
         return ResponseEntity.ok(projects);
     }
 
     @GetMapping("/overdue")
-    public ResponseEntity<List<Project>> getOverdueProjects() {
-        List<Project> projects = projectService.findOverdueProjects();
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<ProjectDto>> getOverdueProjects(CursorRequest page, FieldSelection fields) {
+        CursorPage<ProjectDto> projects = projectService.findOverdueProjects(page, fields);
         return ResponseEntity.ok(projects);
     }
+
+    // Task counters, hours and completion of several projects, e.g. ?ids=1,2,3
+    @GetMapping("/dashboard")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<ProjectProgressDto>> getProjectDashboard(@RequestParam List<Long> ids) {
+        List<ProjectProgressDto> dashboard = projectService.getDashboard(ids);
+        return ResponseEntity.ok(dashboard);
+    }
+
+    // Compares the project_stats rollup with a from-scratch aggregation without changing it
+    @GetMapping("/stats/verify")
+    @Bulkhead(Bulkhead.SCANS)
+    public ResponseEntity<StatsDriftReport> verifyProjectStats() {
+        StatsDriftReport report = projectStatsService.verify();
+        return ResponseEntity.ok(report);
+    }
+
+    // Same comparison, then rewrites the rows that drifted
+    @PostMapping("/stats/rebuild")
+    @Bulkhead(Bulkhead.SCANS)
+    public ResponseEntity<StatsDriftReport> rebuildProjectStats() {
+        StatsDriftReport report = projectStatsService.rebuild();
+        return ResponseEntity.ok(report);
+    }
+
+    // Newline-delimited JSON dump of the whole table, streamed as it is read
+    @GetMapping("/export")
+    @Bulkhead(Bulkhead.SCANS)
+    public void exportProjects(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        exportService.exportProjects(response.getOutputStream());
+    }
 }
\ No newline at end of file
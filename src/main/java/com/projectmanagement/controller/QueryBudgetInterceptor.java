@@ -0,0 +1,61 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.service.QueryBudget;
+import com.projectmanagement.service.QueryCounter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Dev-mode guard against query regressions: counts the statements of every request and logs a
+ * warning with the offending statement's stack when the request exceeds its budget or runs one
+ * statement shape more than {@code app.query-budget.max-repeats} times. The budget is the
+ * handler's {@link QueryBudget}, else {@code app.query-budget.max-statements}.
+ */
+@Component
+@ConditionalOnProperty("app.query-budget.enabled")
+public class QueryBudgetInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+    private static final String SCOPE = QueryBudgetInterceptor.class.getName() + ".scope";
+
+    @Value("${app.query-budget.max-statements:20}")
+    private int maxStatements;
+
+    @Value("${app.query-budget.max-repeats:5}")
+    private int maxRepeats;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryBudget budget = handler instanceof HandlerMethod method ? method.getMethodAnnotation(QueryBudget.class) : null;
+        request.setAttribute(SCOPE, budget == null
+                ? QueryCounter.start(maxStatements, maxRepeats)
+                : QueryCounter.start(budget.value(), Math.min(budget.maxRepeats(), maxRepeats)));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(SCOPE) instanceof QueryCounter.Scope scope)) {
+            return;
+        }
+        scope.close();
+        if (scope.overBudget() != null) {
+            log.warn("{} {} over its query budget: {} ({} statements in total)", request.getMethod(),
+                    request.getRequestURI(), scope.overBudget(), scope.statements(), scope.overBudgetAt());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.dto.ShardDto;
+import com.projectmanagement.dto.TeamMoveResult;
+import com.projectmanagement.service.ShardDirectory;
+import com.projectmanagement.service.ShardRebalancer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/shards")
+public class ShardController {
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    // Teams per shard, to decide what to move
+    @GetMapping
+    public ResponseEntity<List<ShardDto>> getShards() {
+        List<ShardDto> shards = shardDirectory.teamCounts().entrySet().stream()
+                .map(entry -> new ShardDto(entry.getKey(), entry.getValue()))
+                .toList();
+        return ResponseEntity.ok(shards);
+    }
+
+    @PostMapping("/teams/{teamId}/move")
+    public ResponseEntity<TeamMoveResult> moveTeam(@PathVariable Long teamId, @RequestParam int to) {
+        TeamMoveResult result = shardRebalancer.moveTeam(teamId, to);
+        return ResponseEntity.ok(result);
+    }
+}
@@ -1,15 +1,36 @@
 package com.projectmanagement.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.dto.BulkResult;
+import com.projectmanagement.dto.BulkUpdateResult;
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.MembershipResult;
+import com.projectmanagement.dto.MembershipUpdate;
+import com.projectmanagement.dto.TaskBulkUpdate;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.dto.TaskSearch;
 import com.projectmanagement.model.Task;
 import com.projectmanagement.model.Task.TaskPriority;
 import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.service.BulkImportService;
+import com.projectmanagement.service.Bulkhead;
+import com.projectmanagement.service.ETags;
+import com.projectmanagement.service.ExportService;
+import com.projectmanagement.service.SingleFlight;
 import com.projectmanagement.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -19,28 +40,77 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
-    public ResponseEntity<Task> createTask(@Valid @RequestBody Task task) {
-        Task createdTask = taskService.create(task);
+    public ResponseEntity<TaskDto> createTask(@Valid @RequestBody Task task) {
+        TaskDto createdTask = taskService.create(task);
         return new ResponseEntity<>(createdTask, HttpStatus.CREATED);
     }
 
+    // Accepts a JSON array or an NDJSON stream; rows are parsed and inserted in chunks
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Bulkhead(Bulkhead.BULK)
+    public ResponseEntity<BulkResult> createTasksInBulk(HttpServletRequest request) throws IOException {
+        BulkResult result = bulkImportService.importTasks(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        List<Task> tasks = taskService.findAll();
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<TaskDto>> getAllTasks(CursorRequest page, FieldSelection fields) {
+        CursorPage<TaskDto> tasks = taskService.findAll(page, fields);
+        return ResponseEntity.ok(tasks);
+    }
+
+    // Up to 10000 tasks by id, in the order of the ids; unknown ids are left out
+    @GetMapping(params = "ids")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<TaskDto>> getTasksByIds(@RequestParam List<Long> ids) {
+        List<TaskDto> tasks = taskService.findAllById(ids);
+        return ResponseEntity.ok(tasks);
+    }
+
+    // The same for id lists too long for a query string
+    @PostMapping("/by-ids")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<TaskDto>> getTasksByIdList(@RequestBody List<Long> ids) {
+        List<TaskDto> tasks = taskService.findAllById(ids);
         return ResponseEntity.ok(tasks);
     }
 
+    // An unchanged task (and assignees) is answered from the versions alone; concurrent identical requests share the load
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
-        Task task = taskService.findById(id);
-        return ResponseEntity.ok(task);
+    public ResponseEntity<byte[]> getTaskById(@PathVariable Long id, HttpServletRequest request,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection selection = FieldSelectionAdvice.selection(request);
+        if (ifNoneMatch != null) {
+            String etag = ETags.selected(singleFlight.execute(SingleFlight.TASK_ETAG, id, () -> taskService.currentETag(id)), selection);
+            if (ETags.noneMatchHit(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        JsonBody body = singleFlight.execute(SingleFlight.TASK, List.of(id, selection), () -> {
+            TaskDto task = taskService.findById(id);
+            return JsonBody.write(objectMapper, ETags.task(task), task, selection, TaskDto.class);
+        });
+        return body.toResponse();
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable Long id, @Valid @RequestBody Task task) {
-        Task updatedTask = taskService.update(id, task);
-        return ResponseEntity.ok(updatedTask);
+    public ResponseEntity<TaskDto> updateTask(@PathVariable Long id, @Valid @RequestBody Task task, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskDto updatedTask = taskService.update(id, task, ifMatch);
+        return ResponseEntity.ok().eTag(ETags.task(updatedTask)).body(updatedTask);
     }
 
     @DeleteMapping("/{id}")
@@ -50,66 +120,121 @@ public class TaskController {
     }
 
     @PutMapping("/{taskId}/project/{projectId}")
-    public ResponseEntity<Task> assignTaskToProject(
+    public ResponseEntity<TaskDto> assignTaskToProject(
             @PathVariable Long taskId,
             @PathVariable Long projectId) {
-        Task task = taskService.assignToProject(taskId, projectId);
+        TaskDto task = taskService.assignToProject(taskId, projectId);
         return ResponseEntity.ok(task);
     }
 
     @PostMapping("/{taskId}/employees/{employeeId}")
-    public ResponseEntity<Task> assignEmployeeToTask(
+    public ResponseEntity<MembershipResult> assignEmployeeToTask(
             @PathVariable Long taskId,
             @PathVariable Long employeeId) {
-        Task task = taskService.assignEmployeeToTask(taskId, employeeId);
-        return ResponseEntity.ok(task);
+        MembershipResult result = taskService.assignEmployeeToTask(taskId, employeeId);
+        return ResponseEntity.ok(result);
     }
 
     @DeleteMapping("/{taskId}/employees/{employeeId}")
-    public ResponseEntity<Task> removeEmployeeFromTask(
+    public ResponseEntity<MembershipResult> removeEmployeeFromTask(
             @PathVariable Long taskId,
             @PathVariable Long employeeId) {
-        Task task = taskService.removeEmployeeFromTask(taskId, employeeId);
-        return ResponseEntity.ok(task);
+        MembershipResult result = taskService.removeEmployeeFromTask(taskId, employeeId);
+        return ResponseEntity.ok(result);
+    }
+
+    // Adds and removes many assignees at once; returns counts, not the task
+    @PatchMapping("/{taskId}/employees")
+    public ResponseEntity<MembershipResult> updateTaskAssignees(
+            @PathVariable Long taskId,
+            @RequestBody MembershipUpdate update) {
+        MembershipResult result = taskService.updateAssignees(taskId, update);
+        return ResponseEntity.ok(result);
     }
 
     @PatchMapping("/{taskId}/status")
-    public ResponseEntity<Task> updateTaskStatus(
+    public ResponseEntity<TaskDto> updateTaskStatus(
             @PathVariable Long taskId,
             @RequestParam TaskStatus status) {
-        Task task = taskService.updateStatus(taskId, status);
+        TaskDto task = taskService.updateStatus(taskId, status);
         return ResponseEntity.ok(task);
     }
 
     @PatchMapping("/{taskId}/priority")
-    public ResponseEntity<Task> updateTaskPriority(
+    public ResponseEntity<TaskDto> updateTaskPriority(
             @PathVariable Long taskId,
             @RequestParam TaskPriority priority) {
-        Task task = taskService.updatePriority(taskId, priority);
+        TaskDto task = taskService.updatePriority(taskId, priority);
         return ResponseEntity.ok(task);
     }
 
+    // Moves many tasks at once, selected by ids or by filter, in a single UPDATE
+    @PatchMapping("/bulk")
+    @Bulkhead(Bulkhead.BULK)
+    public ResponseEntity<BulkUpdateResult> updateTasksInBulk(@RequestBody TaskBulkUpdate update) {
+        BulkUpdateResult result = taskService.bulkUpdate(update);
+        return ResponseEntity.ok(result);
+    }
+
+    // The ETag covers every task of the project, so it is valid for each page of the list
     @GetMapping("/project/{projectId}")
-    public ResponseEntity<List<Task>> getTasksByProject(@PathVariable Long projectId) {
-        List<Task> tasks = taskService.findByProjectId(projectId);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<byte[]> getTasksByProject(@PathVariable Long projectId, CursorRequest page,
+                                                    FieldSelection fields, HttpServletRequest request,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FieldSelection selection = FieldSelectionAdvice.selection(request);
+        String etag = singleFlight.execute(SingleFlight.PROJECT_TASKS_ETAG, projectId, () -> taskService.projectTasksETag(projectId));
+        String selectedETag = ETags.selected(etag, selection);
+        if (ETags.noneMatchHit(ifNoneMatch, selectedETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(selectedETag).build();
+        }
+        JsonBody body = singleFlight.execute(SingleFlight.PROJECT_TASKS, List.of(projectId, page, selection), () ->
+                JsonBody.write(objectMapper, etag, taskService.findByProjectId(projectId, page, fields), selection, TaskDto.class));
+        return body.toResponse();
+    }
+
+    // e.g. ?status=TODO&status=IN_PROGRESS&teamId=3&dueTo=2024-06-30
+    @GetMapping("/search")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<TaskDto>> searchTasks(TaskSearch search, CursorRequest page, FieldSelection fields) {
+        CursorPage<TaskDto> tasks = taskService.search(search, page, fields);
+        return ResponseEntity.ok(tasks);
+    }
+
+    // Open tasks due before today
+    @GetMapping("/overdue")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<TaskDto>> getOverdueTasks(CursorRequest page, FieldSelection fields) {
+        CursorPage<TaskDto> tasks = taskService.findOverdueTasks(page, fields);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/employee/{employeeId}")
-    public ResponseEntity<List<Task>> getTasksByEmployee(@PathVariable Long employeeId) {
-        List<Task> tasks = taskService.findByEmployeeId(employeeId);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<TaskDto>> getTasksByEmployee(@PathVariable Long employeeId, CursorRequest page, FieldSelection fields) {
+        CursorPage<TaskDto> tasks = taskService.findByEmployeeId(employeeId, page, fields);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable TaskStatus status) {
-        List<Task> tasks = taskService.findByStatus(status);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<TaskDto>> getTasksByStatus(@PathVariable TaskStatus status, CursorRequest page, FieldSelection fields) {
+        CursorPage<TaskDto> tasks = taskService.findByStatus(status, page, fields);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Task>> getTasksByPriority(@PathVariable TaskPriority priority) {
-        List<Task> tasks = taskService.findByPriority(priority);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<TaskDto>> getTasksByPriority(@PathVariable TaskPriority priority, CursorRequest page, FieldSelection fields) {
+        CursorPage<TaskDto> tasks = taskService.findByPriority(priority, page, fields);
         return ResponseEntity.ok(tasks);
     }
+
+    // Newline-delimited JSON dump of the whole table, streamed as it is read
+    @GetMapping("/export")
+    @Bulkhead(Bulkhead.SCANS)
+    public void exportTasks(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        exportService.exportTasks(response.getOutputStream());
+    }
 }
\ No newline at end of file
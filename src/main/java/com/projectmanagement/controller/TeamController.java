@@ -1,9 +1,18 @@
 package com.projectmanagement.controller;
 
+import com.projectmanagement.dto.MembershipResult;
+import com.projectmanagement.dto.MembershipUpdate;
+import com.projectmanagement.dto.TeamDto;
 import com.projectmanagement.model.Team;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.service.Bulkhead;
+import com.projectmanagement.service.ETags;
 import com.projectmanagement.service.TeamService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,27 +27,50 @@ public class TeamController {
     private TeamService teamService;
 
     @PostMapping
-    public ResponseEntity<Team> createTeam(@Valid @RequestBody Team team) {
-        Team createdTeam = teamService.create(team);
+    public ResponseEntity<TeamDto> createTeam(@Valid @RequestBody Team team) {
+        TeamDto createdTeam = teamService.create(team);
         return new ResponseEntity<>(createdTeam, HttpStatus.CREATED);
     }
 
     @GetMapping
-    public ResponseEntity<List<Team>> getAllTeams() {
-        List<Team> teams = teamService.findAll();
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<TeamDto>> getAllTeams(CursorRequest page) {
+        CursorPage<TeamDto> teams = teamService.findAll(page);
         return ResponseEntity.ok(teams);
     }
 
+    // Up to 10000 teams by id, in the order of the ids; unknown ids are left out
+    @GetMapping(params = "ids")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<TeamDto>> getTeamsByIds(@RequestParam List<Long> ids) {
+        List<TeamDto> teams = teamService.findAllById(ids);
+        return ResponseEntity.ok(teams);
+    }
+
+    // The same for id lists too long for a query string
+    @PostMapping("/by-ids")
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<TeamDto>> getTeamsByIdList(@RequestBody List<Long> ids) {
+        List<TeamDto> teams = teamService.findAllById(ids);
+        return ResponseEntity.ok(teams);
+    }
+
+    // Served from the read cache, so the ETag check needs no SQL either
     @GetMapping("/{id}")
-    public ResponseEntity<Team> getTeamById(@PathVariable Long id) {
-        Team team = teamService.findById(id);
-        return ResponseEntity.ok(team);
+    public ResponseEntity<TeamDto> getTeamById(@PathVariable Long id, HttpServletRequest request,
+                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        TeamDto team = teamService.findById(id);
+        String etag = ETags.selected(ETags.team(team), FieldSelectionAdvice.selection(request));
+        if (ETags.noneMatchHit(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(team);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Team> updateTeam(@PathVariable Long id, @Valid @RequestBody Team team) {
-        Team updatedTeam = teamService.update(id, team);
-        return ResponseEntity.ok(updatedTeam);
+    public ResponseEntity<TeamDto> updateTeam(@PathVariable Long id, @Valid @RequestBody Team team, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TeamDto updatedTeam = teamService.update(id, team, ifMatch);
+        return ResponseEntity.ok().eTag(ETags.team(updatedTeam)).body(updatedTeam);
     }
 
     @DeleteMapping("/{id}")
@@ -48,30 +80,42 @@ public class TeamController {
     }
 
     @PostMapping("/{teamId}/employees/{employeeId}")
-    public ResponseEntity<Team> addEmployeeToTeam(
+    public ResponseEntity<MembershipResult> addEmployeeToTeam(
             @PathVariable Long teamId,
             @PathVariable Long employeeId) {
-        Team team = teamService.addEmployeeToTeam(teamId, employeeId);
-        return ResponseEntity.ok(team);
+        MembershipResult result = teamService.addEmployeeToTeam(teamId, employeeId);
+        return ResponseEntity.ok(result);
     }
 
     @DeleteMapping("/{teamId}/employees/{employeeId}")
-    public ResponseEntity<Team> removeEmployeeFromTeam(
+    public ResponseEntity<MembershipResult> removeEmployeeFromTeam(
             @PathVariable Long teamId,
             @PathVariable Long employeeId) {
-        Team team = teamService.removeEmployeeFromTeam(teamId, employeeId);
-        return ResponseEntity.ok(team);
+        MembershipResult result = teamService.removeEmployeeFromTeam(teamId, employeeId);
+        return ResponseEntity.ok(result);
+    }
+
+    // Adds and removes many members at once; returns counts, not the member list
+    @PatchMapping("/{teamId}/employees")
+    public ResponseEntity<MembershipResult> updateTeamMembers(
+            @PathVariable Long teamId,
+            @RequestBody MembershipUpdate update) {
+        MembershipResult result = teamService.updateMembers(teamId, update);
+        return ResponseEntity.ok(result);
     }
 
+    // Best matches first, typo-tolerant; the last word may be a prefix, e.g. ?name=jon smi
     @GetMapping("/search")
-    public ResponseEntity<List<Team>> searchTeams(@RequestParam String name) {
-        List<Team> teams = teamService.searchByName(name);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<List<TeamDto>> searchTeams(@RequestParam String name, @RequestParam(required = false) Integer limit) {
+        List<TeamDto> teams = teamService.searchByName(name, limit);
         return ResponseEntity.ok(teams);
     }
 
     @GetMapping("/employee/{employeeId}")
-    public ResponseEntity<List<Team>> getTeamsByEmployee(@PathVariable Long employeeId) {
-        List<Team> teams = teamService.findTeamsByEmployee(employeeId);
+    @Bulkhead(Bulkhead.LISTS)
+    public ResponseEntity<CursorPage<TeamDto>> getTeamsByEmployee(@PathVariable Long employeeId, CursorRequest page) {
+        CursorPage<TeamDto> teams = teamService.findTeamsByEmployee(employeeId, page);
         return ResponseEntity.ok(teams);
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.dto.PinnedSiteDto;
+import com.projectmanagement.service.VirtualThreadPinningMonitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Only mapped in virtual-thread mode, like the monitor it reports on
+@RestController
+@RequestMapping("/api/threads")
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class ThreadController {
+
+    @Autowired
+    private VirtualThreadPinningMonitor pinningMonitor;
+
+    // Where virtual threads were pinned to a carrier while blocking, worst first
+    @GetMapping("/pinning")
+    public ResponseEntity<List<PinnedSiteDto>> getPinnedSites() {
+        List<PinnedSiteDto> sites = pinningMonitor.sites();
+        return ResponseEntity.ok(sites);
+    }
+}
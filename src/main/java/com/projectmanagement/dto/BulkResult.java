@@ -0,0 +1,18 @@
+package com.projectmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk create. {@code errors} lists at most the first
+ * {@code BulkImportService.MAX_REPORTED_ERRORS} rejected items; {@code failed} is the full count.
+ */
+public record BulkResult(
+        long received,
+        long created,
+        long failed,
+        List<ItemError> errors) {
+
+    // index is the zero-based position of the item in the request body
+    public record ItemError(long index, String message) {
+    }
+}
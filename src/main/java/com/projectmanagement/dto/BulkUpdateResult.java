@@ -0,0 +1,5 @@
+package com.projectmanagement.dto;
+
+// Number of rows changed by a single set-based UPDATE
+public record BulkUpdateResult(int updated) {
+}
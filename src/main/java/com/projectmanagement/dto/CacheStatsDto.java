@@ -0,0 +1,11 @@
+package com.projectmanagement.dto;
+
+// Counters of one read cache since startup; evictions are size/TTL removals, not invalidations
+public record CacheStatsDto(
+        String name,
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount) {
+}
@@ -0,0 +1,30 @@
+package com.projectmanagement.dto;
+
+import java.util.List;
+
+/**
+ * One committed write, pushed by {@code GET /api/changes/stream}. It says what changed, not the
+ * new state: a client refetches what it displays. {@code fields} lists the changed properties of
+ * an update; {@code projectId} and {@code teamId} are the owners a subscription can filter on.
+ */
+public record ChangeEvent(
+        Type type,
+        Long id,
+        Long version,
+        Change change,
+        List<String> fields,
+        Long projectId,
+        Long teamId) {
+
+    public enum Type {
+        TASK, PROJECT, TEAM, EMPLOYEE
+    }
+
+    public enum Change {
+        CREATED, UPDATED, DELETED
+    }
+
+    public ChangeEvent withTeamId(Long teamId) {
+        return new ChangeEvent(type, id, version, change, fields, projectId, teamId);
+    }
+}
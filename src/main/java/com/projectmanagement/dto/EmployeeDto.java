@@ -0,0 +1,30 @@
+package com.projectmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.projectmanagement.model.Employee;
+
+import java.time.LocalDate;
+
+@JsonFilter(FieldSelection.FILTER)
+public record EmployeeDto(
+        Long id,
+        String firstName,
+        String lastName,
+        String email,
+        String position,
+        LocalDate hireDate,
+        Double salary,
+        Long version) {
+
+    public static EmployeeDto from(Employee employee) {
+        return new EmployeeDto(
+                employee.getId(),
+                employee.getFirstName(),
+                employee.getLastName(),
+                employee.getEmail(),
+                employee.getPosition(),
+                employee.getHireDate(),
+                employee.getSalary(),
+                employee.getVersion());
+    }
+}
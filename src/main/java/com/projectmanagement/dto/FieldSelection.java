@@ -0,0 +1,53 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.exception.BadRequestException;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Query parameters shaping a GET response, e.g. {@code ?fields=title,status,dueDate}: only the
+ * listed properties of the read model are returned, plus {@code id}, which always is. Embedded
+ * lists (the {@code employees} of a task or team) are left out once {@code fields} is given,
+ * unless named in it or in {@code ?expand=}; {@code ?expand=} with nothing after it drops them
+ * from an otherwise full response. Without either parameter the full read model is returned.
+ */
+public record FieldSelection(
+        Set<String> fields,
+        Set<String> expand) {
+
+    // Filter id of the read models a selection applies to
+    public static final String FILTER = "fieldSelection";
+
+    public static final FieldSelection ALL = new FieldSelection(null, null);
+
+    public boolean isPartial() {
+        return fields != null || expand != null;
+    }
+
+    public boolean includes(String field) {
+        return fields == null || fields.contains(field) || "id".equals(field);
+    }
+
+    public boolean expands(String association) {
+        if (!isPartial()) {
+            return true;
+        }
+        return (expand != null && expand.contains(association)) || (fields != null && fields.contains(association));
+    }
+
+    // Rejects names that are not properties of the read model
+    public void validate(Class<? extends Record> readModel) {
+        Set<String> known = Arrays.stream(readModel.getRecordComponents())
+                .map(RecordComponent::getName)
+                .collect(Collectors.toSet());
+        for (Collection<String> names : Arrays.asList(fields, expand)) {
+            if (names != null && !known.containsAll(names)) {
+                throw new BadRequestException("Unknown field in " + names + ", expected some of " + known);
+            }
+        }
+    }
+}
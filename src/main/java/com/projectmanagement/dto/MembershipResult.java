@@ -0,0 +1,9 @@
+package com.projectmanagement.dto;
+
+// Join rows inserted and deleted by a membership change; existing members and unknown employees are skipped
+public record MembershipResult(int added, int removed) {
+
+    public boolean changed() {
+        return added + removed > 0;
+    }
+}
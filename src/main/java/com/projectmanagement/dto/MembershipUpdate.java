@@ -0,0 +1,20 @@
+package com.projectmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Body of PATCH /api/teams/{id}/employees and /api/tasks/{id}/employees: employee ids to add to
+ * and remove from the team or task. Either list may be omitted.
+ */
+public record MembershipUpdate(
+        List<Long> add,
+        List<Long> remove) {
+
+    public static MembershipUpdate adding(Long employeeId) {
+        return new MembershipUpdate(List.of(employeeId), List.of());
+    }
+
+    public static MembershipUpdate removing(Long employeeId) {
+        return new MembershipUpdate(List.of(), List.of(employeeId));
+    }
+}
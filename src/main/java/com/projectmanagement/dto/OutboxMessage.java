@@ -0,0 +1,32 @@
+package com.projectmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.projectmanagement.model.OutboxEvent;
+
+import java.time.Instant;
+
+/**
+ * An outbox event as handed to a sink, each aggregate's events in version order. {@code version}
+ * increases with every change of the aggregate; delivery is at least once, so consumers skip
+ * versions they have already applied.
+ */
+public record OutboxMessage(
+        Long id,
+        String aggregateType,
+        Long aggregateId,
+        Long version,
+        String type,
+        Instant occurredAt,
+        @JsonRawValue String data) {
+
+    public static OutboxMessage from(OutboxEvent event) {
+        return new OutboxMessage(
+                event.getId(),
+                event.getAggregateType(),
+                event.getAggregateId(),
+                event.getAggregateVersion(),
+                event.getEventType(),
+                event.getCreatedAt(),
+                event.getPayload());
+    }
+}
@@ -0,0 +1,12 @@
+package com.projectmanagement.dto;
+
+import java.util.List;
+
+// A code location where virtual threads blocked while pinned to their carrier thread
+public record PinnedSiteDto(
+        String frame,
+        List<String> stackTrace,
+        long count,
+        double totalMillis,
+        double maxMillis) {
+}
@@ -0,0 +1,23 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.Project.ProjectStatus;
+
+import java.util.List;
+
+/**
+ * Body of PATCH /api/projects/bulk. Targets either explicit {@code ids} or every project
+ * matching {@code filter}.
+ */
+public record ProjectBulkUpdate(
+        List<Long> ids,
+        Filter filter,
+        ProjectStatus status) {
+
+    // Criteria are ANDed; null criteria are ignored
+    public record Filter(Long teamId, ProjectStatus status) {
+
+        public boolean isEmpty() {
+            return teamId == null && status == null;
+        }
+    }
+}
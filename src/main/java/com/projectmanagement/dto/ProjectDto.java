@@ -0,0 +1,37 @@
+package com.projectmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Read model of a project. Tasks are not embedded; they are paged through
+ * {@code /api/tasks/project/{projectId}}.
+ */
+@JsonFilter(FieldSelection.FILTER)
+public record ProjectDto(
+        Long id,
+        String name,
+        String description,
+        Double budget,
+        LocalDate startDate,
+        LocalDate endDate,
+        ProjectStatus status,
+        Long teamId,
+        Long version) {
+
+    public static ProjectDto from(Project project) {
+        return new ProjectDto(
+                project.getId(),
+                project.getName(),
+                project.getDescription(),
+                project.getBudget(),
+                project.getStartDate(),
+                project.getEndDate(),
+                project.getStatus(),
+                project.getTeam() == null ? null : project.getTeam().getId(),
+                project.getVersion());
+    }
+}
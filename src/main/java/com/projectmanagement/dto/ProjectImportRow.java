@@ -0,0 +1,16 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.Project.ProjectStatus;
+
+import java.time.LocalDate;
+
+// One element of a POST /api/projects/bulk body
+public record ProjectImportRow(
+        String name,
+        String description,
+        Double budget,
+        LocalDate startDate,
+        LocalDate endDate,
+        ProjectStatus status,
+        Long teamId) {
+}
@@ -0,0 +1,47 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.Project.ProjectStatus;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One card of the project dashboard. Built directly from the project_stats row read by
+ * {@code ProjectRepository.findProgress} through the flat constructor below.
+ */
+public record ProjectProgressDto(
+        Long projectId,
+        String name,
+        ProjectStatus status,
+        long totalTasks,
+        Map<TaskStatus, Long> tasksByStatus,
+        Map<TaskPriority, Long> tasksByPriority,
+        long estimatedHours,
+        long overdueTasks,
+        int percentComplete) {
+
+    // Constructor expression target; argument order matches the SELECT clause
+    public ProjectProgressDto(Long projectId, String name, ProjectStatus status, Long totalTasks,
+                              Long todo, Long inProgress, Long done,
+                              Long low, Long medium, Long high, Long critical,
+                              Long estimatedHours, Long overdueTasks) {
+        this(projectId, name, status, totalTasks,
+                counts(TaskStatus.class, todo, inProgress, done),
+                counts(TaskPriority.class, low, medium, high, critical),
+                estimatedHours == null ? 0 : estimatedHours,
+                overdueTasks,
+                totalTasks == 0 ? 0 : (int) (done * 100 / totalTasks));
+    }
+
+    // values are given in declaration order of the enum
+    private static <E extends Enum<E>> Map<E, Long> counts(Class<E> type, Long... values) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        E[] constants = type.getEnumConstants();
+        for (int i = 0; i < constants.length; i++) {
+            counts.put(constants[i], values[i]);
+        }
+        return counts;
+    }
+}
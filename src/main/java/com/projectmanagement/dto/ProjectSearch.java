@@ -0,0 +1,22 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.Project.ProjectStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Query parameters of GET /api/projects/search. Criteria are ANDed, null criteria are ignored;
+ * {@code memberId} matches projects whose team includes the employee, the end-date and budget
+ * ranges are inclusive.
+ */
+public record ProjectSearch(
+        List<ProjectStatus> status,
+        Long teamId,
+        Long memberId,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endTo,
+        Double minBudget,
+        Double maxBudget) {
+}
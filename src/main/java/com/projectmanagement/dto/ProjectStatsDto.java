@@ -0,0 +1,32 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.ProjectStats;
+
+// Counters of one project_stats row
+public record ProjectStatsDto(
+        Long projectId,
+        long todoCount,
+        long inProgressCount,
+        long doneCount,
+        long lowCount,
+        long mediumCount,
+        long highCount,
+        long criticalCount,
+        long estimatedHours) {
+
+    public static ProjectStatsDto from(ProjectStats stats) {
+        if (stats == null) {
+            return null;
+        }
+        return new ProjectStatsDto(
+                stats.getProjectId(),
+                stats.getTodoCount(),
+                stats.getInProgressCount(),
+                stats.getDoneCount(),
+                stats.getLowCount(),
+                stats.getMediumCount(),
+                stats.getHighCount(),
+                stats.getCriticalCount(),
+                stats.getEstimatedHours());
+    }
+}
@@ -0,0 +1,5 @@
+package com.projectmanagement.dto;
+
+// One shard and the number of teams it holds
+public record ShardDto(int shard, long teams) {
+}
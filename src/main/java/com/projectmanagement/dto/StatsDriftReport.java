@@ -0,0 +1,19 @@
+package com.projectmanagement.dto;
+
+import java.util.List;
+
+/**
+ * Result of comparing project_stats with a from-scratch aggregation. {@code drifts} lists at most
+ * the first {@code ProjectStatsService.MAX_REPORTED_DRIFTS} rows; {@code repaired} is true when
+ * the rows were rewritten.
+ */
+public record StatsDriftReport(
+        long projectsChecked,
+        long driftedProjects,
+        boolean repaired,
+        List<Drift> drifts) {
+
+    // expected is null for an orphaned row, actual is null for a missing row
+    public record Drift(Long projectId, ProjectStatsDto expected, ProjectStatsDto actual) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+
+import java.util.List;
+
+/**
+ * Body of PATCH /api/tasks/bulk. Targets either explicit {@code ids} or every task matching
+ * {@code filter}; {@code status} and/or {@code priority} are the new values.
+ */
+public record TaskBulkUpdate(
+        List<Long> ids,
+        Filter filter,
+        TaskStatus status,
+        TaskPriority priority) {
+
+    // Criteria are ANDed; null criteria are ignored
+    public record Filter(Long projectId, TaskStatus status, TaskPriority priority) {
+
+        public boolean isEmpty() {
+            return projectId == null && status == null && priority == null;
+        }
+    }
+}
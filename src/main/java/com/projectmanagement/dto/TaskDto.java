@@ -0,0 +1,48 @@
+package com.projectmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read model of a task. {@code employees} must already be initialized (fetch-joined or
+ * entity-graph loaded) before calling {@link #from(Task)}; the project is exposed by id only,
+ * which never initializes the lazy proxy.
+ */
+@JsonFilter(FieldSelection.FILTER)
+public record TaskDto(
+        Long id,
+        String title,
+        String description,
+        TaskPriority priority,
+        TaskStatus status,
+        Integer estimatedHours,
+        LocalDate dueDate,
+        Long projectId,
+        List<EmployeeDto> employees,
+        Long version) {
+
+    public static TaskDto from(Task task) {
+        List<EmployeeDto> employees = task.getEmployees().stream()
+                .map(EmployeeDto::from)
+                .sorted(Comparator.comparing(EmployeeDto::id))
+                .toList();
+
+        return new TaskDto(
+                task.getId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getPriority(),
+                task.getStatus(),
+                task.getEstimatedHours(),
+                task.getDueDate(),
+                task.getProject() == null ? null : task.getProject().getId(),
+                employees,
+                task.getVersion());
+    }
+}
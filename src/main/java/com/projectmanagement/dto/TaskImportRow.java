@@ -0,0 +1,17 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+
+import java.time.LocalDate;
+
+// One element of a POST /api/tasks/bulk body
+public record TaskImportRow(
+        String title,
+        String description,
+        TaskPriority priority,
+        TaskStatus status,
+        Integer estimatedHours,
+        LocalDate dueDate,
+        Long projectId) {
+}
@@ -0,0 +1,23 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Query parameters of GET /api/tasks/search. Criteria are ANDed, null criteria are ignored;
+ * {@code status} and {@code priority} take several values ({@code ?status=TODO&status=IN_PROGRESS}),
+ * the due-date range is inclusive.
+ */
+public record TaskSearch(
+        List<TaskStatus> status,
+        List<TaskPriority> priority,
+        Long projectId,
+        Long teamId,
+        Long employeeId,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo) {
+}
@@ -0,0 +1,37 @@
+package com.projectmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.projectmanagement.model.Team;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read model of a team. {@code employees} must already be initialized before calling
+ * {@link #from(Team)}; projects are paged through {@code /api/projects/team/{teamId}}.
+ */
+@JsonFilter(FieldSelection.FILTER)
+public record TeamDto(
+        Long id,
+        String name,
+        String description,
+        LocalDate createdDate,
+        List<EmployeeDto> employees,
+        Long version) {
+
+    public static TeamDto from(Team team) {
+        List<EmployeeDto> employees = team.getEmployees().stream()
+                .map(EmployeeDto::from)
+                .sorted(Comparator.comparing(EmployeeDto::id))
+                .toList();
+
+        return new TeamDto(
+                team.getId(),
+                team.getName(),
+                team.getDescription(),
+                team.getCreatedDate(),
+                employees,
+                team.getVersion());
+    }
+}
@@ -0,0 +1,10 @@
+package com.projectmanagement.dto;
+
+// Outcome of moving a team between shards; projects and tasks count the rows that went with it
+public record TeamMoveResult(
+        Long teamId,
+        int fromShard,
+        int toShard,
+        int projects,
+        int tasks) {
+}
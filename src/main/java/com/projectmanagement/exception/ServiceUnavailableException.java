@@ -0,0 +1,18 @@
+package com.projectmanagement.exception;
+
+import java.time.Duration;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    // Sent as Retry-After
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
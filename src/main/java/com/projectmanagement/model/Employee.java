@@ -1,11 +1,14 @@
 package com.projectmanagement.model;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -19,9 +22,18 @@ import java.util.Set;
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic lock and source of the ETag. Membership changes bump the team's version, not this one
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private Long version;
+
     @NotBlank(message = "First name is required")
     @Size(max = 50, message = "First name must not exceed 50 characters")
     @Column(name = "first_name", nullable = false, length = 50)
@@ -46,11 +58,15 @@ public class Employee {
     @Min(value = 0, message = "Salary must be positive")
     private Double salary;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany(mappedBy = "employees")
-    @JsonBackReference(value = "team-employees")
+    @JsonIgnore
     private Set<Team> teams = new HashSet<>();
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany(mappedBy = "employees")
-    @JsonBackReference(value = "task-employees")
+    @JsonIgnore
     private Set<Task> tasks = new HashSet<>();
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.projectmanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A task or project mutation waiting to be published downstream, inserted by the transaction
+ * that made it. The relay reads unpublished rows in id order, marks them published and later
+ * compacts them away.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox_events", indexes = {
+        // The relay's seek: unpublished rows in id order; compaction scans published ones by age
+        @Index(name = "idx_outbox_events_published_id", columnList = "published_at, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    // Version of the aggregate after the change
+    @Column(name = "aggregate_version")
+    private Long aggregateVersion;
+
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+
+    // JSON of the new values: every property on create, the changed ones on update
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "published_at")
+    private Instant publishedAt;
+
+    public OutboxEvent(String aggregateType, Long aggregateId, Long aggregateVersion, String eventType, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.aggregateVersion = aggregateVersion;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+    }
+}
@@ -1,6 +1,7 @@
 package com.projectmanagement.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
@@ -9,7 +10,10 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -19,13 +23,28 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "projects")
+// Composite indexes for the filter combinations of /api/projects/search and the list endpoints
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_team_status", columnList = "team_id, status"),
+        @Index(name = "idx_projects_status_end_date", columnList = "status, end_date"),
+        @Index(name = "idx_projects_end_date", columnList = "end_date"),
+        @Index(name = "idx_projects_budget", columnList = "budget")
+})
 public class Project {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_seq")
+    @SequenceGenerator(name = "project_seq", sequenceName = "project_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic lock and source of the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private Long version;
+
     @NotBlank(message = "Project name is required")
     @Size(max = 150, message = "Project name must not exceed 150 characters")
     @Column(nullable = false, length = 150)
@@ -48,11 +67,15 @@ public class Project {
     @Column(length = 20)
     private ProjectStatus status = ProjectStatus.PLANNED;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     @JsonBackReference(value = "team-projects")
     private Team team;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference(value = "project-tasks")
     private List<Task> tasks = new ArrayList<>();
@@ -0,0 +1,54 @@
+package com.projectmanagement.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rollup of a project's tasks, kept current by {@code ProjectStatsService} in the transaction
+ * that changes the task. Shares the project's id; there is no mapped association so that the
+ * row can be adjusted with relative UPDATEs without loading the project.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "project_stats")
+public class ProjectStats {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "todo_count", nullable = false)
+    private long todoCount;
+
+    @Column(name = "in_progress_count", nullable = false)
+    private long inProgressCount;
+
+    @Column(name = "done_count", nullable = false)
+    private long doneCount;
+
+    @Column(name = "low_count", nullable = false)
+    private long lowCount;
+
+    @Column(name = "medium_count", nullable = false)
+    private long mediumCount;
+
+    @Column(name = "high_count", nullable = false)
+    private long highCount;
+
+    @Column(name = "critical_count", nullable = false)
+    private long criticalCount;
+
+    @Column(name = "estimated_hours", nullable = false)
+    private long estimatedHours;
+
+    public ProjectStats(Long projectId) {
+        this.projectId = projectId;
+    }
+}
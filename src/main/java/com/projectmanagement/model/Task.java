@@ -1,13 +1,17 @@
 package com.projectmanagement.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -17,13 +21,30 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tasks")
+// Composite indexes for the filter combinations of /api/tasks/search and the list endpoints.
+// InnoDB appends the primary key to every secondary index, so equality filters on a prefix also
+// serve the keyset ORDER BY id without a sort
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_project_status_priority", columnList = "project_id, status, priority"),
+        @Index(name = "idx_tasks_status_priority_due_date", columnList = "status, priority, due_date"),
+        @Index(name = "idx_tasks_due_date_status", columnList = "due_date, status")
+})
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled allocation: Hibernate reserves 50 ids per round trip and can batch the inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic lock and source of the ETag; set-based assignee changes bump it too
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private Long version;
+
     @NotBlank(message = "Task title is required")
     @Size(max = 200, message = "Task title must not exceed 200 characters")
     @Column(nullable = false, length = 200)
@@ -46,18 +67,24 @@ public class Task {
     @Column(name = "due_date")
     private LocalDate dueDate;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     @JsonBackReference(value = "project-tasks")
     private Project project;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany
     @JoinTable(
             name = "task_employees",
             joinColumns = @JoinColumn(name = "task_id"),
-            inverseJoinColumns = @JoinColumn(name = "employee_id")
+            inverseJoinColumns = @JoinColumn(name = "employee_id"),
+            // The primary key leads with task_id; this serves lookups by assignee
+            indexes = @Index(name = "idx_task_employees_employee_task", columnList = "employee_id, task_id")
     )
-    @JsonManagedReference(value = "task-employees")
+    @JsonIgnore
     private Set<Employee> employees = new HashSet<>();
 
     public enum TaskPriority {
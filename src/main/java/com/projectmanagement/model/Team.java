@@ -1,12 +1,16 @@
 package com.projectmanagement.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -22,9 +26,18 @@ import java.util.Set;
 public class Team {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq")
+    @SequenceGenerator(name = "team_seq", sequenceName = "team_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic lock and source of the ETag; set-based membership changes bump it too
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private Long version;
+
     @NotBlank(message = "Team name is required")
     @Size(max = 100, message = "Team name must not exceed 100 characters")
     @Column(nullable = false, length = 100)
@@ -36,17 +49,23 @@ public class Team {
     @Column(name = "created_date")
     private LocalDate createdDate;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @OneToMany(mappedBy = "team", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference(value = "team-projects")
     private List<Project> projects = new ArrayList<>();
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany
     @JoinTable(
             name = "team_employees",
             joinColumns = @JoinColumn(name = "team_id"),
-            inverseJoinColumns = @JoinColumn(name = "employee_id")
+            inverseJoinColumns = @JoinColumn(name = "employee_id"),
+            // The primary key leads with team_id; this serves lookups by member
+            indexes = @Index(name = "idx_team_employees_employee_team", columnList = "employee_id, team_id")
     )
-    @JsonManagedReference(value = "team-employees")
+    @JsonIgnore
     private Set<Employee> employees = new HashSet<>();
 
     @PrePersist
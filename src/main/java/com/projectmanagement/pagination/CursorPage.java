@@ -0,0 +1,28 @@
+package com.projectmanagement.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    private int size;
+
+    private boolean hasNext;
+
+    // Pass back as ?cursor= to fetch the following page
+    private String nextCursor;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = content.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, size, hasNext, nextCursor);
+    }
+}
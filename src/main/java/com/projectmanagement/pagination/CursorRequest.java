@@ -0,0 +1,39 @@
+package com.projectmanagement.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Query parameters of a keyset-paginated list endpoint:
+ * {@code ?cursor=...&size=50&sort=title&direction=ASC}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorRequest {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    // Opaque token returned as nextCursor by the previous page, null for the first page
+    private String cursor;
+
+    private int size = DEFAULT_SIZE;
+
+    private String sort = "id";
+
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    public static CursorRequest firstPage(int size) {
+        return new CursorRequest(null, size, "id", Sort.Direction.ASC);
+    }
+
+    public int boundedSize() {
+        if (size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+}
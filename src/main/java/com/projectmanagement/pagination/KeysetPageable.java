@@ -0,0 +1,210 @@
+package com.projectmanagement.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.exception.BadRequestException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.io.IOException;
+import java.lang.reflect.RecordComponent;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Translates a {@link CursorRequest} into the keyset arguments of a {@code Window}-returning
+ * repository method and turns the resulting window back into a {@link CursorPage}.
+ * The query seeks past the last row of the previous page ({@code WHERE (sortKey, id) > (?, ?)})
+ * instead of using OFFSET, so every page costs the same regardless of its depth.
+ */
+public class KeysetPageable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ConversionService CONVERSION = DefaultConversionService.getSharedInstance();
+
+    private final ScrollPosition position;
+    private final Sort sort;
+    private final Limit limit;
+
+    private KeysetPageable(ScrollPosition position, Sort sort, Limit limit) {
+        this.position = position;
+        this.sort = sort;
+        this.limit = limit;
+    }
+
+    /**
+     * @param sortKeys the properties a client may sort by, mapped to their Java type; every key
+     *                 must be non-nullable so the seek predicate stays total. {@code id} is always
+     *                 appended as the tie-breaker.
+     */
+    public static KeysetPageable of(CursorRequest request, Map<String, Class<?>> sortKeys) {
+        String sortKey = request.getSort() == null ? "id" : request.getSort();
+        if (!sortKeys.containsKey(sortKey)) {
+            throw new BadRequestException("Unsupported sort key '" + sortKey + "', expected one of " + sortKeys.keySet());
+        }
+        Sort.Direction direction = request.getDirection() == null ? Sort.Direction.ASC : request.getDirection();
+
+        Sort sort = Sort.by(direction, sortKey);
+        if (!"id".equals(sortKey)) {
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+
+        ScrollPosition position = request.getCursor() == null || request.getCursor().isBlank()
+                ? ScrollPosition.keyset()
+                : decode(request.getCursor(), sort, sortKeys);
+
+        return new KeysetPageable(position, sort, Limit.of(request.boundedSize()));
+    }
+
+    public ScrollPosition position() {
+        return position;
+    }
+
+    public Sort sort() {
+        return sort;
+    }
+
+    public Limit limit() {
+        return limit;
+    }
+
+    // True when rows are ordered by id alone, so a page can be cut from an id-sorted index
+    public boolean sortsById() {
+        return sort.stream().count() == 1 && sort.getOrderFor("id") != null;
+    }
+
+    public boolean isDescending() {
+        return sort.iterator().next().isDescending();
+    }
+
+    // Id the page starts after, null on the first page
+    public Long afterId() {
+        if (position instanceof KeysetScrollPosition keyset && !keyset.isInitial()) {
+            return (Long) keyset.getKeys().get("id");
+        }
+        return null;
+    }
+
+    /**
+     * Page over ids taken from an in-memory index in sort order, at most {@code limit + 1} of
+     * them: the rows of the first {@code limit} are loaded in one query and the one beyond them
+     * only tells that there is a next page. Ids whose row is gone by now are skipped.
+     */
+    public <T> CursorPage<T> toPage(List<Long> ids, Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        boolean hasNext = ids.size() > limit.max();
+        List<Long> pageIds = hasNext ? ids.subList(0, limit.max()) : ids;
+        Map<Long, T> rows = new HashMap<>();
+        if (!pageIds.isEmpty()) {
+            loader.apply(pageIds).forEach(row -> rows.put(idOf.apply(row), row));
+        }
+        List<T> content = pageIds.stream().filter(rows::containsKey).map(rows::get).toList();
+        return toPage(Window.from(content,
+                index -> ScrollPosition.forward(Map.of("id", idOf.apply(content.get(index)))), hasNext));
+    }
+
+    public <T> CursorPage<T> toPage(Window<T> window) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = encode((KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        return new CursorPage<>(window.getContent(), window.size(), window.hasNext(), nextCursor);
+    }
+
+    /**
+     * Merges pages read with this request from several sources, each in sort order, into the
+     * first {@code limit} rows of their union. There is a next page if rows were left over or a
+     * source has more; the cursor is built from the sort keys of the last row, read from the
+     * record components of the same name.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T extends Record> CursorPage<T> merge(List<CursorPage<T>> pages) {
+        Comparator<T> order = null;
+        for (Sort.Order key : sort) {
+            Comparator<T> byKey = Comparator.comparing(row -> (Comparable) component(row, key.getProperty()));
+            byKey = key.isDescending() ? byKey.reversed() : byKey;
+            order = order == null ? byKey : order.thenComparing(byKey);
+        }
+        List<T> rows = pages.stream().flatMap(page -> page.getContent().stream()).sorted(order).toList();
+        boolean hasNext = rows.size() > limit.max() || pages.stream().anyMatch(CursorPage::isHasNext);
+        List<T> content = rows.size() > limit.max() ? rows.subList(0, limit.max()) : rows;
+
+        String nextCursor = null;
+        if (hasNext && !content.isEmpty()) {
+            T last = content.get(content.size() - 1);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            sort.forEach(key -> keys.put(key.getProperty(), component(last, key.getProperty())));
+            nextCursor = encode(ScrollPosition.forward(keys));
+        }
+        return new CursorPage<>(content, content.size(), hasNext, nextCursor);
+    }
+
+    private static Object component(Record row, String name) {
+        for (RecordComponent component : row.getClass().getRecordComponents()) {
+            if (component.getName().equals(name)) {
+                try {
+                    return component.getAccessor().invoke(row);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot read " + name + " of " + row.getClass().getSimpleName(), e);
+                }
+            }
+        }
+        throw new IllegalStateException(row.getClass().getSimpleName() + " has no sort key " + name);
+    }
+
+    private static String encode(KeysetScrollPosition position) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((key, value) -> keys.put(key, value == null ? null : value.toString()));
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(keys);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    private static ScrollPosition decode(String cursor, Sort sort, Map<String, Class<?>> sortKeys) {
+        Map<String, String> raw;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor);
+            raw = MAPPER.readValue(json, new TypeReference<Map<String, String>>() {});
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            String property = order.getProperty();
+            if (!raw.containsKey(property)) {
+                throw new BadRequestException("Cursor does not match sort '" + property + "'");
+            }
+            keys.put(property, convert(raw.get(property), sortKeys.get(property)));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        try {
+            if (value == null) {
+                return null;
+            }
+            if (type == LocalDate.class) {
+                return LocalDate.parse(value);
+            }
+            return CONVERSION.convert(value, type);
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Malformed cursor");
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.projectmanagement.repository;
 
 import com.projectmanagement.model.Employee;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,7 +25,7 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     List<Employee> findByHireDateAfter(LocalDate date);
 
-    List<Employee> findByFirstNameContainingOrLastNameContainingIgnoreCase(String firstName, String lastName);
+    List<Employee> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
 
     List<Employee> findBySalaryBetween(Double minSalary, Double maxSalary);
 
@@ -33,4 +38,28 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     @Query("SELECT e FROM Employee e JOIN e.tasks task WHERE task.id = :taskId")
     List<Employee> findByTaskId(@Param("taskId") Long taskId);
+
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Source rows of the name search index, read in id ranges by the parallel rebuild
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM Employee e")
+    long findMaxId();
+
+    @Query("SELECT e.id, e.firstName, e.lastName, e.email, e.position FROM Employee e " +
+            "WHERE e.id > :after AND e.id <= :upTo ORDER BY e.id")
+    List<Object[]> findSearchFields(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
+    // Keyset (seek) pagination, no OFFSET
+    Window<Employee> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Employee> findByPosition(String position, ScrollPosition scrollPosition, Limit limit, Sort sort);
+
+    Window<Employee> findByTeamsId(Long teamId, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Employee> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
+            String firstName, String lastName, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Employee> findBySalaryBetween(Double minSalary, Double maxSalary,
+                                         ScrollPosition position, Limit limit, Sort sort);
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.dto.FieldSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset-paginated read of a record read model straight from the columns it needs: the query
+ * selects the requested components only (and the sort keys, for the cursor and for merging
+ * shard pages) and leaves the others null, so unrequested columns are neither read nor
+ * serialized. A component named
+ * {@code <association>Id} reads the foreign key; embedded lists are never selected.
+ */
+final class KeysetProjection {
+
+    private KeysetProjection() {
+    }
+
+    static <E, D extends Record> Window<D> find(EntityManager entityManager, Class<E> entityType, Class<D> readModel,
+                                                Specification<E> spec, FieldSelection fields,
+                                                ScrollPosition position, Limit limit, Sort sort) {
+        fields.validate(readModel);
+        RecordComponent[] components = readModel.getRecordComponents();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityType);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        for (RecordComponent component : components) {
+            String name = component.getName();
+            boolean sortKey = sort.getOrderFor(name) != null;
+            if (!Collection.class.isAssignableFrom(component.getType()) && (fields.includes(name) || sortKey)) {
+                selections.add(path(root, name).alias(name));
+            }
+        }
+        query.multiselect(selections);
+
+        List<Predicate> where = new ArrayList<>();
+        Predicate matching = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (matching != null) {
+            where.add(matching);
+        }
+        if (position instanceof KeysetScrollPosition keyset && !keyset.isInitial()) {
+            where.add(seek(cb, root, sort, keyset.getKeys()));
+        }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(sort.stream()
+                .map(order -> order.isAscending() ? cb.asc(path(root, order.getProperty())) : cb.desc(path(root, order.getProperty())))
+                .toList());
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(limit.max() + 1).getResultList();
+        boolean hasNext = rows.size() > limit.max();
+        List<Tuple> page = hasNext ? rows.subList(0, limit.max()) : rows;
+        Constructor<D> constructor = canonicalConstructor(readModel, components);
+        List<D> content = page.stream().map(row -> construct(constructor, components, fields, sort, row)).toList();
+        return Window.from(content, index -> ScrollPosition.forward(keys(page.get(index), sort)), hasNext);
+    }
+
+    private static Path<?> path(Root<?> root, String name) {
+        boolean attribute = root.getModel().getAttributes().stream().anyMatch(a -> a.getName().equals(name));
+        if (!attribute && name.endsWith("Id")) {
+            return root.get(name.substring(0, name.length() - 2)).get("id");
+        }
+        return root.get(name);
+    }
+
+    // (k1 > v1) OR (k1 = v1 AND k2 > v2) ..., with < for descending keys
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate seek(CriteriaBuilder cb, Root<?> root, Sort sort, Map<String, Object> keys) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalSoFar = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<Comparable> key = (Expression<Comparable>) path(root, order.getProperty());
+            Comparable value = (Comparable) keys.get(order.getProperty());
+            List<Predicate> alternative = new ArrayList<>(equalSoFar);
+            alternative.add(order.isAscending() ? cb.greaterThan(key, value) : cb.lessThan(key, value));
+            alternatives.add(cb.and(alternative.toArray(Predicate[]::new)));
+            equalSoFar.add(cb.equal(key, value));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private static Map<String, Object> keys(Tuple row, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        sort.forEach(order -> keys.put(order.getProperty(), row.get(order.getProperty())));
+        return keys;
+    }
+
+    private static <D extends Record> Constructor<D> canonicalConstructor(Class<D> readModel, RecordComponent[] components) {
+        try {
+            return readModel.getDeclaredConstructor(
+                    Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(readModel.getSimpleName() + " has no canonical constructor", e);
+        }
+    }
+
+    private static <D extends Record> D construct(Constructor<D> constructor, RecordComponent[] components,
+                                                  FieldSelection fields, Sort sort, Tuple row) {
+        Object[] values = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            String name = components[i].getName();
+            boolean sortKey = sort.getOrderFor(name) != null;
+            if (!Collection.class.isAssignableFrom(components[i].getType()) && (fields.includes(name) || sortKey)) {
+                values[i] = row.get(name);
+            }
+        }
+        try {
+            return constructor.newInstance(values);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot build " + constructor.getDeclaringClass().getSimpleName()
+                    + " from a projection", e);
+        }
+    }
+}
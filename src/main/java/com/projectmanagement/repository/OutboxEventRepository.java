@@ -0,0 +1,46 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Next batch for the relay; the rows stay locked until it commits, so one node relays at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> findUnpublished(Limit limit);
+
+    // Unpublished events of the aggregates in a batch, pulled in ahead of their ids
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.aggregateId IN :aggregateIds ORDER BY e.id")
+    List<OutboxEvent> findUnpublishedOf(@Param("aggregateIds") Collection<Long> aggregateIds);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") Instant publishedAt);
+
+    // Creation time of the oldest event not yet published, behind the lag gauge
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.publishedAt IS NULL")
+    Optional<Instant> findOldestUnpublished();
+
+    // Compaction, in id batches
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.publishedAt < :before ORDER BY e.id")
+    List<Long> findPublishedBefore(@Param("before") Instant before, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,17 +1,29 @@
 package com.projectmanagement.repository;
 
+import com.projectmanagement.dto.ProjectProgressDto;
 import com.projectmanagement.model.Project;
 import com.projectmanagement.model.Project.ProjectStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, JpaSpecificationExecutor<Project>, ProjectRepositoryCustom {
 
     // Method name convention queries
     List<Project> findByStatus(ProjectStatus status);
@@ -28,4 +40,52 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
 
     @Query("SELECT p FROM Project p WHERE p.endDate < :currentDate AND p.status != 'COMPLETED'")
     List<Project> findOverdueProjects(@Param("currentDate") LocalDate currentDate);
+
+    // Dashboard: counters come from the project_stats rollup by primary key; only the
+    // date-dependent overdue count is evaluated against the tasks of each project
+    @Query("SELECT new com.projectmanagement.dto.ProjectProgressDto(p.id, p.name, p.status, " +
+            "COALESCE(s.todoCount + s.inProgressCount + s.doneCount, 0L), " +
+            "COALESCE(s.todoCount, 0L), COALESCE(s.inProgressCount, 0L), COALESCE(s.doneCount, 0L), " +
+            "COALESCE(s.lowCount, 0L), COALESCE(s.mediumCount, 0L), COALESCE(s.highCount, 0L), " +
+            "COALESCE(s.criticalCount, 0L), COALESCE(s.estimatedHours, 0L), " +
+            "(SELECT COUNT(t) FROM Task t WHERE t.project.id = p.id AND t.dueDate < :today AND t.status != 'DONE')) " +
+            "FROM Project p LEFT JOIN ProjectStats s ON s.projectId = p.id " +
+            "WHERE p.id IN :ids " +
+            "ORDER BY p.id")
+    List<ProjectProgressDto> findProgress(@Param("ids") Collection<Long> ids, @Param("today") LocalDate today);
+
+    // Version behind the ETag of a project
+    @Query("SELECT p.version FROM Project p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Source rows of the overdue index: open projects with an end date, in id batches
+    @Query("SELECT p.id, p.endDate FROM Project p " +
+            "WHERE p.id > :after AND p.endDate IS NOT NULL AND p.status != 'COMPLETED' ORDER BY p.id")
+    List<Object[]> findOpenEndDates(@Param("after") long after, Limit limit);
+
+    // Rows a set-based update is about to change, see ProjectRepositoryCustom#findUpdateTargetsWhere
+    @Query("SELECT p.id, p.endDate, p.version, tm.id FROM Project p LEFT JOIN p.team tm WHERE p.id IN :ids")
+    List<Object[]> findUpdateTargetsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Owner of a project's tasks in the change feed
+    @Query("SELECT p.team.id FROM Project p WHERE p.id = :id")
+    Optional<Long> findTeamIdById(@Param("id") Long id);
+
+    // Keyset (seek) pagination, no OFFSET
+    Window<Project> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Project> findByStatus(ProjectStatus status, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Project> findByTeamId(Long teamId, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Project> findByEndDateBeforeAndStatusNot(LocalDate currentDate, ProjectStatus status,
+                                                    ScrollPosition position, Limit limit, Sort sort);
+
+    // Bulk export: rows are pulled from a server-side cursor instead of being materialized
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Project p ORDER BY p.id")
+    Stream<Project> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProjectRepositoryCustom {
+
+    // Single UPDATE statement; returns the number of rows matched
+    int updateStatus(Collection<Long> ids, ProjectStatus status);
+
+    // Same for every project matching the non-null criteria
+    int updateStatusWhere(Long teamId, ProjectStatus currentStatus, ProjectStatus status);
+
+    // (id, endDate, version, team id) of every project matching the non-null criteria, read before a set-based update
+    List<Object[]> findUpdateTargetsWhere(Long teamId, ProjectStatus currentStatus);
+
+    // Keyset window of the projects matching spec with only the selected columns read, the others null
+    Window<ProjectDto> findProjected(Specification<Project> spec, FieldSelection fields,
+                                     ScrollPosition position, Limit limit, Sort sort);
+}
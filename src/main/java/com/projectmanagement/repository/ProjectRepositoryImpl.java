@@ -0,0 +1,83 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+// Set-based updates (see TaskRepositoryImpl for the flush/clear contract) and column projections
+class ProjectRepositoryImpl implements ProjectRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateStatus(Collection<Long> ids, ProjectStatus status) {
+        return update(status, (cb, project) -> List.of(project.get("id").in(ids)));
+    }
+
+    @Override
+    public int updateStatusWhere(Long teamId, ProjectStatus currentStatus, ProjectStatus status) {
+        return update(status, (cb, project) -> filter(cb, project, teamId, currentStatus));
+    }
+
+    @Override
+    public Window<ProjectDto> findProjected(Specification<Project> spec, FieldSelection fields,
+                                            ScrollPosition position, Limit limit, Sort sort) {
+        return KeysetProjection.find(entityManager, Project.class, ProjectDto.class, spec, fields, position, limit, sort);
+    }
+
+    @Override
+    public List<Object[]> findUpdateTargetsWhere(Long teamId, ProjectStatus currentStatus) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Project> project = query.from(Project.class);
+        query.multiselect(project.get("id"), project.get("endDate"), project.get("version"),
+                        project.join("team", JoinType.LEFT).get("id"))
+                .where(filter(cb, project, teamId, currentStatus).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private List<Predicate> filter(CriteriaBuilder cb, Root<Project> project, Long teamId, ProjectStatus currentStatus) {
+        List<Predicate> criteria = new ArrayList<>();
+        if (teamId != null) {
+            criteria.add(cb.equal(project.get("team").get("id"), teamId));
+        }
+        if (currentStatus != null) {
+            criteria.add(cb.equal(project.get("status"), currentStatus));
+        }
+        return criteria;
+    }
+
+    private int update(ProjectStatus status, BiFunction<CriteriaBuilder, Root<Project>, List<Predicate>> where) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Project> update = cb.createCriteriaUpdate(Project.class);
+        Root<Project> project = update.from(Project.class);
+        update.set(project.<ProjectStatus>get("status"), status);
+        update.set(project.<Long>get("version"), cb.sum(project.<Long>get("version"), 1L));
+        update.where(where.apply(cb, project).toArray(Predicate[]::new));
+
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,66 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.dto.ProjectSearch;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// WHERE clause of a project search with only the given criteria in it, and of the fixed project lists
+public final class ProjectSpecifications {
+
+    private ProjectSpecifications() {
+    }
+
+    public static Specification<Project> ofTeam(Long teamId) {
+        return (project, query, cb) -> cb.equal(project.get("team").get("id"), teamId);
+    }
+
+    public static Specification<Project> withStatus(ProjectStatus status) {
+        return (project, query, cb) -> cb.equal(project.get("status"), status);
+    }
+
+    // Unfinished projects whose end date is before the given day
+    public static Specification<Project> overdueOn(LocalDate today) {
+        return (project, query, cb) -> cb.and(cb.lessThan(project.get("endDate"), today),
+                cb.notEqual(project.get("status"), ProjectStatus.COMPLETED));
+    }
+
+    public static Specification<Project> withIds(Collection<Long> ids) {
+        return (project, query, cb) -> project.get("id").in(ids);
+    }
+
+    public static Specification<Project> matching(ProjectSearch search) {
+        return (project, query, cb) -> {
+            List<Predicate> criteria = new ArrayList<>();
+            if (search.status() != null && !search.status().isEmpty()) {
+                criteria.add(project.get("status").in(search.status()));
+            }
+            if (search.teamId() != null) {
+                criteria.add(cb.equal(project.get("team").get("id"), search.teamId()));
+            }
+            if (search.memberId() != null) {
+                // At most one row per project: a team lists an employee once
+                criteria.add(cb.equal(project.join("team").join("employees").get("id"), search.memberId()));
+            }
+            if (search.endFrom() != null) {
+                criteria.add(cb.greaterThanOrEqualTo(project.get("endDate"), search.endFrom()));
+            }
+            if (search.endTo() != null) {
+                criteria.add(cb.lessThanOrEqualTo(project.get("endDate"), search.endTo()));
+            }
+            if (search.minBudget() != null) {
+                criteria.add(cb.greaterThanOrEqualTo(project.get("budget"), search.minBudget()));
+            }
+            if (search.maxBudget() != null) {
+                criteria.add(cb.lessThanOrEqualTo(project.get("budget"), search.maxBudget()));
+            }
+            return cb.and(criteria.toArray(Predicate[]::new));
+        };
+    }
+}
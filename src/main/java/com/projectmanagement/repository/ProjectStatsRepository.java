@@ -0,0 +1,82 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.model.ProjectStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProjectStatsRepository extends JpaRepository<ProjectStats, Long> {
+
+    // From-scratch aggregation over the tasks table, used to seed, repair and verify the rollup
+    String AGGREGATE = "SELECT new com.projectmanagement.model.ProjectStats(p.id, " +
+            "SUM(CASE WHEN t.status = 'TODO' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.status = 'DONE' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.priority = 'LOW' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.priority = 'MEDIUM' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.priority = 'HIGH' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN t.priority = 'CRITICAL' THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(t.estimatedHours), 0L)) " +
+            "FROM Project p LEFT JOIN p.tasks t ";
+
+    // Relative update, so concurrent task writes to the same project never lose an increment
+    @Modifying
+    @Query("UPDATE ProjectStats s SET " +
+            "s.todoCount = s.todoCount + :todo, " +
+            "s.inProgressCount = s.inProgressCount + :inProgress, " +
+            "s.doneCount = s.doneCount + :done, " +
+            "s.lowCount = s.lowCount + :low, " +
+            "s.mediumCount = s.mediumCount + :medium, " +
+            "s.highCount = s.highCount + :high, " +
+            "s.criticalCount = s.criticalCount + :critical, " +
+            "s.estimatedHours = s.estimatedHours + :hours " +
+            "WHERE s.projectId = :projectId")
+    int increment(@Param("projectId") Long projectId,
+                  @Param("todo") long todo, @Param("inProgress") long inProgress, @Param("done") long done,
+                  @Param("low") long low, @Param("medium") long medium, @Param("high") long high,
+                  @Param("critical") long critical, @Param("hours") long hours);
+
+    // Insert of a whole row, completed by the upserts below with what to do when it exists
+    String INSERT = "INSERT INTO project_stats (project_id, todo_count, in_progress_count, done_count, " +
+            "low_count, medium_count, high_count, critical_count, estimated_hours) VALUES (" +
+            ":#{#row.projectId}, :#{#row.todoCount}, :#{#row.inProgressCount}, :#{#row.doneCount}, " +
+            ":#{#row.lowCount}, :#{#row.mediumCount}, :#{#row.highCount}, :#{#row.criticalCount}, " +
+            ":#{#row.estimatedHours}) ON DUPLICATE KEY UPDATE ";
+
+    /**
+     * Inserts the seed of a missing row, or adds the delta if a concurrent writer inserted the
+     * row after this one found it missing. The seed must already include the delta.
+     */
+    @Modifying
+    @Query(value = INSERT +
+            "todo_count = todo_count + :#{#delta.todoCount}, " +
+            "in_progress_count = in_progress_count + :#{#delta.inProgressCount}, " +
+            "done_count = done_count + :#{#delta.doneCount}, " +
+            "low_count = low_count + :#{#delta.lowCount}, " +
+            "medium_count = medium_count + :#{#delta.mediumCount}, " +
+            "high_count = high_count + :#{#delta.highCount}, " +
+            "critical_count = critical_count + :#{#delta.criticalCount}, " +
+            "estimated_hours = estimated_hours + :#{#delta.estimatedHours}", nativeQuery = true)
+    int seedOrIncrement(@Param("row") ProjectStats seed, @Param("delta") ProjectStats delta);
+
+    // Writes a recomputed row whether or not it exists yet
+    @Modifying
+    @Query(value = INSERT +
+            "todo_count = VALUES(todo_count), in_progress_count = VALUES(in_progress_count), " +
+            "done_count = VALUES(done_count), low_count = VALUES(low_count), medium_count = VALUES(medium_count), " +
+            "high_count = VALUES(high_count), critical_count = VALUES(critical_count), " +
+            "estimated_hours = VALUES(estimated_hours)", nativeQuery = true)
+    int upsert(@Param("row") ProjectStats row);
+
+    @Query(AGGREGATE + "WHERE p.id IN :projectIds GROUP BY p.id")
+    List<ProjectStats> aggregate(@Param("projectIds") Collection<Long> projectIds);
+
+    @Query(AGGREGATE + "GROUP BY p.id ORDER BY p.id")
+    List<ProjectStats> aggregateAll();
+}
\ No newline at end of file
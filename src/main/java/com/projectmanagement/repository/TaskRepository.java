@@ -4,16 +4,29 @@ import com.projectmanagement.model.Employee;
 import com.projectmanagement.model.Task;
 import com.projectmanagement.model.Task.TaskPriority;
 import com.projectmanagement.model.Task.TaskStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
 
     // Method name convention queries
     List<Task> findByStatus(TaskStatus status);
@@ -35,4 +48,78 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.status = :status")
     Long countByProjectIdAndStatus(@Param("projectId") Long projectId, @Param("status") TaskStatus status);
+
+    // Fetch plans for the read model: assignees are loaded with the owner, never one query per row
+    @EntityGraph(attributePaths = "employees")
+    Optional<Task> findWithEmployeesById(Long id);
+
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.employees WHERE t.id IN :ids")
+    List<Task> fetchEmployees(@Param("ids") Collection<Long> ids);
+
+    // Source rows of the overdue index: open tasks with a due date, in id batches
+    @Query("SELECT t.id, t.dueDate FROM Task t " +
+            "WHERE t.id > :after AND t.dueDate IS NOT NULL AND t.status != 'DONE' ORDER BY t.id")
+    List<Object[]> findOpenDueDates(@Param("after") long after, Limit limit);
+
+    // Rows a set-based update is about to change, see TaskRepositoryCustom#findUpdateTargetsWhere
+    @Query("SELECT t.id, t.dueDate, p.id, t.version, tm.id FROM Task t LEFT JOIN t.project p LEFT JOIN p.team tm " +
+            "WHERE t.id IN :ids")
+    List<Object[]> findUpdateTargetsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Versions behind the ETags of a task and of a project's task list; nothing else is read
+    @Query("SELECT t.version, e.id, e.version FROM Task t LEFT JOIN t.employees e WHERE t.id = :id ORDER BY e.id")
+    List<Object[]> findVersions(@Param("id") Long id);
+
+    // One row of (task count, highest and summed task ids, sum of task versions, assignment count, sum of assignee versions)
+    @Query("SELECT COUNT(t), COALESCE(MAX(t.id), 0L), COALESCE(SUM(t.id), 0L), COALESCE(SUM(t.version), 0L), " +
+            "(SELECT COUNT(e) FROM Task a JOIN a.employees e WHERE a.project.id = :projectId), " +
+            "(SELECT COALESCE(SUM(e.version), 0L) FROM Task a JOIN a.employees e WHERE a.project.id = :projectId) " +
+            "FROM Task t WHERE t.project.id = :projectId")
+    List<Object[]> findVersionSummaryByProjectId(@Param("projectId") Long projectId);
+
+    /*
+     * Set-based assignment writes on task_employees, as for team members: (version, project id)
+     * of the locked task row, then one statement per chunk of employee ids
+     */
+    @Query(value = "SELECT version, project_id FROM tasks WHERE id = :id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_employees (task_id, employee_id) SELECT :taskId, e.id FROM employees e " +
+            "WHERE e.id IN (:employeeIds) AND NOT EXISTS " +
+            "(SELECT 1 FROM task_employees a WHERE a.task_id = :taskId AND a.employee_id = e.id)", nativeQuery = true)
+    int addAssignees(@Param("taskId") Long taskId, @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM task_employees WHERE task_id = :taskId AND employee_id IN (:employeeIds)", nativeQuery = true)
+    int removeAssignees(@Param("taskId") Long taskId, @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.version = t.version + 1 WHERE t.id = :id")
+    int incrementVersion(@Param("id") Long id);
+
+    @Query("SELECT e.id FROM Task t JOIN t.employees e WHERE t.id = :id ORDER BY e.id")
+    List<Long> findAssigneeIds(@Param("id") Long id);
+
+    // Keyset (seek) pagination, no OFFSET
+    Window<Task> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Task> findByStatus(TaskStatus status, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Task> findByPriority(TaskPriority priority, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Task> findByProjectId(Long projectId, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Task> findByEmployeesId(Long employeeId, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Task> findByDueDateBeforeAndStatusNot(LocalDate currentDate, TaskStatus status,
+                                                 ScrollPosition position, Limit limit, Sort sort);
+
+    // Bulk export: rows are pulled from a server-side cursor instead of being materialized
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t ORDER BY t.id")
+    Stream<Task> streamAll();
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Sets status and/or priority (a null value leaves the column unchanged) on the given tasks
+     * with a single UPDATE statement. Returns the number of rows matched.
+     */
+    int updateStatusAndPriority(Collection<Long> ids, TaskStatus status, TaskPriority priority);
+
+    /**
+     * Same as {@link #updateStatusAndPriority(Collection, TaskStatus, TaskPriority)} for every task
+     * matching the non-null criteria.
+     */
+    int updateStatusAndPriorityWhere(Long projectId, TaskStatus currentStatus, TaskPriority currentPriority,
+                                     TaskStatus status, TaskPriority priority);
+
+    /**
+     * (id, dueDate, project id, version, team id) of every task matching the non-null criteria,
+     * read before a set-based update for the rollups, indexes and change events it affects.
+     */
+    List<Object[]> findUpdateTargetsWhere(Long projectId, TaskStatus currentStatus, TaskPriority currentPriority);
+
+    /**
+     * Keyset window of the tasks matching {@code spec} with only the selected columns read; the
+     * other components, and always {@code employees}, are null.
+     */
+    Window<TaskDto> findProjected(Specification<Task> spec, FieldSelection fields,
+                                  ScrollPosition position, Limit limit, Sort sort);
+}
@@ -0,0 +1,105 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Set-based updates built with the Criteria API, so that only the requested columns are assigned
+ * and only the given criteria end up in the WHERE clause. Pending changes are flushed before the
+ * statement and the persistence context is cleared after it, so no managed entity keeps a stale
+ * value (the same contract as {@code @Modifying(flushAutomatically = true, clearAutomatically = true)}).
+ * Lists of selected columns are read through {@link KeysetProjection}.
+ */
+class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateStatusAndPriority(Collection<Long> ids, TaskStatus status, TaskPriority priority) {
+        return update(status, priority, (cb, task) -> List.of(task.get("id").in(ids)));
+    }
+
+    @Override
+    public int updateStatusAndPriorityWhere(Long projectId, TaskStatus currentStatus, TaskPriority currentPriority,
+                                            TaskStatus status, TaskPriority priority) {
+        return update(status, priority, (cb, task) -> filter(cb, task, projectId, currentStatus, currentPriority));
+    }
+
+    @Override
+    public List<Object[]> findUpdateTargetsWhere(Long projectId, TaskStatus currentStatus, TaskPriority currentPriority) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, Project> project = task.join("project", JoinType.LEFT);
+        query.multiselect(task.get("id"), task.get("dueDate"), project.get("id"), task.get("version"),
+                        project.join("team", JoinType.LEFT).get("id"))
+                .where(filter(cb, task, projectId, currentStatus, currentPriority).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public Window<TaskDto> findProjected(Specification<Task> spec, FieldSelection fields,
+                                         ScrollPosition position, Limit limit, Sort sort) {
+        return KeysetProjection.find(entityManager, Task.class, TaskDto.class, spec, fields, position, limit, sort);
+    }
+
+    private List<Predicate> filter(CriteriaBuilder cb, Root<Task> task,
+                                   Long projectId, TaskStatus currentStatus, TaskPriority currentPriority) {
+        List<Predicate> criteria = new ArrayList<>();
+        if (projectId != null) {
+            criteria.add(cb.equal(task.get("project").get("id"), projectId));
+        }
+        if (currentStatus != null) {
+            criteria.add(cb.equal(task.get("status"), currentStatus));
+        }
+        if (currentPriority != null) {
+            criteria.add(cb.equal(task.get("priority"), currentPriority));
+        }
+        return criteria;
+    }
+
+    private int update(TaskStatus status, TaskPriority priority,
+                       BiFunction<CriteriaBuilder, Root<Task>, List<Predicate>> where) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+        if (status != null) {
+            update.set(task.<TaskStatus>get("status"), status);
+        }
+        if (priority != null) {
+            update.set(task.<TaskPriority>get("priority"), priority);
+        }
+        // Versioned like an entity update, so ETags and If-Match see the change
+        update.set(task.<Long>get("version"), cb.sum(task.<Long>get("version"), 1L));
+        update.where(where.apply(cb, task).toArray(Predicate[]::new));
+
+        entityManager.flush();
+        int updated = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,78 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.dto.TaskSearch;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// WHERE clause of a task search with only the given criteria in it, and of the fixed task lists
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> inProject(Long projectId) {
+        return (task, query, cb) -> cb.equal(task.get("project").get("id"), projectId);
+    }
+
+    public static Specification<Task> assignedTo(Long employeeId) {
+        return (task, query, cb) -> cb.equal(task.join("employees").get("id"), employeeId);
+    }
+
+    public static Specification<Task> withStatus(TaskStatus status) {
+        return (task, query, cb) -> cb.equal(task.get("status"), status);
+    }
+
+    public static Specification<Task> withPriority(TaskPriority priority) {
+        return (task, query, cb) -> cb.equal(task.get("priority"), priority);
+    }
+
+    // Open tasks due before the given day
+    public static Specification<Task> overdueOn(LocalDate today) {
+        return (task, query, cb) -> cb.and(cb.lessThan(task.get("dueDate"), today),
+                cb.notEqual(task.get("status"), TaskStatus.DONE));
+    }
+
+    public static Specification<Task> withIds(Collection<Long> ids) {
+        return (task, query, cb) -> task.get("id").in(ids);
+    }
+
+    public static Specification<Task> matching(TaskSearch search) {
+        return (task, query, cb) -> {
+            List<Predicate> criteria = new ArrayList<>();
+            if (search.status() != null && !search.status().isEmpty()) {
+                criteria.add(task.get("status").in(search.status()));
+            }
+            if (search.priority() != null && !search.priority().isEmpty()) {
+                criteria.add(task.get("priority").in(search.priority()));
+            }
+            if (search.projectId() != null) {
+                criteria.add(cb.equal(task.get("project").get("id"), search.projectId()));
+            }
+            if (search.teamId() != null) {
+                criteria.add(cb.equal(task.join("project").get("team").get("id"), search.teamId()));
+            }
+            if (search.employeeId() != null) {
+                // At most one row per task: a task lists an employee once
+                Join<Task, Employee> assignee = task.join("employees");
+                criteria.add(cb.equal(assignee.get("id"), search.employeeId()));
+            }
+            if (search.dueFrom() != null) {
+                criteria.add(cb.greaterThanOrEqualTo(task.get("dueDate"), search.dueFrom()));
+            }
+            if (search.dueTo() != null) {
+                criteria.add(cb.lessThanOrEqualTo(task.get("dueDate"), search.dueTo()));
+            }
+            return cb.and(criteria.toArray(Predicate[]::new));
+        };
+    }
+}
@@ -2,13 +2,21 @@ package com.projectmanagement.repository;
 
 import com.projectmanagement.model.Employee;
 import com.projectmanagement.model.Team;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TeamRepository extends JpaRepository<Team, Long> {
@@ -26,4 +34,54 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
 
     @Query("SELECT t FROM Team t LEFT JOIN FETCH t.projects WHERE t.id = :id")
     Team findByIdWithProjects(@Param("id") Long id);
+
+    // Fetch plans for the read model: assignees are loaded with the owner, never one query per row
+    @EntityGraph(attributePaths = "employees")
+    Optional<Team> findWithEmployeesById(Long id);
+
+    @Query("SELECT DISTINCT t FROM Team t LEFT JOIN FETCH t.employees WHERE t.id IN :ids")
+    List<Team> fetchEmployees(@Param("ids") Collection<Long> ids);
+
+    // Membership lookups used to evict cached read models precisely
+    @Query("SELECT t.id FROM Team t JOIN t.employees e WHERE e.id = :employeeId")
+    List<Long> findIdsByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Query("SELECT DISTINCT e.id FROM Team t JOIN t.employees e WHERE t.id IN :teamIds")
+    List<Long> findMemberIds(@Param("teamIds") Collection<Long> teamIds);
+
+    /*
+     * Set-based membership writes on team_employees: the member set is never loaded. The team row
+     * is locked first, so concurrent changes to one team queue up and the inserts skipping
+     * existing members cannot race; unknown employee ids insert nothing.
+     */
+    @Query(value = "SELECT version FROM teams WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockVersion(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO team_employees (team_id, employee_id) SELECT :teamId, e.id FROM employees e " +
+            "WHERE e.id IN (:employeeIds) AND NOT EXISTS " +
+            "(SELECT 1 FROM team_employees m WHERE m.team_id = :teamId AND m.employee_id = e.id)", nativeQuery = true)
+    int addMembers(@Param("teamId") Long teamId, @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM team_employees WHERE team_id = :teamId AND employee_id IN (:employeeIds)", nativeQuery = true)
+    int removeMembers(@Param("teamId") Long teamId, @Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying
+    @Query("UPDATE Team t SET t.version = t.version + 1 WHERE t.id = :id")
+    int incrementVersion(@Param("id") Long id);
+
+    // Source rows of the name search index, read in id ranges by the parallel rebuild
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM Team t")
+    long findMaxId();
+
+    @Query("SELECT t.id, t.name, t.description FROM Team t WHERE t.id > :after AND t.id <= :upTo ORDER BY t.id")
+    List<Object[]> findSearchFields(@Param("after") long after, @Param("upTo") long upTo, Limit limit);
+
+    // Keyset (seek) pagination, no OFFSET
+    Window<Team> findAllBy(ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Team> findByNameContainingIgnoreCase(String name, ScrollPosition position, Limit limit, Sort sort);
+
+    Window<Team> findByEmployeesId(Long employeeId, ScrollPosition position, Limit limit, Sort sort);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.projectmanagement.service;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * {@code @Async} methods run on Spring Boot's {@code applicationTaskExecutor} and
+ * {@code @Scheduled} jobs on its {@code taskScheduler}; both use virtual threads when
+ * {@code spring.threads.virtual.enabled} is set on a JDK 21 runtime.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+}
@@ -0,0 +1,113 @@
+package com.projectmanagement.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Batched, per-scope memoized reads of read models. {@link #loadAll} fetches the ids it is
+ * given in one batch of IN lists; {@link #load} fetches a single id. Within a scope whatever
+ * was loaded, found or not, is remembered until the scope closes, so a later {@code findById}
+ * of the same id in the request costs no query. Outside a scope every load goes to the
+ * database.
+ *
+ * <p>Scopes are bound to the thread. {@code BatchLoaderInterceptor} opens one for every GET
+ * request; nothing is written there, so remembered read models cannot go stale. The batch
+ * reads of the services open their own. Single {@code findById} calls are not merged with each
+ * other: without an event loop there is no tick to collect them in, so callers that need many
+ * ids go through {@code findAllById}.
+ */
+public final class BatchLoader {
+
+    public static final String EMPLOYEES = "employees";
+    public static final String PROJECTS = "projects";
+    public static final String TASKS = "tasks";
+    public static final String TEAMS = "teams";
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private BatchLoader() {
+    }
+
+    /**
+     * Opens a scope on this thread, or joins the one already open; only the outermost
+     * {@link Scope#close()} ends it.
+     */
+    public static Scope open() {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            scope = new Scope();
+            CURRENT.set(scope);
+        }
+        scope.depth++;
+        return scope;
+    }
+
+    /**
+     * The read model with the id, or null if there is none. {@code fetch} gets distinct ids and
+     * returns the read models found, keyed by id; it must split the ids into IN lists itself.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> V load(String kind, Long id, Function<List<Long>, Map<Long, V>> fetch) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return fetch.apply(List.of(id)).get(id);
+        }
+        Batch batch = scope.batch(kind);
+        if (!batch.loaded.containsKey(id)) {
+            batch.pending.add(id);
+            List<Long> ids = new ArrayList<>(batch.pending);
+            batch.pending.clear();
+            Map<Long, V> found = fetch.apply(ids);
+            // Missing ids are remembered too, as null
+            ids.forEach(loaded -> batch.loaded.put(loaded, found.get(loaded)));
+        }
+        return (V) batch.loaded.get(id);
+    }
+
+    // The read models found for the ids, in their order, loaded in one batch
+    public static <V> List<V> loadAll(String kind, Collection<Long> ids, Function<List<Long>, Map<Long, V>> fetch) {
+        try (Scope scope = open()) {
+            // Queued, so the first load reads all the ids not loaded yet
+            Batch batch = scope.batch(kind);
+            ids.stream().filter(id -> !batch.loaded.containsKey(id)).forEach(batch.pending::add);
+            Map<Long, V> found = new LinkedHashMap<>();
+            for (Long id : new LinkedHashSet<>(ids)) {
+                V value = load(kind, id, fetch);
+                if (value != null) {
+                    found.put(id, value);
+                }
+            }
+            return List.copyOf(found.values());
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Map<String, Batch> batches = new HashMap<>();
+        private int depth;
+
+        private Batch batch(String kind) {
+            return batches.computeIfAbsent(kind, k -> new Batch());
+        }
+
+        @Override
+        public void close() {
+            if (--depth == 0) {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    private static final class Batch {
+
+        private final Set<Long> pending = new LinkedHashSet<>();
+        private final Map<Long, Object> loaded = new HashMap<>();
+    }
+}
@@ -0,0 +1,332 @@
+package com.projectmanagement.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.dto.BulkResult;
+import com.projectmanagement.dto.ChangeEvent.Change;
+import com.projectmanagement.dto.ProjectImportRow;
+import com.projectmanagement.dto.TaskImportRow;
+import com.projectmanagement.exception.BadRequestException;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Creates large numbers of entities from a JSON array or an NDJSON stream. The body is parsed
+ * incrementally and written in chunks of {@code app.bulk.chunk-size} rows, each in its own
+ * transaction, so the JDBC driver receives batched inserts (see {@code hibernate.jdbc.batch_size})
+ * and ids come from pooled sequences. A chunk that fails at flush time is replayed row by row so
+ * that only the offending rows are rejected.
+ */
+@Service
+public class BulkImportService {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private OverdueIndex overdueIndex;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private EmployeeReplication employeeReplication;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    public BulkResult importTasks(InputStream in) throws IOException {
+        return importAll(in, TaskImportRow.class, this::shardOf, this::toTask, entities -> Map.of(), tasks -> {
+            projectStatsService.tasksAdded(tasks);
+            tasks.forEach(task -> {
+                overdueIndex.taskChanged(task);
+                changeFeed.taskChanged(Change.CREATED, task, List.of());
+            });
+        });
+    }
+
+    public BulkResult importProjects(InputStream in) throws IOException {
+        return importAll(in, ProjectImportRow.class, this::shardOf, this::toProject, entities -> Map.of(),
+                projects -> projects.forEach(project -> {
+                    projectStatsService.projectCreated(project.getId());
+                    overdueIndex.projectChanged(project);
+                    changeFeed.projectChanged(Change.CREATED, project, List.of());
+                }));
+    }
+
+    public BulkResult importEmployees(InputStream in) throws IOException {
+        return importAll(in, Employee.class, row -> Shards.HOME, this::toEmployee, this::rejectDuplicateEmails,
+                employees -> {
+                    employees.forEach(employee -> {
+                        nameSearchIndex.employeeChanged(employee);
+                        changeFeed.employeeChanged(Change.CREATED, employee, List.of());
+                    });
+                    employeeReplication.changed(employees.stream().map(Employee::getId).toList());
+                });
+    }
+
+    private <R, E> BulkResult importAll(InputStream in, Class<R> rowType, ToIntFunction<R> shardOf, Function<R, E> mapper,
+                                        ChunkValidator<E> chunkValidator, Consumer<List<E>> afterPersist)
+            throws IOException {
+        Report report = new Report();
+        List<Item<R>> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<R> rows = objectMapper.readerFor(rowType).readValues(in)) {
+            long index = 0;
+            while (true) {
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    chunk.add(new Item<>(index, rows.nextValue()));
+                } catch (JsonParseException e) {
+                    throw new BadRequestException("Malformed JSON at item " + index + ": " + e.getOriginalMessage());
+                } catch (JsonMappingException e) {
+                    report.reject(index, e.getOriginalMessage());
+                }
+                index++;
+
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, shardOf, mapper, chunkValidator, afterPersist, report);
+                    chunk.clear();
+                }
+            }
+            report.received = index;
+        }
+
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, shardOf, mapper, chunkValidator, afterPersist, report);
+        }
+        return report.toResult();
+    }
+
+    // Sharded, the rows of a chunk are written shard by shard, each part in its own transaction
+    private <R, E> void writeChunk(List<Item<R>> chunk, ToIntFunction<R> shardOf, Function<R, E> mapper,
+                                   ChunkValidator<E> chunkValidator, Consumer<List<E>> afterPersist, Report report) {
+        if (!shards.isSharded()) {
+            writePart(chunk, mapper, chunkValidator, afterPersist, report);
+            return;
+        }
+        Map<Integer, List<Item<R>>> parts = chunk.stream().collect(Collectors.groupingBy(
+                item -> shardOf.applyAsInt(item.row()), TreeMap::new, Collectors.toList()));
+        parts.forEach((shard, part) -> Shards.on(shard, () -> {
+            writePart(part, mapper, chunkValidator, afterPersist, report);
+            return null;
+        }));
+    }
+
+    private <R, E> void writePart(List<Item<R>> chunk, Function<R, E> mapper,
+                                  ChunkValidator<E> chunkValidator, Consumer<List<E>> afterPersist, Report report) {
+        try {
+            report.merge(persistInTransaction(chunk, mapper, chunkValidator, afterPersist));
+        } catch (RuntimeException chunkFailure) {
+            // One bad row rolls back the whole batch; replay it row by row to isolate the culprit
+            for (Item<R> item : chunk) {
+                try {
+                    report.merge(persistInTransaction(List.of(item), mapper, chunkValidator, afterPersist));
+                } catch (RuntimeException e) {
+                    report.reject(item.index(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+    }
+
+    private <R, E> Report persistInTransaction(List<Item<R>> items, Function<R, E> mapper,
+                                               ChunkValidator<E> chunkValidator,
+                                               Consumer<List<E>> afterPersist) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return transaction.execute(status -> {
+            Report outcome = new Report();
+            List<E> entities = items.stream().map(item -> mapper.apply(item.row())).toList();
+            Map<Integer, String> rejected = chunkValidator.validate(entities);
+            List<E> persisted = new ArrayList<>(entities.size());
+
+            for (int i = 0; i < entities.size(); i++) {
+                E entity = entities.get(i);
+                String error = rejected.containsKey(i) ? rejected.get(i) : violations(entity);
+                if (error != null) {
+                    outcome.reject(items.get(i).index(), error);
+                    continue;
+                }
+                entityManager.persist(entity);
+                persisted.add(entity);
+                outcome.created++;
+            }
+
+            // Derived state (project_stats rows, search index entries) follows the chunk's transaction
+            afterPersist.accept(persisted);
+            entityManager.flush();
+            entityManager.clear();
+            return outcome;
+        });
+    }
+
+    private String violations(Object entity) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(entity);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    // Same rule as EmployeeService.create, checked with one query per chunk
+    private Map<Integer, String> rejectDuplicateEmails(List<Employee> employees) {
+        Set<String> emails = employees.stream()
+                .map(Employee::getEmail)
+                .filter(email -> email != null)
+                .collect(Collectors.toSet());
+        Set<String> existing = emails.isEmpty() ? Set.of() : new HashSet<>(employeeRepository.findExistingEmails(emails));
+
+        Map<Integer, String> rejected = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < employees.size(); i++) {
+            String email = employees.get(i).getEmail();
+            if (email != null && (existing.contains(email) || !seen.add(email))) {
+                rejected.put(i, "Email already exists: " + email);
+            }
+        }
+        return rejected;
+    }
+
+    // Rows are entities already; a replayed row still carries the id of the rolled-back attempt
+    private Employee toEmployee(Employee row) {
+        row.setId(null);
+        return row;
+    }
+
+    // A task goes to the shard of its project, a project to the shard of its team
+    private int shardOf(TaskImportRow row) {
+        return row.projectId() == null ? Shards.HOME : shardDirectory.project(row.projectId());
+    }
+
+    private int shardOf(ProjectImportRow row) {
+        return row.teamId() == null ? Shards.HOME : shardDirectory.team(row.teamId());
+    }
+
+    private Task toTask(TaskImportRow row) {
+        Task task = new Task();
+        task.setTitle(row.title());
+        task.setDescription(row.description());
+        task.setPriority(row.priority() == null ? TaskPriority.MEDIUM : row.priority());
+        task.setStatus(row.status() == null ? TaskStatus.TODO : row.status());
+        task.setEstimatedHours(row.estimatedHours());
+        task.setDueDate(row.dueDate());
+        if (row.projectId() != null) {
+            task.setProject(entityManager.getReference(Project.class, row.projectId()));
+        }
+        return task;
+    }
+
+    private Project toProject(ProjectImportRow row) {
+        Project project = new Project();
+        project.setName(row.name());
+        project.setDescription(row.description());
+        project.setBudget(row.budget());
+        project.setStartDate(row.startDate());
+        project.setEndDate(row.endDate());
+        project.setStatus(row.status() == null ? ProjectStatus.PLANNED : row.status());
+        if (row.teamId() != null) {
+            project.setTeam(entityManager.getReference(Team.class, row.teamId()));
+        }
+        return project;
+    }
+
+    @FunctionalInterface
+    private interface ChunkValidator<E> {
+        // Checks that need the database, keyed by position in the chunk
+        Map<Integer, String> validate(List<E> entities);
+    }
+
+    private record Item<R>(long index, R row) {
+    }
+
+    private static class Report {
+        private long received;
+        private long created;
+        private long failed;
+        private final List<BulkResult.ItemError> errors = new ArrayList<>();
+
+        void reject(long index, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BulkResult.ItemError(index, message));
+            }
+        }
+
+        void merge(Report other) {
+            created += other.created;
+            failed += other.failed;
+            for (BulkResult.ItemError error : other.errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(error);
+                }
+            }
+        }
+
+        BulkResult toResult() {
+            errors.sort((a, b) -> Long.compare(a.index(), b.index()));
+            return new BulkResult(received, created, failed, errors);
+        }
+    }
+}
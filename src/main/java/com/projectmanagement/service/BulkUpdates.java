@@ -0,0 +1,92 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.MembershipUpdate;
+import com.projectmanagement.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// Request checks shared by the set-based updates, membership changes and batch reads
+final class BulkUpdates {
+
+    static final int MAX_IDS = 10_000;
+
+    // Ids bound to one IN list
+    static final int CHUNK_SIZE = 1_000;
+
+    private BulkUpdates() {
+    }
+
+    /**
+     * Returns {@code true} when the update targets explicit ids and {@code false} when it targets a
+     * filter. Exactly one of the two is required; an empty filter would match the whole table.
+     */
+    static boolean targetsIds(List<Long> ids, boolean filterEmpty) {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        if (hasIds == !filterEmpty) {
+            throw new BadRequestException("Exactly one of 'ids' or a non-empty 'filter' is required");
+        }
+        if (hasIds && ids.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " ids can be updated at once");
+        }
+        return hasIds;
+    }
+
+    /**
+     * Returns the request with distinct, non-null ids and no missing lists. At least one and at
+     * most {@link #MAX_IDS} ids are required, and no id may be both added and removed.
+     */
+    static MembershipUpdate checkMembership(MembershipUpdate request) {
+        List<Long> add = distinct(request.add());
+        List<Long> remove = distinct(request.remove());
+        if (add.isEmpty() && remove.isEmpty()) {
+            throw new BadRequestException("Nothing to change: 'add' or 'remove' is required");
+        }
+        if (add.size() + remove.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " employees can be changed at once");
+        }
+        if (!Collections.disjoint(add, remove)) {
+            throw new BadRequestException("An employee cannot be both added and removed");
+        }
+        return new MembershipUpdate(add, remove);
+    }
+
+    // Distinct ids of a batch read: at least one and at most MAX_IDS
+    static List<Long> checkReadIds(Collection<Long> ids) {
+        List<Long> distinct = distinct(ids == null ? null : new ArrayList<>(ids));
+        if (distinct.isEmpty()) {
+            throw new BadRequestException("At least one id is required");
+        }
+        if (distinct.size() > MAX_IDS) {
+            throw new BadRequestException("At most " + MAX_IDS + " ids can be read at once");
+        }
+        return distinct;
+    }
+
+    // Runs a read once per chunk of ids and collects the rows it returns
+    static <T> List<T> readInChunks(List<Long> ids, Function<List<Long>, List<T>> read) {
+        List<T> rows = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            rows.addAll(read.apply(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()))));
+        }
+        return rows;
+    }
+
+    // Runs a set-based write once per chunk of ids and sums the rows it changed
+    static int inChunks(List<Long> ids, ToIntFunction<List<Long>> write) {
+        int changed = 0;
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            changed += write.applyAsInt(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return changed;
+    }
+
+    private static List<Long> distinct(List<Long> ids) {
+        return ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+}
@@ -0,0 +1,26 @@
+package com.projectmanagement.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a handler method inside the named bulkhead of {@link Bulkheads}, so expensive endpoints
+ * cannot take every database connection from the cheap ones. Handlers without it are not
+ * limited. {@code app.bulkhead.handlers.<Controller>.<method>} moves a handler to another
+ * bulkhead, or out of all of them with {@code none}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Bulkhead {
+
+    String LISTS = "lists";
+    String SCANS = "scans";
+    String BULK = "bulk";
+
+    // Name of the bulkhead, the key of its app.bulkhead.<name>.* settings
+    String value();
+}
@@ -0,0 +1,217 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Named concurrency limits for classes of endpoints, see {@link Bulkhead}. A request that finds
+ * its bulkhead full waits in a bounded queue, first come first served, and is rejected with
+ * {@link ServiceUnavailableException} (503 with {@code Retry-After}) when the queue is full or
+ * its wait runs out.
+ *
+ * <p>The limit adapts to latency (AIMD): a request slower than the target latency multiplies
+ * the limit by the backoff ratio, a faster one adds {@code 1/limit} while at least half the
+ * limit is in use. It stays between the minimum and the maximum concurrency.
+ *
+ * <p>Settings are read per bulkhead as {@code app.bulkhead.<name>.<setting>}, falling back to
+ * {@code app.bulkhead.<setting>}: {@code max-concurrency}, {@code min-concurrency},
+ * {@code queue-size}, {@code max-wait}, {@code target-latency}, {@code backoff-ratio} and
+ * {@code retry-after}.
+ */
+@Component
+public class Bulkheads {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    // Blocks for up to max-wait; the permit must be released when the request completes
+    public Permit acquire(String name) {
+        return compartment(name).acquire();
+    }
+
+    public Compartment compartment(String name) {
+        return compartments.computeIfAbsent(name, this::create);
+    }
+
+    private Compartment create(String name) {
+        Compartment compartment = new Compartment(name,
+                setting(name, "max-concurrency", Integer.class, 16),
+                setting(name, "min-concurrency", Integer.class, 1),
+                setting(name, "queue-size", Integer.class, 32),
+                setting(name, "max-wait", Duration.class, Duration.ofSeconds(1)),
+                setting(name, "target-latency", Duration.class, Duration.ofMillis(500)),
+                setting(name, "backoff-ratio", Double.class, 0.9),
+                setting(name, "retry-after", Duration.class, Duration.ofSeconds(1)));
+        Gauge.builder("bulkhead.limit", compartment, Compartment::limit).tag("bulkhead", name)
+                .description("Current concurrency limit").register(meterRegistry);
+        Gauge.builder("bulkhead.active", compartment, Compartment::active).tag("bulkhead", name)
+                .description("Requests holding a permit").register(meterRegistry);
+        Gauge.builder("bulkhead.queued", compartment, Compartment::queued).tag("bulkhead", name)
+                .description("Requests waiting for a permit").register(meterRegistry);
+        compartment.rejected = Counter.builder("bulkhead.rejected").tag("bulkhead", name)
+                .description("Requests shed with 503").register(meterRegistry);
+        return compartment;
+    }
+
+    private <T> T setting(String name, String key, Class<T> type, T defaultValue) {
+        T shared = environment.getProperty("app.bulkhead." + key, type, defaultValue);
+        return environment.getProperty("app.bulkhead." + name + "." + key, type, shared);
+    }
+
+    public static final class Compartment {
+
+        private final String name;
+        private final int maxLimit;
+        private final int minLimit;
+        private final int queueSize;
+        private final Duration maxWait;
+        private final long targetLatencyNanos;
+        private final double backoffRatio;
+        private final Duration retryAfter;
+
+        // Fair, so queued requests get permits in arrival order
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private final Condition available = lock.newCondition();
+        private double limit;
+        private int active;
+        private int queued;
+        private Counter rejected;
+
+        Compartment(String name, int maxLimit, int minLimit, int queueSize, Duration maxWait, Duration targetLatency,
+                    double backoffRatio, Duration retryAfter) {
+            this.name = name;
+            this.maxLimit = Math.max(1, maxLimit);
+            this.minLimit = Math.max(1, Math.min(minLimit, this.maxLimit));
+            this.queueSize = queueSize;
+            this.maxWait = maxWait;
+            this.targetLatencyNanos = targetLatency.toNanos();
+            this.backoffRatio = backoffRatio;
+            this.retryAfter = retryAfter;
+            this.limit = this.maxLimit;
+        }
+
+        Permit acquire() {
+            lock.lock();
+            try {
+                if (active < permits() && queued == 0) {
+                    active++;
+                    return new Permit(this, System.nanoTime());
+                }
+                if (queued >= queueSize) {
+                    throw reject();
+                }
+                queued++;
+                try {
+                    long nanos = maxWait.toNanos();
+                    while (active >= permits()) {
+                        if (nanos <= 0) {
+                            throw reject();
+                        }
+                        nanos = available.awaitNanos(nanos);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw reject();
+                } finally {
+                    queued--;
+                }
+                active++;
+                return new Permit(this, System.nanoTime());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release(long latencyNanos) {
+            lock.lock();
+            try {
+                if (latencyNanos > targetLatencyNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                } else if (active * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+                active--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int limit() {
+            lock.lock();
+            try {
+                return permits();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int active() {
+            lock.lock();
+            try {
+                return active;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public int queued() {
+            lock.lock();
+            try {
+                return queued;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int permits() {
+            return (int) limit;
+        }
+
+        private ServiceUnavailableException reject() {
+            rejected.increment();
+            return new ServiceUnavailableException("Too many concurrent " + name + " requests, retry later", retryAfter);
+        }
+    }
+
+    // Held while a request runs inside a bulkhead
+    public static final class Permit {
+
+        private final Compartment compartment;
+        private final long startedAt;
+        private boolean released;
+
+        private Permit(Compartment compartment, long startedAt) {
+            this.compartment = compartment;
+            this.startedAt = startedAt;
+        }
+
+        public void release() {
+            release(System.nanoTime() - startedAt);
+        }
+
+        // Takes the latency as measured by the caller
+        void release(long latencyNanos) {
+            if (!released) {
+                released = true;
+                compartment.release(latencyNanos);
+            }
+        }
+    }
+}
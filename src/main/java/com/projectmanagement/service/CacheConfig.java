@@ -0,0 +1,15 @@
+package com.projectmanagement.service;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caches are created by Spring Boot from the {@code spring.cache.*} properties. The caching
+ * advice runs outside the transactional advice, so a hit neither opens a transaction nor borrows
+ * a connection, and a miss reads the database inside the cache's per-key load.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+}
@@ -0,0 +1,468 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.ChangeEvent;
+import com.projectmanagement.dto.ChangeEvent.Change;
+import com.projectmanagement.dto.ChangeEvent.Type;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.repository.ProjectRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Change events behind {@code GET /api/changes/stream}, so boards can follow writes instead of
+ * polling the lists.
+ *
+ * <p>Services report writes while their transaction is open; events are published after commit,
+ * in commit order, by a single dispatcher thread that numbers them, keeps the last
+ * {@code app.changes.history-size} for resuming clients and copies each one into the buffer of
+ * every matching subscriber. Each subscriber has its own sender on executor threads of the feed,
+ * virtual ones in virtual-thread mode and otherwise a pool of {@code app.changes.sender-threads},
+ * so a slow client neither holds up the others nor the application task executor. A subscriber
+ * is disconnected when its buffer of {@code app.changes.buffer-size} events fills up or a send
+ * blocks for longer than {@code app.changes.send-timeout}, and resumes from its
+ * {@code Last-Event-ID} when it reconnects. A client that asks to resume from an event that is
+ * no longer kept (or from before a restart) gets a {@code reset} event and should reload.
+ *
+ * <p>Task and project events are also handed to the {@link Outbox} while the transaction is
+ * open, with the new values, for the downstream systems.
+ */
+@Component
+public class ChangeFeed {
+
+    public static final String CHANGE_EVENT = "change";
+    public static final String RESET_EVENT = "reset";
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+    // Cached owner of projects without a team
+    private static final Long NO_TEAM = 0L;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.changes.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.changes.history-size:1000}")
+    private int historySize;
+
+    @Value("${app.changes.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${app.changes.send-timeout:PT30S}")
+    private Duration sendTimeout;
+
+    @Value("${app.changes.sender-threads:32}")
+    private int senderThreads;
+
+    // Event ids are "<instance>-<sequence>", so ids from before a restart are recognized
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<Long, Long> projectTeams = new ConcurrentHashMap<>();
+    // Sends block while a client does not read, so they stay off the application task executor
+    private Executor senders;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Guarded by this
+    private long sequence;
+    private final ArrayDeque<Numbered> history = new ArrayDeque<>();
+
+    @PostConstruct
+    void startSenders() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("change-sender-");
+            virtual.setVirtualThreads(true);
+            senders = virtual;
+        } else {
+            AtomicInteger count = new AtomicInteger();
+            senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+                Thread thread = new Thread(runnable, "change-sender-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void taskChanged(Change change, Task task, List<String> fields) {
+        Long projectId = task.getProject() == null ? null : task.getProject().getId();
+        // Taken from the loaded project while the writer's shard is bound; otherwise resolved on dispatch
+        Long teamId = projectId == null || !Hibernate.isInitialized(task.getProject()) || task.getProject().getTeam() == null
+                ? null : task.getProject().getTeam().getId();
+        ChangeEvent event = new ChangeEvent(Type.TASK, task.getId(), task.getVersion(), change, fields, projectId, teamId);
+        publish(event);
+
+        Map<String, Object> state = snapshot(task);
+        state.put("projectId", projectId);
+        if (fields.contains("employees")) {
+            state.put("employees", task.getEmployees().stream().map(Employee::getId).sorted().toList());
+        }
+        outbox.append(event, outboxData(change, state, fields));
+    }
+
+    public void projectChanged(Change change, Project project, List<String> fields) {
+        Long teamId = project.getTeam() == null ? null : project.getTeam().getId();
+        ChangeEvent event = new ChangeEvent(Type.PROJECT, project.getId(), project.getVersion(), change, fields,
+                project.getId(), teamId);
+        publish(event);
+
+        Map<String, Object> state = snapshot(project);
+        state.put("teamId", teamId);
+        outbox.append(event, outboxData(change, state, fields));
+    }
+
+    public void teamChanged(Change change, Team team, List<String> fields) {
+        publish(new ChangeEvent(Type.TEAM, team.getId(), team.getVersion(), change, fields, null, team.getId()));
+    }
+
+    // A set-based membership change; version is the one it bumped the team to
+    public void teamMembersChanged(Long teamId, Long version) {
+        publish(new ChangeEvent(Type.TEAM, teamId, version, Change.UPDATED, List.of("employees"), null, teamId));
+    }
+
+    // A set-based assignment change, with the task's assignees after it
+    public void taskAssigneesChanged(Long taskId, Long version, Long projectId, List<Long> employeeIds) {
+        ChangeEvent event = new ChangeEvent(Type.TASK, taskId, version, Change.UPDATED, List.of("employees"),
+                projectId, null);
+        publish(event);
+        outbox.append(event, Map.of("employees", employeeIds));
+    }
+
+    public void employeeChanged(Change change, Employee employee, List<String> fields) {
+        publish(new ChangeEvent(Type.EMPLOYEE, employee.getId(), employee.getVersion(), change, fields, null, null));
+    }
+
+    // Rows of (id, dueDate, project id, version, team id) read before a set-based update to the given values
+    public void tasksUpdated(List<Object[]> rows, Map<String, Object> values) {
+        List<String> fields = List.copyOf(values.keySet());
+        for (Object[] row : rows) {
+            ChangeEvent event = new ChangeEvent(Type.TASK, (Long) row[0], (Long) row[3] + 1, Change.UPDATED,
+                    fields, (Long) row[2], (Long) row[4]);
+            publish(event);
+            outbox.append(event, values);
+        }
+    }
+
+    // Rows of (id, endDate, version, team id) read before a set-based update to the given values
+    public void projectsUpdated(List<Object[]> rows, Map<String, Object> values) {
+        List<String> fields = List.copyOf(values.keySet());
+        for (Object[] row : rows) {
+            ChangeEvent event = new ChangeEvent(Type.PROJECT, (Long) row[0], (Long) row[2] + 1, Change.UPDATED,
+                    fields, (Long) row[0], (Long) row[3]);
+            publish(event);
+            outbox.append(event, values);
+        }
+    }
+
+    // Properties whose values differ between two snapshots taken with the same keys
+    public static List<String> changedFields(Map<String, Object> before, Map<String, Object> after) {
+        return before.keySet().stream()
+                .filter(field -> !Objects.equals(before.get(field), after.get(field)))
+                .toList();
+    }
+
+    public static Map<String, Object> snapshot(Task task) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", task.getTitle());
+        fields.put("description", task.getDescription());
+        fields.put("estimatedHours", task.getEstimatedHours());
+        fields.put("dueDate", task.getDueDate());
+        fields.put("status", task.getStatus());
+        fields.put("priority", task.getPriority());
+        return fields;
+    }
+
+    public static Map<String, Object> snapshot(Project project) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("name", project.getName());
+        fields.put("description", project.getDescription());
+        fields.put("budget", project.getBudget());
+        fields.put("startDate", project.getStartDate());
+        fields.put("endDate", project.getEndDate());
+        fields.put("status", project.getStatus());
+        return fields;
+    }
+
+    public static Map<String, Object> snapshot(Employee employee) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("firstName", employee.getFirstName());
+        fields.put("lastName", employee.getLastName());
+        fields.put("email", employee.getEmail());
+        fields.put("position", employee.getPosition());
+        fields.put("hireDate", employee.getHireDate());
+        fields.put("salary", employee.getSalary());
+        return fields;
+    }
+
+    // Every property of a created entity, the new values of an update's changed ones
+    private static Map<String, Object> outboxData(Change change, Map<String, Object> state, List<String> fields) {
+        if (change == Change.CREATED) {
+            return state;
+        }
+        Map<String, Object> changed = new LinkedHashMap<>();
+        fields.forEach(field -> changed.put(field, state.get(field)));
+        return changed;
+    }
+
+    /**
+     * A new subscription to the events matching the non-null filters. With a
+     * {@code lastEventId}, the kept events after it are replayed first.
+     */
+    public SseEmitter subscribe(Long projectId, Long teamId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, projectId, teamId);
+        emitter.onCompletion(() -> subscriber.close());
+        emitter.onTimeout(() -> subscriber.close());
+        emitter.onError(error -> subscriber.close());
+
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscriber, lastEventId.trim());
+            }
+            // A replay longer than the buffer has already dropped it
+            if (!subscriber.closed) {
+                subscribers.add(subscriber);
+            }
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // Keeps idle connections open through proxies and finds clients that stopped reading
+    @Scheduled(fixedDelayString = "${app.changes.heartbeat:PT15S}")
+    public void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.blockedFor(now) > sendTimeout.toNanos()) {
+                log.info("Disconnecting a change stream subscriber whose send blocked for over {}", sendTimeout);
+                subscriber.disconnect();
+            } else {
+                subscriber.offer(SseEmitter.event().comment(""));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(Subscriber::disconnect);
+        if (senders instanceof ExecutorService pool) {
+            pool.shutdown();
+        }
+    }
+
+    private void publish(ChangeEvent event) {
+        AfterCommit.run(() -> dispatcher.execute(() -> dispatch(event)));
+    }
+
+    private void dispatch(ChangeEvent event) {
+        try {
+            ChangeEvent resolved = resolveTeam(event);
+            synchronized (this) {
+                Numbered numbered = new Numbered(++sequence, resolved);
+                history.addLast(numbered);
+                if (history.size() > historySize) {
+                    history.removeFirst();
+                }
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.matches(resolved)) {
+                        subscriber.offer(toSse(numbered));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not publish {}", event, e);
+        }
+    }
+
+    // Task events carry their project's team so team subscriptions see them
+    private ChangeEvent resolveTeam(ChangeEvent event) {
+        if (event.type() == Type.PROJECT) {
+            if (event.change() == Change.DELETED) {
+                projectTeams.remove(event.id());
+            } else {
+                projectTeams.put(event.id(), event.teamId() == null ? NO_TEAM : event.teamId());
+            }
+            return event;
+        }
+        if (event.type() != Type.TASK || event.projectId() == null || event.teamId() != null) {
+            return event;
+        }
+        Long teamId = projectTeams.get(event.projectId());
+        if (teamId == null) {
+            // The dispatcher has no shard bound, so the lookup goes to the project's shard. A miss
+            // (no team, or the project is already gone) is not cached
+            Long projectId = event.projectId();
+            teamId = Shards.on(shardDirectory.project(projectId), () -> projectRepository.findTeamIdById(projectId)).orElse(NO_TEAM);
+            if (!NO_TEAM.equals(teamId)) {
+                projectTeams.put(projectId, teamId);
+            }
+        }
+        return NO_TEAM.equals(teamId) ? event : event.withTeamId(teamId);
+    }
+
+    // Guarded by this
+    private void replay(Subscriber subscriber, String lastEventId) {
+        Optional<Long> after = parseSequence(lastEventId);
+        Numbered oldest = history.peekFirst();
+        long firstKept = oldest == null ? sequence + 1 : oldest.sequence();
+        if (after.isEmpty() || after.get() > sequence || after.get() < firstKept - 1) {
+            subscriber.offer(SseEmitter.event().id(instance + "-" + sequence).name(RESET_EVENT).data(""));
+            return;
+        }
+        for (Numbered numbered : history) {
+            if (numbered.sequence() > after.get() && subscriber.matches(numbered.event())) {
+                subscriber.offer(toSse(numbered));
+            }
+        }
+    }
+
+    private Optional<Long> parseSequence(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(instance)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.parseLong(eventId.substring(dash + 1)));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private SseEventBuilder toSse(Numbered numbered) {
+        return SseEmitter.event().id(instance + "-" + numbered.sequence()).name(CHANGE_EVENT).data(numbered.event());
+    }
+
+    private record Numbered(long sequence, ChangeEvent event) {
+    }
+
+    private class Subscriber {
+
+        final SseEmitter emitter;
+        final Long projectId;
+        final Long teamId;
+        final BlockingQueue<SseEventBuilder> buffer = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile boolean closed;
+        // Disconnected by the feed; the sender completes the emitter
+        volatile boolean dropped;
+        // System.nanoTime() when the send in progress started, 0 between sends
+        volatile long sendingSince;
+
+        Subscriber(SseEmitter emitter, Long projectId, Long teamId) {
+            this.emitter = emitter;
+            this.projectId = projectId;
+            this.teamId = teamId;
+        }
+
+        boolean matches(ChangeEvent event) {
+            return (projectId == null || projectId.equals(event.projectId()))
+                    && (teamId == null || teamId.equals(event.teamId()));
+        }
+
+        void offer(SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                log.info("Disconnecting a change stream subscriber that fell {} events behind", bufferSize);
+                disconnect();
+                return;
+            }
+            schedule();
+        }
+
+        long blockedFor(long now) {
+            long since = sendingSince;
+            return since == 0 ? 0 : now - since;
+        }
+
+        // Completing waits for a send in progress, so it is left to the sender instead of taking another thread
+        void disconnect() {
+            dropped = true;
+            close();
+            schedule();
+        }
+
+        private void schedule() {
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        private void send() {
+            try {
+                do {
+                    SseEventBuilder next;
+                    while (!closed && (next = buffer.poll()) != null) {
+                        sendingSince = System.nanoTime();
+                        emitter.send(next);
+                        sendingSince = 0;
+                    }
+                    if (dropped) {
+                        emitter.complete();
+                        return;
+                    }
+                    sending.set(false);
+                } while ((dropped || !closed && !buffer.isEmpty()) && sending.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // Client gone; the container completes the emitter
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            buffer.clear();
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.projectmanagement.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by listing their JDBC URLs in {@code app.datasource.replicas}. The
+ * primary is still configured by {@code spring.datasource.*}; each replica gets a pool with the
+ * same settings, named {@code replica-1}, {@code replica-2}, ... in the pool metrics. Without
+ * replicas Spring Boot's own datasource is used unchanged. Replicas are ignored while
+ * {@link ShardConfig} is on.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replicas")
+@ConditionalOnExpression("'${app.sharding.shards:}'.isBlank()")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            HikariDataSource primaryDataSource, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.datasource.replicas}") List<String> urls,
+            @Value("${app.datasource.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica-selection:round-robin}") String selection,
+            @Value("${app.datasource.replica-retry-after:PT30S}") Duration retryAfter,
+            @Value("${app.datasource.read-your-writes:PT0S}") Duration readYourWrites) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            // Started on first use, so a replica that is down does not fail the startup
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setDriverClassName(DatabaseDriver.fromJdbcUrl(url.trim()).getDriverClassName());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            // Replica pools are not beans, so the Hikari meters are bound here
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas,
+                ReadWriteRoutingDataSource.Selection.valueOf(selection.trim().toUpperCase().replace('-', '_')),
+                retryAfter, new ReadYourWrites(readYourWrites, Clock.systemUTC()), Clock.systemUTC());
+    }
+
+    // Defers the routing decision to the first statement, when the transaction is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
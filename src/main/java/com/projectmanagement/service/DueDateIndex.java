@@ -0,0 +1,128 @@
+package com.projectmanagement.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Open items by due date, split into those that are overdue (due before today) and those that are
+ * not yet. The pending ones sit in a priority queue ordered by due date, so rolling the day
+ * forward only touches the items that just became overdue. The overdue ids are kept sorted, so a
+ * page of them is a slice of a set.
+ *
+ * <p>Not thread-safe; {@link OverdueIndex} guards it.
+ */
+class DueDateIndex {
+
+    private final Map<Long, LocalDate> pending = new HashMap<>();
+    private final PriorityQueue<Due> queue = new PriorityQueue<>(
+            Comparator.comparing(Due::date).thenComparing(Due::id));
+    private final TreeSet<Long> overdue = new TreeSet<>();
+    private LocalDate today;
+
+    DueDateIndex(LocalDate today) {
+        this.today = today;
+    }
+
+    // An open item; a null due date is never overdue and is not tracked
+    void put(long id, LocalDate due) {
+        remove(id);
+        if (due == null) {
+            return;
+        }
+        if (due.isBefore(today)) {
+            overdue.add(id);
+        } else {
+            pending.put(id, due);
+            queue.add(new Due(due, id));
+        }
+    }
+
+    // A closed or deleted item; its queue entry is skipped when it comes up
+    void remove(long id) {
+        if (pending.remove(id) == null) {
+            overdue.remove(id);
+        }
+        if (queue.size() > 2 * pending.size() + 64) {
+            compact();
+        }
+    }
+
+    // Moves the items due before the new day into the overdue set; the day never goes back
+    void advanceTo(LocalDate day) {
+        if (!day.isAfter(today)) {
+            return;
+        }
+        today = day;
+        while (!queue.isEmpty() && queue.peek().date().isBefore(today)) {
+            Due due = queue.poll();
+            if (Objects.equals(pending.get(due.id()), due.date())) {
+                pending.remove(due.id());
+                overdue.add(due.id());
+            }
+        }
+    }
+
+    LocalDate today() {
+        return today;
+    }
+
+    // At most limit overdue ids after the given one (or from the start), in id order
+    List<Long> overdue(Long afterId, boolean descending, int limit) {
+        NavigableSet<Long> ids = descending ? overdue.descendingSet() : overdue;
+        if (afterId != null) {
+            ids = ids.tailSet(afterId, false);
+        }
+        List<Long> page = new ArrayList<>(Math.min(limit, ids.size()));
+        for (Long id : ids) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(id);
+        }
+        return page;
+    }
+
+    boolean isOverdue(long id) {
+        return overdue.contains(id);
+    }
+
+    int overdueCount() {
+        return overdue.size();
+    }
+
+    int size() {
+        return overdue.size() + pending.size();
+    }
+
+    // Ids overdue in only one of the two indexes
+    int overdueDifference(DueDateIndex other) {
+        int difference = 0;
+        for (Long id : overdue) {
+            if (!other.overdue.contains(id)) {
+                difference++;
+            }
+        }
+        for (Long id : other.overdue) {
+            if (!overdue.contains(id)) {
+                difference++;
+            }
+        }
+        return difference;
+    }
+
+    private void compact() {
+        queue.clear();
+        pending.forEach((id, date) -> queue.add(new Due(date, id)));
+    }
+
+    private record Due(LocalDate date, long id) {
+    }
+}
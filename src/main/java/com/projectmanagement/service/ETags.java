@@ -0,0 +1,172 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.EmployeeDto;
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.dto.TeamDto;
+import com.projectmanagement.exception.PreconditionFailedException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Strong entity tags of the read models, derived from {@code @Version} columns. A tag covers
+ * everything its representation embeds, so a task's or team's tag also changes when one of its
+ * employees changes. Services compute the same tag from a loaded DTO and from a versions-only
+ * query, which lets a conditional GET answer 304 without loading the entity.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String project(ProjectDto project) {
+        return of("project", project.id(), project.version());
+    }
+
+    public static String employee(EmployeeDto employee) {
+        return of("employee", employee.id(), employee.version());
+    }
+
+    public static String task(TaskDto task) {
+        return of("task", withMembers(task.id(), task.version(), task.employees()));
+    }
+
+    public static String team(TeamDto team) {
+        return of("team", withMembers(team.id(), team.version(), team.employees()));
+    }
+
+    /**
+     * Tag of a task or team from rows of {@code [ownerVersion, employeeId, employeeVersion]}
+     * ordered by employee id, as returned by the repositories' {@code findVersions} queries.
+     */
+    static String withMemberRows(String kind, Long id, List<Object[]> rows) {
+        long[] parts = new long[2 + 2 * rows.size()];
+        parts[0] = id;
+        parts[1] = (Long) rows.get(0)[0];
+        int length = 2;
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                parts[length++] = (Long) row[1];
+                parts[length++] = (Long) row[2];
+            }
+        }
+        return of(kind, Arrays.copyOf(parts, length));
+    }
+
+    /**
+     * Tag of every task of a project with their assignees, from the aggregates of
+     * {@code findVersionSummaryByProjectId}. Versions only grow and new tasks get higher ids, so
+     * any write changes one of them: an update raises a version sum, a create the highest id, a
+     * delete the count and a task moving in or out the id sum.
+     */
+    static String projectTasks(Long projectId, Object[] summary) {
+        long[] parts = new long[1 + summary.length];
+        parts[0] = projectId;
+        for (int i = 0; i < summary.length; i++) {
+            parts[1 + i] = ((Number) summary[i]).longValue();
+        }
+        return of("tasks", parts);
+    }
+
+    /**
+     * The tag of a response trimmed by {@code ?fields=} or {@code ?expand=}. A partial body is
+     * another representation than the full one, so its strong tag must differ as well.
+     */
+    public static String selected(String etag, FieldSelection selection) {
+        if (!selection.isPartial()) {
+            return etag;
+        }
+        String names = names(selection.fields()) + "/" + names(selection.expand());
+        return etag.substring(0, etag.length() - 1) + "-" + hex(names.getBytes(StandardCharsets.UTF_8), 4) + "\"";
+    }
+
+    static String of(String kind, long... parts) {
+        ByteBuffer buffer = ByteBuffer.allocate(kind.length() + Long.BYTES * parts.length);
+        buffer.put(kind.getBytes(StandardCharsets.US_ASCII));
+        for (long part : parts) {
+            buffer.putLong(part);
+        }
+        return "\"" + kind + "-" + hex(buffer.array(), 12) + "\"";
+    }
+
+    // The first bytes of the SHA-256 digest, in hex
+    private static String hex(byte[] input, int bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(input), 0, bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Order-independent, and apart from an absent parameter
+    private static String names(Set<String> names) {
+        return names == null ? "*" : String.join(",", new TreeSet<>(names));
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header lists the tag. Uses the weak comparison, so a tag
+     * sent back with a {@code W/} prefix still matches.
+     */
+    public static boolean noneMatchHit(String ifNoneMatch, String etag) {
+        return matches(ifNoneMatch, etag, true);
+    }
+
+    /**
+     * Rejects a write whose {@code If-Match} header does not list the current tag; absent
+     * header means an unconditional write, for which the tag is not computed. Uses the strong
+     * comparison.
+     */
+    public static void checkIfMatch(String ifMatch, Supplier<String> currentETag) {
+        if (ifMatch == null) {
+            return;
+        }
+        String etag = currentETag.get();
+        if (!matches(ifMatch, etag, false)) {
+            throw new PreconditionFailedException("Resource has changed, current ETag is " + etag);
+        }
+    }
+
+    private static boolean matches(String header, String etag, boolean weak) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                if (!weak) {
+                    continue;
+                }
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] withMembers(Long id, Long version, List<EmployeeDto> employees) {
+        long[] parts = new long[2 + 2 * employees.size()];
+        parts[0] = id;
+        parts[1] = version;
+        // DTOs list employees by id, like the versions queries
+        for (int i = 0; i < employees.size(); i++) {
+            parts[2 + 2 * i] = employees.get(i).id();
+            parts[3 + 2 * i] = employees.get(i).version();
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,70 @@
+package com.projectmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a copy of every employee on each shard, where team members and task assignees
+ * reference them; employees themselves are written to shard 0 only. Writers report changes
+ * while their transaction is open and the copies are written after it commits: the rows are
+ * read back from shard 0 and upserted, so a copy carries the committed state. A removed
+ * employee is taken out of the teams and tasks of every shard. Failures are logged; unsharded,
+ * there is nothing to copy.
+ */
+@Component
+public class EmployeeReplication {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeReplication.class);
+
+    @Autowired
+    private Shards shards;
+
+    public void changed(Collection<Long> employeeIds) {
+        if (shards.isSharded() && !employeeIds.isEmpty()) {
+            List<Long> ids = List.copyOf(employeeIds);
+            AfterCommit.run(() -> copy(ids));
+        }
+    }
+
+    public void removed(Long employeeId) {
+        if (shards.isSharded()) {
+            AfterCommit.run(() -> remove(employeeId));
+        }
+    }
+
+    private void copy(List<Long> ids) {
+        List<Map<String, Object>> rows = ShardRows.select(jdbc(Shards.HOME), "employees", "id", ids, false);
+        for (int shard = 1; shard < shards.count(); shard++) {
+            try {
+                JdbcTemplate jdbc = jdbc(shard);
+                rows.forEach(row -> ShardRows.upsert(jdbc, "employees", "id", row));
+            } catch (RuntimeException e) {
+                log.error("Could not copy {} employees to shard {}", rows.size(), shard, e);
+            }
+        }
+    }
+
+    private void remove(Long employeeId) {
+        for (int shard = 1; shard < shards.count(); shard++) {
+            try {
+                JdbcTemplate jdbc = jdbc(shard);
+                jdbc.update("DELETE FROM team_employees WHERE employee_id = ?", employeeId);
+                jdbc.update("DELETE FROM task_employees WHERE employee_id = ?", employeeId);
+                jdbc.update("DELETE FROM employees WHERE id = ?", employeeId);
+            } catch (RuntimeException e) {
+                log.error("Could not remove employee {} from shard {}", employeeId, shard, e);
+            }
+        }
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shards.dataSource(shard));
+    }
+}
@@ -1,43 +1,104 @@
 package com.projectmanagement.service;
 
+import com.projectmanagement.dto.ChangeEvent.Change;
+import com.projectmanagement.dto.EmployeeDto;
 import com.projectmanagement.exception.ResourceNotFoundException;
 import com.projectmanagement.model.Employee;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.pagination.KeysetPageable;
 import com.projectmanagement.repository.EmployeeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class EmployeeService {
 
+    // Non-nullable columns a list endpoint may seek on
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of(
+            "id", Long.class,
+            "firstName", String.class,
+            "lastName", String.class,
+            "email", String.class);
+
     @Autowired
     private EmployeeRepository employeeRepository;
 
-    public Employee create(Employee employee) {
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private EmployeeReplication employeeReplication;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    public EmployeeDto create(Employee employee) {
         // Check if email already exists
         employeeRepository.findByEmail(employee.getEmail()).ifPresent(e -> {
             throw new IllegalArgumentException("Email already exists: " + employee.getEmail());
         });
 
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        nameSearchIndex.employeeChanged(saved);
+        employeeReplication.changed(List.of(saved.getId()));
+        changeFeed.employeeChanged(Change.CREATED, saved, List.of());
+        return EmployeeDto.from(saved);
     }
 
+    // Cache loads read the primary, see ReadWriteRoutingDataSource.onPrimary
+    @Cacheable(cacheNames = ReadCache.EMPLOYEES, key = "#id", sync = true)
     @Transactional(readOnly = true)
-    public Employee findById(Long id) {
-        return employeeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", id));
+    public EmployeeDto findById(Long id) {
+        EmployeeDto employee = ReadWriteRoutingDataSource.onPrimary(() -> BatchLoader.load(BatchLoader.EMPLOYEES, id, this::fetch));
+        if (employee == null) {
+            throw new ResourceNotFoundException("Employee", "id", id);
+        }
+        return employee;
     }
 
+    // The employees in the order of their ids; unknown ids are skipped. Cached employees are not read again
     @Transactional(readOnly = true)
-    public List<Employee> findAll() {
-        return employeeRepository.findAll();
+    public List<EmployeeDto> findAllById(Collection<Long> ids) {
+        return BatchLoader.loadAll(BatchLoader.EMPLOYEES, BulkUpdates.checkReadIds(ids), missing -> {
+            Map<Long, EmployeeDto> found = readCache.cached(ReadCache.EMPLOYEES, missing, EmployeeDto.class);
+            found.putAll(fetch(missing.stream().filter(id -> !found.containsKey(id)).toList()));
+            return found;
+        });
     }
 
-    public Employee update(Long id, Employee employeeDetails) {
-        Employee employee = findById(id);
+    @Transactional(readOnly = true)
+    public CursorPage<EmployeeDto> findAll(CursorRequest request) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return page.toPage(employeeRepository.findAllBy(page.position(), page.limit(), page.sort()))
+                .map(EmployeeDto::from);
+    }
+
+    public EmployeeDto update(Long id, Employee employeeDetails, String ifMatch) {
+        Employee employee = getEmployee(id);
+        ETags.checkIfMatch(ifMatch, () -> ETags.employee(EmployeeDto.from(employee)));
 
         // Check if new email already exists (excluding current employee)
         if (!employee.getEmail().equals(employeeDetails.getEmail())) {
@@ -46,45 +107,93 @@ public class EmployeeService {
             });
         }
 
+        readCache.employeeChanged(id, employee.getEmail(), employeeDetails.getEmail());
+        Map<String, Object> fieldsBefore = ChangeFeed.snapshot(employee);
+
         employee.setFirstName(employeeDetails.getFirstName());
         employee.setLastName(employeeDetails.getLastName());
         employee.setEmail(employeeDetails.getEmail());
         employee.setPosition(employeeDetails.getPosition());
         employee.setHireDate(employeeDetails.getHireDate());
         employee.setSalary(employeeDetails.getSalary());
+        nameSearchIndex.employeeChanged(employee);
 
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.saveAndFlush(employee);
+        employeeReplication.changed(List.of(id));
+        changeFeed.employeeChanged(Change.UPDATED, saved, ChangeFeed.changedFields(fieldsBefore, ChangeFeed.snapshot(saved)));
+        return EmployeeDto.from(saved);
     }
 
     public void delete(Long id) {
-        Employee employee = findById(id);
+        Employee employee = getEmployee(id);
+        readCache.employeeChanged(id, employee.getEmail());
+        nameSearchIndex.employeeRemoved(id);
+        employeeReplication.removed(id);
+        changeFeed.employeeChanged(Change.DELETED, employee, List.of());
         employeeRepository.delete(employee);
     }
 
     // Custom business methods
+    @Cacheable(cacheNames = ReadCache.EMPLOYEES_BY_EMAIL, key = "#email", sync = true)
     @Transactional(readOnly = true)
-    public Employee findByEmail(String email) {
-        return employeeRepository.findByEmail(email)
+    public EmployeeDto findByEmail(String email) {
+        return ReadWriteRoutingDataSource.onPrimary(() -> employeeRepository.findByEmail(email))
+                .map(EmployeeDto::from)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee", "email", email));
     }
 
     @Transactional(readOnly = true)
-    public List<Employee> findByPosition(String position) {
-        return employeeRepository.findByPosition(position);
+    public CursorPage<EmployeeDto> findByPosition(String position, CursorRequest request) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return page.toPage(employeeRepository.findByPosition(position, page.position(), page.limit(), page.sort()))
+                .map(EmployeeDto::from);
     }
 
     @Transactional(readOnly = true)
-    public List<Employee> findByTeamId(Long teamId) {
-        return employeeRepository.findByTeamId(teamId);
+    public CursorPage<EmployeeDto> findByTeamId(Long teamId, CursorRequest request) {
+        // Members are read from the team's shard, which holds copies of the employees
+        shards.bind(shardDirectory.team(teamId));
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return page.toPage(employeeRepository.findByTeamsId(teamId, page.position(), page.limit(), page.sort()))
+                .map(EmployeeDto::from);
     }
 
+    // Ranked matches on name, email and position; a plain name scan until the index is built
     @Transactional(readOnly = true)
-    public List<Employee> searchByName(String name) {
-        return employeeRepository.findByFirstNameContainingOrLastNameContainingIgnoreCase(name, name);
+    public List<EmployeeDto> searchByName(String name, Integer limit) {
+        int max = NameSearchIndex.limit(name, limit);
+        if (!nameSearchIndex.isReady()) {
+            return employeeRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(
+                    name, name, ScrollPosition.keyset(), Limit.of(max), Sort.by("id"))
+                    .map(EmployeeDto::from).getContent();
+        }
+        List<Long> ids = nameSearchIndex.searchEmployees(name, max);
+        Map<Long, Employee> byId = employeeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(EmployeeDto::from)
+                .toList();
     }
 
     @Transactional(readOnly = true)
-    public List<Employee> findBySalaryRange(Double minSalary, Double maxSalary) {
-        return employeeRepository.findBySalaryBetween(minSalary, maxSalary);
+    public CursorPage<EmployeeDto> findBySalaryRange(Double minSalary, Double maxSalary, CursorRequest request) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return page.toPage(employeeRepository.findBySalaryBetween(
+                minSalary, maxSalary, page.position(), page.limit(), page.sort()))
+                .map(EmployeeDto::from);
+    }
+
+    // One IN list per chunk of ids
+    private Map<Long, EmployeeDto> fetch(List<Long> ids) {
+        return BulkUpdates.readInChunks(ids, employeeRepository::findAllById).stream()
+                .map(EmployeeDto::from)
+                .collect(Collectors.toMap(EmployeeDto::id, Function.identity()));
+    }
+
+    private Employee getEmployee(Long id) {
+        return employeeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.projectmanagement.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.repository.ProjectRepository;
+import com.projectmanagement.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables as newline-delimited JSON. Rows are read from a cursor-backed
+ * {@link Stream} and the persistence context is cleared every {@code app.export.clear-interval}
+ * rows, so memory stays flat no matter how large the table is. Lazy associations are never
+ * touched; only the owning foreign key is written. Sharded, the shards are written one after
+ * the other, each from its own read-only transaction.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Shards shards;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.export.clear-interval:500}")
+    private int clearInterval;
+
+    public long exportTasks(OutputStream out) throws IOException {
+        try (JsonGenerator generator = newGenerator(out)) {
+            return exportEach(() -> {
+                try (Stream<Task> tasks = taskRepository.streamAll()) {
+                    return writeAll(tasks.iterator(), generator, this::writeTask);
+                }
+            });
+        }
+    }
+
+    public long exportProjects(OutputStream out) throws IOException {
+        try (JsonGenerator generator = newGenerator(out)) {
+            return exportEach(() -> {
+                try (Stream<Project> projects = projectRepository.streamAll()) {
+                    return writeAll(projects.iterator(), generator, this::writeProject);
+                }
+            });
+        }
+    }
+
+    // Rows written by the export of every shard
+    private long exportEach(ShardExport export) throws IOException {
+        try {
+            return shards.inEach(true, () -> {
+                try {
+                    return export.write();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).stream().mapToLong(Long::longValue).sum();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private JsonGenerator newGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // The caller owns the servlet stream, and rows are separated by '\n' rather than a space
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private <T> long writeAll(Iterator<T> rows, JsonGenerator generator, RowWriter<T> writer) throws IOException {
+        long count = 0;
+        while (rows.hasNext()) {
+            writer.write(generator, rows.next());
+            generator.writeRaw('\n');
+
+            if (++count % clearInterval == 0) {
+                entityManager.clear();
+                generator.flush();
+            }
+        }
+        generator.flush();
+        return count;
+    }
+
+    private void writeTask(JsonGenerator generator, Task task) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", task.getId());
+        generator.writeStringField("title", task.getTitle());
+        generator.writeStringField("description", task.getDescription());
+        writeEnumField(generator, "priority", task.getPriority());
+        writeEnumField(generator, "status", task.getStatus());
+        generator.writeObjectField("estimatedHours", task.getEstimatedHours());
+        generator.writeObjectField("dueDate", task.getDueDate());
+        // Reading the id of a lazy proxy does not initialize it
+        generator.writeObjectField("projectId", task.getProject() == null ? null : task.getProject().getId());
+        generator.writeEndObject();
+    }
+
+    private void writeProject(JsonGenerator generator, Project project) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", project.getId());
+        generator.writeStringField("name", project.getName());
+        generator.writeStringField("description", project.getDescription());
+        generator.writeObjectField("budget", project.getBudget());
+        generator.writeObjectField("startDate", project.getStartDate());
+        generator.writeObjectField("endDate", project.getEndDate());
+        writeEnumField(generator, "status", project.getStatus());
+        generator.writeObjectField("teamId", project.getTeam() == null ? null : project.getTeam().getId());
+        generator.writeEndObject();
+    }
+
+    private void writeEnumField(JsonGenerator generator, String name, Enum<?> value) throws IOException {
+        generator.writeStringField(name, value == null ? null : value.name());
+    }
+
+    @FunctionalInterface
+    private interface ShardExport {
+        long write() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(JsonGenerator generator, T row) throws IOException;
+    }
+}
@@ -0,0 +1,65 @@
+package com.projectmanagement.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query Hibernate statistics as meters tagged with the query text: executions, rows, total
+ * and maximum execution time, which is where the slowest JPQL shows up. Spring Boot only binds
+ * the session-factory-wide statistics. Hibernate has no callback for a newly seen query, so
+ * queries are picked up every {@code app.metrics.query-refresh}.
+ */
+@Component
+public class HibernateQueryMeters {
+
+    // Same tag as Spring Boot's session-factory-wide hibernate.* meters
+    private static final Tags FACTORY = Tags.of("entityManagerFactory", "entityManagerFactory");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(initialDelayString = "${app.metrics.query-refresh:PT30S}", fixedDelayString = "${app.metrics.query-refresh:PT30S}")
+    public void registerNewQueries() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String query : statistics.getQueries()) {
+            if (registered.add(query)) {
+                register(statistics.getQueryStatistics(query), FACTORY.and("query", query));
+            }
+        }
+    }
+
+    private void register(QueryStatistics query, Tags tags) {
+        FunctionTimer.builder("hibernate.query.execution", query, QueryStatistics::getExecutionCount,
+                        QueryStatistics::getExecutionTotalTime, TimeUnit.MILLISECONDS)
+                .tags(tags)
+                .description("Query executions")
+                .register(meterRegistry);
+        TimeGauge.builder("hibernate.query.execution.max", query, TimeUnit.MILLISECONDS, QueryStatistics::getExecutionMaxTime)
+                .tags(tags)
+                .description("Slowest execution of the query")
+                .register(meterRegistry);
+        FunctionCounter.builder("hibernate.query.execution.rows", query, QueryStatistics::getExecutionRowCount)
+                .tags(tags)
+                .description("Rows returned by the query")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,219 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.exception.BadRequestException;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.repository.EmployeeRepository;
+import com.projectmanagement.repository.TeamRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory trigram index behind the employee and team name search, so a search costs a lookup
+ * plus one primary-key query instead of a {@code LIKE '%x%'} scan. Employees are indexed by
+ * name, email and position, teams by name and description.
+ *
+ * <p>Writers report changes while their transaction is open and the index applies them after
+ * commit. The index is built asynchronously once the application is ready:
+ * {@code app.search.build-threads} workers each read an id range in batches and index it, and
+ * the partitions are merged in id order. Changes committed during the build are replayed onto
+ * the new index before it replaces the old one. Until the first build completes,
+ * {@link #isReady()} is false and the services fall back to the database.
+ */
+@Component
+public class NameSearchIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(NameSearchIndex.class);
+    private static final int BATCH_SIZE = 5000;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private Shards shards;
+
+    @Value("${app.search.build-threads:0}")
+    private int buildThreads;
+
+    @Value("${app.search.min-similarity:0.5}")
+    private double minSimilarity;
+
+    private volatile Indexes indexes = new Indexes(new TrigramIndex(), new TrigramIndex());
+    private volatile boolean ready;
+
+    private final Object buildLock = new Object();
+
+    // Guarded by this; changes committed while a build is running
+    private boolean building;
+    private final List<Consumer<Indexes>> pending = new ArrayList<>();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Validated result limit of a search request
+    public static int limit(String query, Integer requested) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search text must not be blank");
+        }
+        int limit = requested == null ? DEFAULT_LIMIT : requested;
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    // Ids of the best matching employees, best first
+    public List<Long> searchEmployees(String query, int limit) {
+        return ids(indexes.employees().search(query, limit, minSimilarity));
+    }
+
+    public List<Long> searchTeams(String query, int limit) {
+        return ids(indexes.teams().search(query, limit, minSimilarity));
+    }
+
+    public void employeeChanged(Employee employee) {
+        long id = employee.getId();
+        String text = employeeText(employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getPosition());
+        afterCommit(current -> current.employees().put(id, text));
+    }
+
+    public void employeeRemoved(Long employeeId) {
+        afterCommit(current -> current.employees().remove(employeeId));
+    }
+
+    public void teamChanged(Team team) {
+        long id = team.getId();
+        String text = TrigramIndex.normalize(team.getName(), team.getDescription());
+        afterCommit(current -> current.teams().put(id, text));
+    }
+
+    public void teamRemoved(Long teamId) {
+        afterCommit(current -> current.teams().remove(teamId));
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildInBackground() {
+        rebuild();
+    }
+
+    // Reloads both indexes from the database and swaps them in
+    public void rebuild() {
+        // Builds run one at a time, each with its own log of pending changes
+        synchronized (buildLock) {
+            synchronized (this) {
+                building = true;
+                pending.clear();
+            }
+            int threads = buildThreads > 0 ? buildThreads : Runtime.getRuntime().availableProcessors();
+            ExecutorService workers = Executors.newFixedThreadPool(threads);
+            try {
+                TrigramIndex employees = build(workers, threads, employeeRepository.findMaxId(),
+                        (after, upTo) -> employeeRepository.findSearchFields(after, upTo, Limit.of(BATCH_SIZE)),
+                        row -> employeeText((String) row[1], (String) row[2], (String) row[3], (String) row[4]));
+                // Teams are spread over the shards, employees all live on shard 0
+                long maxTeamId = shards.gatherAll(() -> List.of(teamRepository.findMaxId())).stream()
+                        .mapToLong(Long::longValue).max().orElse(0);
+                TrigramIndex teams = build(workers, threads, maxTeamId,
+                        (after, upTo) -> shards.idBatch(
+                                () -> teamRepository.findSearchFields(after, upTo, Limit.of(BATCH_SIZE)), BATCH_SIZE),
+                        row -> TrigramIndex.normalize((String) row[1], (String) row[2]));
+
+                synchronized (this) {
+                    Indexes fresh = new Indexes(employees, teams);
+                    pending.forEach(change -> change.accept(fresh));
+                    indexes = fresh;
+                    ready = true;
+                }
+                log.info("Name search index built: {} employees, {} teams", employees.size(), teams.size());
+            } catch (Exception e) {
+                log.error("Name search index build failed, searches keep using the database", e);
+            } finally {
+                workers.shutdownNow();
+                synchronized (this) {
+                    building = false;
+                    pending.clear();
+                }
+            }
+        }
+    }
+
+    private TrigramIndex build(ExecutorService workers, int partitions, long maxId, RangeLoader loader,
+                               Function<Object[], String> text) throws Exception {
+        long span = Math.max(1, (maxId + partitions - 1) / partitions);
+        List<Future<TrigramIndex>> parts = new ArrayList<>();
+        for (long from = 0; from < maxId; from += span) {
+            long lower = from;
+            long upper = Math.min(maxId, from + span);
+            parts.add(workers.submit(() -> {
+                TrigramIndex part = new TrigramIndex();
+                long after = lower;
+                List<Object[]> rows;
+                do {
+                    rows = loader.load(after, upper);
+                    for (Object[] row : rows) {
+                        after = (Long) row[0];
+                        part.put(after, text.apply(row));
+                    }
+                } while (rows.size() == BATCH_SIZE);
+                return part;
+            }));
+        }
+        TrigramIndex index = new TrigramIndex();
+        for (Future<TrigramIndex> part : parts) {
+            index.addAll(part.get());
+        }
+        return index;
+    }
+
+    private synchronized void apply(Consumer<Indexes> change) {
+        change.accept(indexes);
+        if (building) {
+            pending.add(change);
+        }
+    }
+
+    private void afterCommit(Consumer<Indexes> change) {
+        AfterCommit.run(() -> apply(change));
+    }
+
+    private static String employeeText(String firstName, String lastName, String email, String position) {
+        return TrigramIndex.normalize(firstName, lastName, email, position);
+    }
+
+    private static List<Long> ids(List<TrigramIndex.Hit> hits) {
+        return hits.stream().map(TrigramIndex.Hit::id).toList();
+    }
+
+    @FunctionalInterface
+    private interface RangeLoader {
+        // Rows with after < id <= upTo, in id order, at most one batch
+        List<Object[]> load(long after, long upTo);
+    }
+
+    private record Indexes(TrigramIndex employees, TrigramIndex teams) {
+    }
+}
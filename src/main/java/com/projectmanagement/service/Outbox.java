@@ -0,0 +1,76 @@
+package com.projectmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.dto.ChangeEvent;
+import com.projectmanagement.model.OutboxEvent;
+import com.projectmanagement.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes task and project mutations to the {@code outbox_events} table in the transaction that
+ * makes them, for {@link OutboxRelay} to publish. Events are collected while the transaction
+ * runs and inserted in one JDBC batch just before it commits, so a rolled-back transaction
+ * costs nothing and, on one instance, the rows of an aggregate get ids in commit order (its row
+ * lock is held by then). Instances draw ids from separate sequence blocks; across them the
+ * relay restores the order from the aggregate version.
+ */
+@Component
+public class Outbox {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    // data: every property on create, the new values of the changed ones on update
+    public void append(ChangeEvent event, Map<String, Object> data) {
+        if (!enabled) {
+            return;
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox event " + event, e);
+        }
+        pending().add(new OutboxEvent(event.type().name(), event.id(), event.version(), event.change().name(), payload));
+    }
+
+    private List<OutboxEvent> pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Outbox events must be written in a transaction");
+        }
+        @SuppressWarnings("unchecked")
+        List<OutboxEvent> pending = (List<OutboxEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<OutboxEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    outboxEventRepository.saveAll(events);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(Outbox.this);
+                }
+            });
+            pending = events;
+        }
+        return pending;
+    }
+}
@@ -0,0 +1,210 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.ChangeEvent.Change;
+import com.projectmanagement.dto.OutboxMessage;
+import com.projectmanagement.model.OutboxEvent;
+import com.projectmanagement.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox into the {@link OutboxSink}: every {@code app.outbox.poll-interval} it reads
+ * unpublished events in id order, {@code app.outbox.batch-size} at a time, hands each batch to
+ * the sink and marks it published in the same transaction, until a batch comes back short. The
+ * batch rows are locked while that happens, so with several nodes one relays at a time.
+ *
+ * <p>Ids come from per-instance sequence blocks, so version 5 of an aggregate may have a smaller
+ * id than version 4. The sink gets every aggregate's events in version order instead: a batch
+ * pulls in the unpublished earlier versions of its aggregates, which committed before the later
+ * ones and so are always visible by then. A failed batch is retried on the next poll after an exponential
+ * back-off, capped at {@code app.outbox.max-backoff}; delivery is at least once.
+ *
+ * <p>Published rows are deleted once older than {@code app.outbox.retention}. Sharded, every
+ * shard has its own outbox, drained and compacted in turn; the lag is that of the oldest.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final int COMPACTION_BATCH = 1000;
+    private static final String DELETED = Change.DELETED.name();
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxSink sink;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Shards shards;
+
+    @Value("${app.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.poll-interval:PT1S}")
+    private Duration pollInterval;
+
+    @Value("${app.outbox.max-backoff:PT5M}")
+    private Duration maxBackoff;
+
+    @Value("${app.outbox.retention:PT1H}")
+    private Duration retention;
+
+    private Counter published;
+    private Counter retries;
+    private Counter compacted;
+    private Timer batches;
+
+    // Touched by the scheduler thread only, except the lag read by the gauge
+    private int failures;
+    private Instant retryAt = Instant.MIN;
+    private volatile double lagSeconds;
+
+    @PostConstruct
+    void registerMeters() {
+        published = Counter.builder("outbox.published").description("Events handed to the sink").register(meterRegistry);
+        retries = Counter.builder("outbox.retries").description("Failed batches, retried later").register(meterRegistry);
+        compacted = Counter.builder("outbox.compacted").description("Published events deleted").register(meterRegistry);
+        batches = Timer.builder("outbox.batch").description("Read, publish and mark one batch").register(meterRegistry);
+        TimeGauge.builder("outbox.lag", this, TimeUnit.SECONDS, relay -> relay.lagSeconds)
+                .description("Age of the oldest unpublished event")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.outbox.poll-interval:PT1S}", fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void relay() {
+        if (Instant.now().isBefore(retryAt)) {
+            return;
+        }
+        try {
+            shards.onEach(() -> {
+                int count;
+                do {
+                    count = batches.record(() -> transactionTemplate.execute(status -> publishBatch()));
+                } while (count == batchSize);
+                return null;
+            });
+            failures = 0;
+        } catch (RuntimeException e) {
+            failures++;
+            retries.increment();
+            Duration backoff = pollInterval.multipliedBy(1L << Math.min(failures, 20));
+            retryAt = Instant.now().plus(backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff);
+            log.warn("Outbox batch failed ({} in a row), retrying after {}", failures, retryAt, e);
+        } finally {
+            updateLag();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.outbox.compaction-interval:PT5M}", fixedDelayString = "${app.outbox.compaction-interval:PT5M}")
+    public void compact() {
+        Instant before = Instant.now().minus(retention);
+        shards.onEach(() -> {
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> {
+                    List<Long> ids = outboxEventRepository.findPublishedBefore(before, Limit.of(COMPACTION_BATCH));
+                    return ids.isEmpty() ? 0 : outboxEventRepository.deleteByIdIn(ids);
+                });
+                compacted.increment(deleted);
+            } while (deleted == COMPACTION_BATCH);
+            return null;
+        });
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findUnpublished(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> events = inVersionOrder(batch);
+        try {
+            sink.publish(events.stream().map(OutboxMessage::from).toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        outboxEventRepository.markPublished(events.stream().map(OutboxEvent::getId).toList(), Instant.now());
+        published.increment(events.size());
+        return batch.size();
+    }
+
+    /**
+     * The batch plus the unpublished events of its aggregates up to the newest version it holds,
+     * grouped by aggregate in order of first id and ordered by version within each. A delete
+     * carries the version of the last update, so it goes after it.
+     */
+    private List<OutboxEvent> inVersionOrder(List<OutboxEvent> batch) {
+        Map<List<Object>, Long> newest = new HashMap<>();
+        batch.forEach(event -> newest.merge(aggregate(event), version(event), Math::max));
+        Set<Long> ids = batch.stream().map(OutboxEvent::getId).collect(Collectors.toSet());
+
+        List<OutboxEvent> events = new ArrayList<>(batch);
+        outboxEventRepository.findUnpublishedOf(batch.stream().map(OutboxEvent::getAggregateId).distinct().toList())
+                .stream()
+                .filter(event -> !ids.contains(event.getId()))
+                .filter(event -> newest.containsKey(aggregate(event)) && version(event) <= newest.get(aggregate(event)))
+                .forEach(events::add);
+        events.sort(Comparator.comparing(OutboxEvent::getId));
+
+        Map<List<Object>, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        events.forEach(event -> byAggregate.computeIfAbsent(aggregate(event), key -> new ArrayList<>()).add(event));
+        Comparator<OutboxEvent> order = Comparator.comparing(OutboxRelay::version)
+                .thenComparing(event -> DELETED.equals(event.getEventType()))
+                .thenComparing(OutboxEvent::getId);
+        return byAggregate.values().stream()
+                .flatMap(group -> group.stream().sorted(order))
+                .toList();
+    }
+
+    private static List<Object> aggregate(OutboxEvent event) {
+        return List.of(event.getAggregateType(), event.getAggregateId());
+    }
+
+    private static long version(OutboxEvent event) {
+        return event.getAggregateVersion() == null ? -1 : event.getAggregateVersion();
+    }
+
+    private void updateLag() {
+        try {
+            lagSeconds = shards.onEach(outboxEventRepository::findOldestUnpublished).stream()
+                    .flatMap(Optional::stream)
+                    .min(Comparator.naturalOrder())
+                    .map(oldest -> Duration.between(oldest, Instant.now()).toMillis() / 1000.0)
+                    .orElse(0.0);
+        } catch (RuntimeException e) {
+            log.debug("Could not read the outbox lag", e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.OutboxMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of the outbox relay. A batch is written in order; throwing fails the whole batch,
+ * which is retried later, so a sink may see a message more than once but never out of order.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> batch) throws IOException;
+}
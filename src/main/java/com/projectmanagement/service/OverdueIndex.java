@@ -0,0 +1,218 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.repository.ProjectRepository;
+import com.projectmanagement.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * In-memory due-date index of open projects (end date, not COMPLETED) and open tasks (due date,
+ * not DONE), so the overdue lists are a slice of a sorted id set plus one primary-key query
+ * instead of a range scan over every open row.
+ *
+ * <p>Writers report changes while their transaction is open and the index applies them after
+ * commit, like {@link NameSearchIndex}. Items due in the future wait in a priority queue and move
+ * to the overdue set when the day rolls over at midnight (or on the first read of a new day).
+ * The index is built asynchronously once the application is ready and rebuilt from the database
+ * every {@code app.overdue.reconcile-interval} to repair any drift, which is logged; sharded, each
+ * batch is read from all shards and merged by id. Until the
+ * first build completes, {@link #isReady()} is false and the services query the database.
+ */
+@Component
+public class OverdueIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueIndex.class);
+    private static final int BATCH_SIZE = 5000;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private Shards shards;
+
+    private volatile Indexes indexes = new Indexes(new DueDateIndex(LocalDate.now()), new DueDateIndex(LocalDate.now()));
+    private volatile boolean ready;
+
+    private final Object buildLock = new Object();
+
+    // Guarded by this; changes committed while a build is running
+    private boolean building;
+    private final List<Consumer<Indexes>> pending = new ArrayList<>();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // At most limit overdue project ids after the given one, in id order
+    public synchronized List<Long> overdueProjects(Long afterId, boolean descending, int limit) {
+        advanceTo(LocalDate.now());
+        return indexes.projects().overdue(afterId, descending, limit);
+    }
+
+    public synchronized List<Long> overdueTasks(Long afterId, boolean descending, int limit) {
+        advanceTo(LocalDate.now());
+        return indexes.tasks().overdue(afterId, descending, limit);
+    }
+
+    public void projectChanged(Project project) {
+        long id = project.getId();
+        LocalDate due = project.getStatus() == ProjectStatus.COMPLETED ? null : project.getEndDate();
+        afterCommit(current -> current.projects().put(id, due));
+    }
+
+    // The project and the tasks deleted with it
+    public void projectRemoved(Project project) {
+        long id = project.getId();
+        List<Long> taskIds = project.getTasks().stream().map(Task::getId).toList();
+        afterCommit(current -> {
+            current.projects().remove(id);
+            taskIds.forEach(current.tasks()::remove);
+        });
+    }
+
+    // Rows of (id, endDate) read before a set-based update moved them all to the given status
+    public void projectsChanged(List<Object[]> endDates, ProjectStatus status) {
+        boolean open = status != ProjectStatus.COMPLETED;
+        afterCommit(current -> endDates.forEach(row ->
+                current.projects().put((Long) row[0], open ? (LocalDate) row[1] : null)));
+    }
+
+    public void taskChanged(Task task) {
+        long id = task.getId();
+        LocalDate due = task.getStatus() == TaskStatus.DONE ? null : task.getDueDate();
+        afterCommit(current -> current.tasks().put(id, due));
+    }
+
+    public void taskRemoved(Long taskId) {
+        afterCommit(current -> current.tasks().remove(taskId));
+    }
+
+    // Rows of (id, dueDate) read before a set-based update moved them all to the given status
+    public void tasksChanged(List<Object[]> dueDates, TaskStatus status) {
+        boolean open = status != TaskStatus.DONE;
+        afterCommit(current -> dueDates.forEach(row ->
+                current.tasks().put((Long) row[0], open ? (LocalDate) row[1] : null)));
+    }
+
+    // Items due yesterday become overdue
+    @Scheduled(cron = "${app.overdue.rollover-cron:0 0 0 * * *}")
+    public synchronized void rollOver() {
+        advanceTo(LocalDate.now());
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildInBackground() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.overdue.reconcile-interval:PT15M}",
+            fixedDelayString = "${app.overdue.reconcile-interval:PT15M}")
+    public void reconcile() {
+        if (ready) {
+            rebuild();
+        }
+    }
+
+    // Reloads both indexes from the database and swaps them in
+    public void rebuild() {
+        // Builds run one at a time, each with its own log of pending changes
+        synchronized (buildLock) {
+            synchronized (this) {
+                building = true;
+                pending.clear();
+            }
+            try {
+                LocalDate today = LocalDate.now();
+                DueDateIndex projects = build(today, projectRepository::findOpenEndDates);
+                DueDateIndex tasks = build(today, taskRepository::findOpenDueDates);
+
+                synchronized (this) {
+                    Indexes fresh = new Indexes(projects, tasks);
+                    pending.forEach(change -> change.accept(fresh));
+                    fresh.projects().advanceTo(LocalDate.now());
+                    fresh.tasks().advanceTo(LocalDate.now());
+                    if (ready) {
+                        logDrift(indexes, fresh);
+                    }
+                    indexes = fresh;
+                    ready = true;
+                }
+                log.info("Overdue index built: {} of {} open projects and {} of {} open tasks overdue",
+                        projects.overdueCount(), projects.size(), tasks.overdueCount(), tasks.size());
+            } catch (Exception e) {
+                log.error("Overdue index build failed, overdue lists keep using the database", e);
+            } finally {
+                synchronized (this) {
+                    building = false;
+                    pending.clear();
+                }
+            }
+        }
+    }
+
+    private DueDateIndex build(LocalDate today, BiFunction<Long, Limit, List<Object[]>> loader) {
+        DueDateIndex index = new DueDateIndex(today);
+        long after = 0;
+        List<Object[]> rows;
+        do {
+            long from = after;
+            rows = shards.idBatch(() -> loader.apply(from, Limit.of(BATCH_SIZE)), BATCH_SIZE);
+            for (Object[] row : rows) {
+                after = (Long) row[0];
+                index.put(after, (LocalDate) row[1]);
+            }
+        } while (rows.size() == BATCH_SIZE);
+        return index;
+    }
+
+    private void logDrift(Indexes current, Indexes fresh) {
+        current.projects().advanceTo(fresh.projects().today());
+        current.tasks().advanceTo(fresh.tasks().today());
+        int projects = current.projects().overdueDifference(fresh.projects());
+        int tasks = current.tasks().overdueDifference(fresh.tasks());
+        if (projects + tasks > 0) {
+            log.warn("Overdue index had drifted from the database: {} projects and {} tasks corrected", projects, tasks);
+        }
+    }
+
+    // Guarded by this
+    private void advanceTo(LocalDate today) {
+        indexes.projects().advanceTo(today);
+        indexes.tasks().advanceTo(today);
+    }
+
+    private synchronized void apply(Consumer<Indexes> change) {
+        change.accept(indexes);
+        if (building) {
+            pending.add(change);
+        }
+    }
+
+    private void afterCommit(Consumer<Indexes> change) {
+        AfterCommit.run(() -> apply(change));
+    }
+
+    private record Indexes(DueDateIndex projects, DueDateIndex tasks) {
+    }
+}
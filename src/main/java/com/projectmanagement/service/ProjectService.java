@@ -1,48 +1,127 @@
 package com.projectmanagement.service;
 
+import com.projectmanagement.dto.BulkUpdateResult;
+import com.projectmanagement.dto.ChangeEvent.Change;
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.ProjectBulkUpdate;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.ProjectProgressDto;
+import com.projectmanagement.dto.ProjectSearch;
+import com.projectmanagement.exception.BadRequestException;
 import com.projectmanagement.exception.ResourceNotFoundException;
 import com.projectmanagement.model.Project;
 import com.projectmanagement.model.Project.ProjectStatus;
 import com.projectmanagement.model.Team;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.pagination.KeysetPageable;
 import com.projectmanagement.repository.ProjectRepository;
+import com.projectmanagement.repository.ProjectSpecifications;
 import com.projectmanagement.repository.TeamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ProjectService {
 
+    // Non-nullable columns a list endpoint may seek on
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of(
+            "id", Long.class,
+            "name", String.class,
+            "startDate", LocalDate.class);
+
     @Autowired
     private ProjectRepository projectRepository;
 
     @Autowired
     private TeamRepository teamRepository;
 
-    public Project create(Project project) {
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private OverdueIndex overdueIndex;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    // On the shard of its team; a project without a team stays on shard 0
+    public ProjectDto create(Project project) {
         if (project.getStatus() == null) {
             project.setStatus(ProjectStatus.PLANNED);
         }
-        return projectRepository.save(project);
+        int shard = project.getTeam() == null ? Shards.HOME : shardDirectory.team(project.getTeam().getId());
+        shards.bind(shard);
+        // Like TaskService.create: a team given by id only is read as a reference on its shard
+        if (project.getTeam() != null) {
+            project.setTeam(teamRepository.getReferenceById(project.getTeam().getId()));
+        }
+        Project saved = projectRepository.save(project);
+        shardDirectory.projectPlaced(saved.getId(), shard);
+        projectStatsService.projectCreated(saved.getId());
+        overdueIndex.projectChanged(saved);
+        changeFeed.projectChanged(Change.CREATED, saved, List.of());
+        return ProjectDto.from(saved);
     }
 
+    // Remembered for the rest of a GET request, see BatchLoader
     @Transactional(readOnly = true)
-    public Project findById(Long id) {
-        return projectRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", id));
+    public ProjectDto findById(Long id) {
+        ProjectDto project = BatchLoader.load(BatchLoader.PROJECTS, id, this::fetch);
+        if (project == null) {
+            throw new ResourceNotFoundException("Project", "id", id);
+        }
+        return project;
     }
 
+    // The projects in the order of their ids; unknown ids are skipped
     @Transactional(readOnly = true)
-    public List<Project> findAll() {
-        return projectRepository.findAll();
+    public List<ProjectDto> findAllById(Collection<Long> ids) {
+        return BatchLoader.loadAll(BatchLoader.PROJECTS, BulkUpdates.checkReadIds(ids), this::fetch);
     }
 
-    public Project update(Long id, Project projectDetails) {
-        Project project = findById(id);
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectDto> findAll(CursorRequest request, FieldSelection fields) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return shards.gather(page, () -> list(page, fields, null,
+                () -> projectRepository.findAllBy(page.position(), page.limit(), page.sort())));
+    }
+
+    // ETag of the current row, read without loading the project
+    @Transactional(readOnly = true)
+    public String currentETag(Long id) {
+        shards.bind(shardDirectory.project(id));
+        return projectRepository.findVersionById(id)
+                .map(version -> ETags.of("project", id, version))
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", id));
+    }
+
+    public ProjectDto update(Long id, Project projectDetails, String ifMatch) {
+        shards.bind(shardDirectory.project(id));
+        Project project = getProject(id);
+        ETags.checkIfMatch(ifMatch, () -> ETags.project(ProjectDto.from(project)));
+        Map<String, Object> fieldsBefore = ChangeFeed.snapshot(project);
 
         project.setName(projectDetails.getName());
         project.setDescription(projectDetails.getDescription());
@@ -54,42 +133,173 @@ public class ProjectService {
             project.setStatus(projectDetails.getStatus());
         }
 
-        return projectRepository.save(project);
+        overdueIndex.projectChanged(project);
+        Project saved = projectRepository.saveAndFlush(project);
+        changeFeed.projectChanged(Change.UPDATED, saved, ChangeFeed.changedFields(fieldsBefore, ChangeFeed.snapshot(saved)));
+        return ProjectDto.from(saved);
     }
 
     public void delete(Long id) {
-        Project project = findById(id);
+        shards.bind(shardDirectory.project(id));
+        Project project = getProject(id);
+        projectStatsService.projectDeleted(id);
+        overdueIndex.projectRemoved(project);
+        // Its tasks are deleted with it
+        project.getTasks().forEach(task -> changeFeed.taskChanged(Change.DELETED, task, List.of()));
+        changeFeed.projectChanged(Change.DELETED, project, List.of());
         projectRepository.delete(project);
     }
 
     // Custom business methods
-    public Project assignToTeam(Long projectId, Long teamId) {
-        Project project = findById(projectId);
+    // Only within a shard: a project changes shards with its team, see ShardRebalancer
+    public ProjectDto assignToTeam(Long projectId, Long teamId) {
+        int shard = shardDirectory.project(projectId);
+        Integer teamShard = shardDirectory.locateTeam(teamId);
+        if (teamShard != null && teamShard != shard) {
+            throw new BadRequestException("Team " + teamId + " is on another shard than project " + projectId);
+        }
+        shards.bind(shard);
+        Project project = getProject(projectId);
         Team team = teamRepository.findById(teamId)
                 .orElseThrow(() -> new ResourceNotFoundException("Team", "id", teamId));
 
         project.setTeam(team);
-        return projectRepository.save(project);
+        return published(projectRepository.saveAndFlush(project), "teamId");
     }
 
-    public Project updateStatus(Long projectId, ProjectStatus status) {
-        Project project = findById(projectId);
+    public ProjectDto updateStatus(Long projectId, ProjectStatus status) {
+        shards.bind(shardDirectory.project(projectId));
+        Project project = getProject(projectId);
         project.setStatus(status);
-        return projectRepository.save(project);
+        overdueIndex.projectChanged(project);
+        return published(projectRepository.saveAndFlush(project), "status");
+    }
+
+    /**
+     * One UPDATE statement instead of a load and save per project. Sharded, each shard holding
+     * targets runs it in a transaction of its own, so the shards commit independently.
+     */
+    public BulkUpdateResult bulkUpdate(ProjectBulkUpdate request) {
+        if (request.status() == null) {
+            throw new BadRequestException("Nothing to update: status is required");
+        }
+        boolean byIds = BulkUpdates.targetsIds(request.ids(), request.filter() == null || request.filter().isEmpty());
+
+        int updated = 0;
+        if (byIds) {
+            for (Map.Entry<Integer, List<Long>> ids : shardDirectory.projectsByShard(request.ids()).entrySet()) {
+                updated += shards.inShard(ids.getKey(), false, () -> bulkUpdateHere(ids.getValue(), null, request.status()));
+            }
+        } else if (request.filter().teamId() != null) {
+            updated = shards.inShard(shardDirectory.team(request.filter().teamId()), false,
+                    () -> bulkUpdateHere(null, request.filter(), request.status()));
+        } else {
+            updated = shards.inEach(false, () -> bulkUpdateHere(null, request.filter(), request.status()))
+                    .stream().mapToInt(Integer::intValue).sum();
+        }
+        return new BulkUpdateResult(updated);
     }
 
     @Transactional(readOnly = true)
-    public List<Project> findByTeamId(Long teamId) {
-        return projectRepository.findByTeamId(teamId);
+    public CursorPage<ProjectDto> findByTeamId(Long teamId, CursorRequest request, FieldSelection fields) {
+        shards.bind(shardDirectory.team(teamId));
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return list(page, fields, ProjectSpecifications.ofTeam(teamId),
+                () -> projectRepository.findByTeamId(teamId, page.position(), page.limit(), page.sort()));
     }
 
     @Transactional(readOnly = true)
-    public List<Project> findByStatus(ProjectStatus status) {
-        return projectRepository.findByStatus(status);
+    public CursorPage<ProjectDto> findByStatus(ProjectStatus status, CursorRequest request, FieldSelection fields) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return shards.gather(page, () -> list(page, fields, ProjectSpecifications.withStatus(status),
+                () -> projectRepository.findByStatus(status, page.position(), page.limit(), page.sort())));
     }
 
+    // Served from the overdue index when sorted by id, from the database otherwise
     @Transactional(readOnly = true)
-    public List<Project> findOverdueProjects() {
-        return projectRepository.findOverdueProjects(LocalDate.now());
+    public CursorPage<ProjectDto> findOverdueProjects(CursorRequest request, FieldSelection fields) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        if (overdueIndex.isReady() && page.sortsById()) {
+            List<Long> ids = overdueIndex.overdueProjects(page.afterId(), page.isDescending(), page.limit().max() + 1);
+            if (fields.fields() != null) {
+                return page.toPage(ids, pageIds -> shards.gatherAll(() -> projectRepository.findProjected(
+                        ProjectSpecifications.withIds(pageIds), fields, ScrollPosition.keyset(), Limit.of(pageIds.size()),
+                        Sort.by("id")).getContent()), ProjectDto::id);
+            }
+            return page.toPage(ids, pageIds -> shards.gatherAll(() -> projectRepository.findAllById(pageIds).stream()
+                    .map(ProjectDto::from).toList()), ProjectDto::id);
+        }
+        LocalDate today = LocalDate.now();
+        return shards.gather(page, () -> list(page, fields, ProjectSpecifications.overdueOn(today),
+                () -> projectRepository.findByEndDateBeforeAndStatusNot(
+                        today, ProjectStatus.COMPLETED, page.position(), page.limit(), page.sort())));
+    }
+
+    // Any combination of the criteria in one query, keyset-paginated like the other lists
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectDto> search(ProjectSearch search, CursorRequest request, FieldSelection fields) {
+        if (search.endFrom() != null && search.endTo() != null && search.endFrom().isAfter(search.endTo())) {
+            throw new BadRequestException("endFrom must not be after endTo");
+        }
+        if (search.minBudget() != null && search.maxBudget() != null && search.minBudget() > search.maxBudget()) {
+            throw new BadRequestException("minBudget must not be greater than maxBudget");
+        }
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        Specification<Project> spec = ProjectSpecifications.matching(search);
+        return shards.gather(page, () -> list(page, fields, spec, () -> projectRepository.findBy(spec,
+                query -> query.sortBy(page.sort()).limit(page.limit().max()).scroll(page.position()))));
+    }
+
+    // One query for all cards on screen: project_stats rows are read by primary key
+    @Transactional(readOnly = true)
+    public List<ProjectProgressDto> getDashboard(List<Long> projectIds) {
+        if (projectIds.isEmpty() || projectIds.size() > CursorRequest.MAX_SIZE) {
+            throw new BadRequestException("Between 1 and " + CursorRequest.MAX_SIZE + " project ids are required");
+        }
+        LocalDate today = LocalDate.now();
+        return shards.gatherAll(() -> projectRepository.findProgress(projectIds, today));
+    }
+
+    // With ?fields= only the selected columns are read; see TaskService
+    private CursorPage<ProjectDto> list(KeysetPageable page, FieldSelection fields, Specification<Project> spec,
+                                        Supplier<Window<Project>> entities) {
+        if (fields.fields() != null) {
+            return page.toPage(projectRepository.findProjected(spec, fields, page.position(), page.limit(), page.sort()));
+        }
+        return page.toPage(entities.get()).map(ProjectDto::from);
+    }
+
+    // Set-based status update of the given projects, or of those matching the filter, on the bound shard
+    private int bulkUpdateHere(List<Long> ids, ProjectBulkUpdate.Filter filter, ProjectStatus status) {
+        int updated;
+        List<Object[]> targets;
+        if (ids != null) {
+            targets = projectRepository.findUpdateTargetsByIdIn(ids);
+            updated = projectRepository.updateStatus(ids, status);
+        } else {
+            targets = projectRepository.findUpdateTargetsWhere(filter.teamId(), filter.status());
+            updated = projectRepository.updateStatusWhere(filter.teamId(), filter.status(), status);
+        }
+        overdueIndex.projectsChanged(targets, status);
+        changeFeed.projectsUpdated(targets, Map.of("status", status));
+        return updated;
+    }
+
+    private ProjectDto published(Project saved, String field) {
+        changeFeed.projectChanged(Change.UPDATED, saved, List.of(field));
+        return ProjectDto.from(saved);
+    }
+
+    // One IN list per chunk of ids on each shard
+    private Map<Long, ProjectDto> fetch(List<Long> ids) {
+        return shards.readByShard(shardDirectory.projectsByShard(ids), onShard ->
+                        BulkUpdates.readInChunks(onShard, projectRepository::findAllById).stream().map(ProjectDto::from).toList())
+                .stream()
+                .collect(Collectors.toMap(ProjectDto::id, Function.identity()));
+    }
+
+    private Project getProject(Long id) {
+        return projectRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Project", "id", id));
     }
 }
\ No newline at end of file
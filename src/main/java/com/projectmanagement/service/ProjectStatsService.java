@@ -0,0 +1,215 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.ProjectStatsDto;
+import com.projectmanagement.dto.StatsDriftReport;
+import com.projectmanagement.model.ProjectStats;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.repository.ProjectStatsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@link ProjectStats} rollup. Task writers call in while their transaction is
+ * open: a change becomes a per-project delta applied with one relative UPDATE per project, so
+ * the rollup commits or rolls back together with the task. A project whose row is missing
+ * (created before the rollup existed) is seeded from a fresh aggregation instead, with an
+ * upsert: a concurrent writer that seeded the row first gets the delta added to it.
+ *
+ * <p>{@link #verify()} and {@link #rebuild()} compare every row with a from-scratch aggregation
+ * of the tasks table; rebuild also rewrites the rows that drifted. Sharded, every shard is
+ * compared in a transaction of its own and the reports are combined.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class ProjectStatsService {
+
+    public static final int MAX_REPORTED_DRIFTS = 100;
+
+    @Autowired
+    private ProjectStatsRepository projectStatsRepository;
+
+    @Autowired
+    private Shards shards;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void projectCreated(Long projectId) {
+        projectStatsRepository.save(new ProjectStats(projectId));
+    }
+
+    public void projectDeleted(Long projectId) {
+        projectStatsRepository.deleteById(projectId);
+    }
+
+    /**
+     * Moves a task's contribution from {@code before} (null for a new task) to {@code after}
+     * (null for a deleted task).
+     */
+    public void taskChanged(Contribution before, Task after) {
+        Map<Long, Delta> deltas = new HashMap<>();
+        if (before != null) {
+            add(deltas, before, -1);
+        }
+        if (after != null) {
+            add(deltas, Contribution.of(after), 1);
+        }
+        apply(deltas);
+    }
+
+    public void tasksAdded(Collection<Task> tasks) {
+        Map<Long, Delta> deltas = new HashMap<>();
+        tasks.forEach(task -> add(deltas, Contribution.of(task), 1));
+        apply(deltas);
+    }
+
+    // For set-based updates, where per-row before values are not known. An upsert, as the rows may be missing
+    public void recompute(Collection<Long> projectIds) {
+        if (!projectIds.isEmpty()) {
+            projectStatsRepository.aggregate(projectIds).forEach(projectStatsRepository::upsert);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public StatsDriftReport verify() {
+        return combine(shards.inEach(true, () -> compare(false)));
+    }
+
+    @Transactional
+    public StatsDriftReport rebuild() {
+        return combine(shards.inEach(false, () -> compare(true)));
+    }
+
+    private StatsDriftReport combine(List<StatsDriftReport> reports) {
+        if (reports.size() == 1) {
+            return reports.get(0);
+        }
+        List<StatsDriftReport.Drift> drifts = reports.stream()
+                .flatMap(report -> report.drifts().stream())
+                .sorted(Comparator.comparing(StatsDriftReport.Drift::projectId))
+                .limit(MAX_REPORTED_DRIFTS)
+                .toList();
+        return new StatsDriftReport(reports.stream().mapToLong(StatsDriftReport::projectsChecked).sum(),
+                reports.stream().mapToLong(StatsDriftReport::driftedProjects).sum(), reports.get(0).repaired(), drifts);
+    }
+
+    private StatsDriftReport compare(boolean repair) {
+        Map<Long, ProjectStats> expected = byProject(projectStatsRepository.aggregateAll());
+        Map<Long, ProjectStats> actual = byProject(projectStatsRepository.findAll());
+        Set<Long> projectIds = new HashSet<>(expected.keySet());
+        projectIds.addAll(actual.keySet());
+
+        long drifted = 0;
+        List<StatsDriftReport.Drift> drifts = new ArrayList<>();
+        for (Long projectId : projectIds.stream().sorted().toList()) {
+            ProjectStats want = expected.get(projectId);
+            ProjectStats have = actual.get(projectId);
+            if (want == null ? have == null : want.equals(have)) {
+                continue;
+            }
+            drifted++;
+            if (drifts.size() < MAX_REPORTED_DRIFTS) {
+                drifts.add(new StatsDriftReport.Drift(projectId, ProjectStatsDto.from(want), ProjectStatsDto.from(have)));
+            }
+            if (repair && want == null) {
+                entityManager.remove(have);
+            } else if (repair) {
+                entityManager.merge(want);
+            }
+        }
+        return new StatsDriftReport(projectIds.size(), drifted, repair, drifts);
+    }
+
+    private Map<Long, ProjectStats> byProject(List<ProjectStats> rows) {
+        return rows.stream().collect(Collectors.toMap(ProjectStats::getProjectId, Function.identity(),
+                (a, b) -> a, LinkedHashMap::new));
+    }
+
+    private void add(Map<Long, Delta> deltas, Contribution contribution, int sign) {
+        if (contribution != null) {
+            deltas.computeIfAbsent(contribution.projectId(), id -> new Delta()).add(contribution, sign);
+        }
+    }
+
+    private void apply(Map<Long, Delta> deltas) {
+        Map<Long, Delta> missing = new HashMap<>();
+        deltas.forEach((projectId, delta) -> {
+            if (delta.isZero()) {
+                return;
+            }
+            int updated = projectStatsRepository.increment(projectId,
+                    delta.status[0], delta.status[1], delta.status[2],
+                    delta.priority[0], delta.priority[1], delta.priority[2], delta.priority[3],
+                    delta.hours);
+            if (updated == 0) {
+                missing.put(projectId, delta);
+            }
+        });
+        if (!missing.isEmpty()) {
+            // The aggregation auto-flushes the pending task changes, so it already includes this delta
+            projectStatsRepository.aggregate(missing.keySet()).forEach(seed -> projectStatsRepository
+                    .seedOrIncrement(seed, missing.get(seed.getProjectId()).toStats(seed.getProjectId())));
+        }
+    }
+
+    /**
+     * What one task adds to its project's row. Take it before changing a task that is then
+     * passed to {@link #taskChanged(Contribution, Task)}.
+     */
+    public record Contribution(Long projectId, TaskStatus status, TaskPriority priority, long hours) {
+
+        public static Contribution of(Task task) {
+            if (task.getProject() == null) {
+                return null;
+            }
+            return new Contribution(task.getProject().getId(), task.getStatus(), task.getPriority(),
+                    task.getEstimatedHours() == null ? 0 : task.getEstimatedHours());
+        }
+    }
+
+    private static class Delta {
+        private final long[] status = new long[TaskStatus.values().length];
+        private final long[] priority = new long[TaskPriority.values().length];
+        private long hours;
+
+        void add(Contribution contribution, int sign) {
+            if (contribution.status() != null) {
+                status[contribution.status().ordinal()] += sign;
+            }
+            if (contribution.priority() != null) {
+                priority[contribution.priority().ordinal()] += sign;
+            }
+            hours += sign * contribution.hours();
+        }
+
+        ProjectStats toStats(Long projectId) {
+            return new ProjectStats(projectId, status[0], status[1], status[2],
+                    priority[0], priority[1], priority[2], priority[3], hours);
+        }
+
+        boolean isZero() {
+            return hours == 0
+                    && Arrays.stream(status).allMatch(n -> n == 0)
+                    && Arrays.stream(priority).allMatch(n -> n == 0);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.projectmanagement.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements a request or test may issue, counted by {@link QueryCounter}. On a test
+ * method it is asserted by {@code QueryBudgetExtension}. On a handler method it replaces the
+ * default statement budget of the dev-mode guard ({@code app.query-budget.*}).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface QueryBudget {
+
+    // Most statements in total
+    int value();
+
+    // Most runs of one statement shape; catches N+1 loads that stay under the total
+    int maxRepeats() default Integer.MAX_VALUE;
+}
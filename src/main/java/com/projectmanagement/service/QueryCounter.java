@@ -0,0 +1,118 @@
+package com.projectmanagement.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a {@link Scope} is
+ * open, by statement and by shape: the SQL with literals and {@code IN} lists collapsed, so a
+ * lazy association loaded once per row shows up as one shape run many times. Registered as the
+ * session factory's {@link StatementInspector}; without an open scope it does nothing.
+ *
+ * <p>Counts what Hibernate prepares, like {@code Statistics.getPrepareStatementCount()}: a JDBC
+ * batch counts once, plain JDBC and statements on other threads are not counted.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.record(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting on this thread. A scope opened inside another one counts into both.
+     * Exceeding a budget does not fail the statement; it is reported by {@link Scope#overBudget()}
+     * together with the stack of the statement that went over.
+     */
+    public static Scope start(int maxStatements, int maxRepeats) {
+        Scope scope = new Scope(CURRENT.get(), maxStatements, maxRepeats);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static Scope start() {
+        return start(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    static String shape(String sql) {
+        String shape = STRING.matcher(sql).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("(?...)");
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final int maxStatements;
+        private final int maxRepeats;
+        private final Map<String, Integer> shapes = new LinkedHashMap<>();
+        private int statements;
+        private String overBudget;
+        private Throwable overBudgetAt;
+
+        private Scope(Scope parent, int maxStatements, int maxRepeats) {
+            this.parent = parent;
+            this.maxStatements = maxStatements;
+            this.maxRepeats = maxRepeats;
+        }
+
+        private void record(String sql) {
+            statements++;
+            String shape = shape(sql);
+            int runs = shapes.merge(shape, 1, Integer::sum);
+            if (overBudget == null) {
+                if (statements > maxStatements) {
+                    overBudget = statements + " statements, budget " + maxStatements;
+                } else if (runs > maxRepeats) {
+                    overBudget = "same statement run " + runs + " times, limit " + maxRepeats + ": " + shape;
+                }
+                if (overBudget != null) {
+                    overBudgetAt = new Throwable("Over query budget at: " + sql);
+                }
+            }
+            if (parent != null) {
+                parent.record(sql);
+            }
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        // Statement shapes in first-run order with how often each ran
+        public Map<String, Integer> shapes() {
+            return Collections.unmodifiableMap(shapes);
+        }
+
+        public int maxRepeats() {
+            return shapes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        }
+
+        // First budget that was exceeded, null within budget
+        public String overBudget() {
+            return overBudget;
+        }
+
+        // Stack of the statement that went over the budget
+        public Throwable overBudgetAt() {
+            return overBudgetAt;
+        }
+
+        @Override
+        public void close() {
+            CURRENT.set(parent);
+        }
+    }
+}
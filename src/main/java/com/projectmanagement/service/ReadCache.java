@@ -0,0 +1,137 @@
+package com.projectmanagement.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.projectmanagement.dto.CacheStatsDto;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.repository.TeamRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Invalidation for the employee and team read caches. Writers report what they changed while
+ * their transaction is open; the affected entries are evicted only after commit, so a reader
+ * never re-caches the pre-commit row. Reads use {@code @Cacheable(sync = true)}, whose per-key
+ * load blocks a concurrent eviction of the same key until the load has finished, so a load that
+ * raced with a commit is evicted rather than kept. Loads read the primary: a replica that lags
+ * behind the commit would put the old row back for the whole expiry.
+ *
+ * <p>Paged {@code teamsByEmployee} results cannot be evicted key by key (every cursor is a
+ * separate entry), so their keys carry a per-employee generation. Invalidating bumps the
+ * generation; old pages become unreachable and age out of the cache.
+ */
+@Component
+public class ReadCache {
+
+    public static final String EMPLOYEES = "employees";
+    public static final String EMPLOYEES_BY_EMAIL = "employeesByEmail";
+    public static final String TEAMS = "teams";
+    public static final String TEAMS_BY_EMPLOYEE = "teamsByEmployee";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private Shards shards;
+
+    private final ConcurrentMap<Long, Long> employeeGenerations = new ConcurrentHashMap<>();
+
+    // Referenced from the @Cacheable key expression of TeamService.findTeamsByEmployee
+    public Object teamsByEmployeeKey(Long employeeId, CursorRequest request) {
+        return new TeamsByEmployeeKey(employeeId, employeeGenerations.getOrDefault(employeeId, 0L), request);
+    }
+
+    /**
+     * An employee's own fields changed or it is being deleted. Its teams embed it, so they are
+     * evicted too, together with the team pages of everyone in those teams. Pass the old and
+     * the new email when the email may have changed. Sharded, its teams are looked up on every
+     * shard.
+     */
+    public void employeeChanged(Long employeeId, String... emails) {
+        List<Long> teamIds = shards.gatherAll(() -> teamRepository.findIdsByEmployeeId(employeeId));
+        Set<Long> affectedEmployees = teamIds.isEmpty() ? new HashSet<>()
+                : new HashSet<>(shards.gatherAll(() -> teamRepository.findMemberIds(teamIds)));
+        affectedEmployees.add(employeeId);
+        List<String> staleEmails = Arrays.stream(emails).filter(Objects::nonNull).toList();
+
+        AfterCommit.run(() -> {
+            evict(EMPLOYEES, List.of(employeeId));
+            evict(EMPLOYEES_BY_EMAIL, staleEmails);
+            evict(TEAMS, teamIds);
+            affectedEmployees.forEach(this::bumpGeneration);
+        });
+    }
+
+    /**
+     * A team's fields or membership changed, or it is being deleted. Pass the employees being
+     * added or removed; the current members are read, so the call may come before or after the
+     * membership change is applied.
+     */
+    public void teamChanged(Long teamId, Long... changedMembers) {
+        Set<Long> affectedEmployees = membersOf(List.of(teamId));
+        affectedEmployees.addAll(Arrays.asList(changedMembers));
+
+        AfterCommit.run(() -> {
+            evict(TEAMS, List.of(teamId));
+            affectedEmployees.forEach(this::bumpGeneration);
+        });
+    }
+
+    // The entries of a cache present for the ids; missing ones are not loaded
+    public <T> Map<Long, T> cached(String cacheName, Collection<Long> ids, Class<T> type) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Map<Long, T> found = new HashMap<>();
+        for (Long id : ids) {
+            T value = cache.get(id, type);
+            if (value != null) {
+                found.put(id, value);
+            }
+        }
+        return found;
+    }
+
+    public List<CacheStatsDto> statistics() {
+        return cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(name -> {
+                    com.github.benmanes.caffeine.cache.Cache<Object, Object> cache =
+                            ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+                    CacheStats stats = cache.stats();
+                    return new CacheStatsDto(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                            stats.hitRate(), stats.evictionCount());
+                })
+                .toList();
+    }
+
+    private Set<Long> membersOf(Collection<Long> teamIds) {
+        return teamIds.isEmpty() ? new HashSet<>() : new HashSet<>(teamRepository.findMemberIds(teamIds));
+    }
+
+    private void bumpGeneration(Long employeeId) {
+        employeeGenerations.merge(employeeId, 1L, Long::sum);
+    }
+
+    private void evict(String cacheName, Collection<?> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        keys.forEach(cache::evict);
+    }
+
+    private record TeamsByEmployeeKey(Long employeeId, long generation, CursorRequest request) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.projectmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything else to the primary.
+ * It decides when the connection is requested, so it is used behind a
+ * {@code LazyConnectionDataSourceProxy}: the transaction, and whether it is read-only, is known
+ * by the first statement.
+ *
+ * <p>A replica that fails to hand out a connection is skipped for {@code retryAfter}; with no
+ * replica left the read goes to the primary. Reads pinned by {@link ReadYourWrites} or run
+ * through {@link #onPrimary} go to the primary as well. Closing it closes the replica pools; the primary is closed by its owner.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    public enum Selection { ROUND_ROBIN, LEAST_CONNECTIONS }
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final Duration retryAfter;
+    private final ReadYourWrites readYourWrites;
+    private final Clock clock;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, Selection selection,
+                                      Duration retryAfter, ReadYourWrites readYourWrites, Clock clock) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.selection = selection;
+        this.retryAfter = retryAfter;
+        this.readYourWrites = readYourWrites;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs work with its read-only transactions on the primary. For loads whose result outlives
+     * the transaction that read it (cache entries, coalesced loads, ETags): read from a lagging
+     * replica, they would bring back a row that another request has already seen replaced.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PRIMARY.get() != null) {
+            return work.get();
+        }
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY.remove();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWrites.wrote();
+            }
+            return primary.getConnection();
+        }
+        if (PRIMARY.get() != null || readYourWrites.pinned()) {
+            return primary.getConnection();
+        }
+        long now = clock.millis();
+        for (Replica replica : candidates(now)) {
+            try {
+                return replica.connect();
+            } catch (SQLException | RuntimeException e) {
+                // Pools report a failed start as a runtime exception
+                replica.downUntil = now + retryAfter.toMillis();
+                log.warn("Replica {} unavailable, skipping it for {}", replicas.indexOf(replica) + 1, retryAfter, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Credentials are configured per datasource");
+    }
+
+    // Available replicas in round-robin order, the least busy first for LEAST_CONNECTIONS
+    private List<Replica> candidates(long now) {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        List<Replica> candidates = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.downUntil <= now) {
+                candidates.add(replica);
+            }
+        }
+        if (selection == Selection.LEAST_CONNECTIONS) {
+            candidates.sort(Comparator.comparingInt(replica -> replica.active.get()));
+        }
+        return candidates;
+    }
+
+    /** Connections currently borrowed from each replica, in configuration order. */
+    public List<Integer> activeConnections() {
+        return replicas.stream().map(replica -> replica.active.get()).toList();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile long downUntil;
+
+        Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        // Counts the connection as active until it is closed
+        Connection connect() throws SQLException {
+            Connection target = dataSource.getConnection();
+            active.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                    new Class<?>[]{ConnectionProxy.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getTargetConnection":
+                                return target;
+                            case "close":
+                                if (closed.compareAndSet(false, true)) {
+                                    active.decrementAndGet();
+                                }
+                                break;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.projectmanagement.service;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Read-your-writes stickiness for replica routing. A request that opens a read-write
+ * transaction gets a cookie holding the end of the window; until then, read-only transactions
+ * of that request and of the client's later requests go to the primary, so they see the write
+ * even if the replicas lag behind. A zero window disables it; outside requests nothing is pinned.
+ */
+public class ReadYourWrites {
+
+    static final String COOKIE = "pm-primary-until";
+    private static final String WROTE = ReadYourWrites.class.getName() + ".wrote";
+
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWrites(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /** True if reads of the current request must go to the primary. */
+    public boolean pinned() {
+        ServletRequestAttributes attributes = current();
+        if (attributes == null) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(WROTE) != null) {
+            return true;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > clock.millis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Records a write by the current request, once per request. */
+    public void wrote() {
+        ServletRequestAttributes attributes = current();
+        if (attributes == null || attributes.getRequest().getAttribute(WROTE) != null) {
+            return;
+        }
+        attributes.getRequest().setAttribute(WROTE, Boolean.TRUE);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(clock.millis() + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) ((window.toMillis() + 999) / 1000));
+            response.addCookie(cookie);
+        }
+    }
+
+    private ServletRequestAttributes current() {
+        if (window.isZero() || window.isNegative()) {
+            return null;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet : null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.projectmanagement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.dto.OutboxMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Default outbox sink: appends each batch as NDJSON to {@code events.ndjson} in
+ * {@code app.outbox.file.directory} and forces it to disk before the relay marks the batch
+ * published. The file is rolled over to {@code events-<timestamp>.ndjson} once it reaches
+ * {@code app.outbox.file.max-size}, keeping the newest {@code app.outbox.file.max-files}.
+ * Another sink replaces it with {@code app.outbox.sink} set to anything but {@code file}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class RollingFileOutboxSink implements OutboxSink {
+
+    static final String CURRENT = "events.ndjson";
+    private static final DateTimeFormatter ROLLED = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.file.directory:outbox}")
+    private Path directory;
+
+    @Value("${app.outbox.file.max-size:10MB}")
+    private DataSize maxSize;
+
+    @Value("${app.outbox.file.max-files:10}")
+    private int maxFiles;
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(batch.size() * 256);
+        for (OutboxMessage message : batch) {
+            objectMapper.writeValue(lines, message);
+            lines.write('\n');
+        }
+
+        Files.createDirectories(directory);
+        Path current = directory.resolve(CURRENT);
+        try (FileChannel file = FileChannel.open(current, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+            file.force(false);
+        }
+        if (Files.size(current) >= maxSize.toBytes()) {
+            roll(current);
+        }
+    }
+
+    private void roll(Path current) throws IOException {
+        Files.move(current, directory.resolve("events-" + LocalDateTime.now().format(ROLLED) + ".ndjson"));
+        List<Path> rolled;
+        try (Stream<Path> files = Files.list(directory)) {
+            // The timestamp sorts by name
+            rolled = files.filter(file -> file.getFileName().toString().startsWith("events-")).sorted().toList();
+        }
+        for (int i = 0; i < rolled.size() - maxFiles; i++) {
+            Files.deleteIfExists(rolled.get(i));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.projectmanagement.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Horizontal sharding by team, enabled by listing the JDBC URLs of shards 1..N-1 in
+ * {@code app.sharding.shards}; shard 0 is {@code spring.datasource}. Each shard gets a pool with
+ * the same settings, named {@code shard-1}, {@code shard-2}, ... in the pool metrics. Read
+ * replicas are not combined with sharding; {@link DataSourceConfig} stays off while it is on.
+ */
+@Configuration
+@ConditionalOnProperty("app.sharding.shards")
+public class ShardConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource homeShardDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(
+            HikariDataSource homeShardDataSource, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${app.sharding.shards}") List<String> urls,
+            @Value("${app.sharding.username:${spring.datasource.username:}}") String username,
+            @Value("${app.sharding.password:${spring.datasource.password:}}") String password) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(homeShardDataSource);
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource shard = new HikariDataSource();
+            homeShardDataSource.copyStateTo(shard);
+            shard.setPoolName("shard-" + shards.size());
+            shard.setJdbcUrl(url.trim());
+            shard.setDriverClassName(DatabaseDriver.fromJdbcUrl(url.trim()).getDriverClassName());
+            shard.setUsername(username);
+            shard.setPassword(password);
+            // Shard pools are not beans, so the Hikari meters are bound here
+            meterRegistry.ifAvailable(registry -> shard.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // Defers the routing decision to the first statement, when the transaction is bound to its shard
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardSchema shardSchema(ShardRoutingDataSource shardRoutingDataSource) {
+        return new ShardSchema(shardRoutingDataSource);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaIntegrator(ShardSchema shardSchema) {
+        return properties -> properties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.<Integrator>of(shardSchema));
+    }
+}
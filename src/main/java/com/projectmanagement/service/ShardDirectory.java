@@ -0,0 +1,209 @@
+package com.projectmanagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Where each team lives. A team and everything under it (members, projects, their stats and
+ * tasks) share a shard, recorded in the {@code team_shards} table on shard 0; a new team goes to
+ * the shard with the fewest teams. Projects and tasks are found by asking each shard in turn.
+ *
+ * <p>Answers are cached for {@code app.sharding.directory-ttl}, which bounds how long another
+ * node keeps looking for a moved team on its old shard. Anything found on no shard is reported
+ * on shard 0, where the lookup then fails as usual. Unsharded, everything is on shard 0.
+ */
+@Component
+public class ShardDirectory {
+
+    @Autowired
+    private Shards shards;
+
+    @Value("${app.sharding.directory-ttl:PT10S}")
+    private Duration ttl;
+
+    private Cache<Long, Integer> teams;
+    private Cache<Long, Integer> projects;
+    private Cache<Long, Integer> tasks;
+    private JdbcTemplate home;
+
+    @PostConstruct
+    void init() {
+        teams = cache();
+        projects = cache();
+        tasks = cache();
+        if (shards.isSharded()) {
+            home = new JdbcTemplate(shards.dataSource(Shards.HOME));
+            home.execute("CREATE TABLE IF NOT EXISTS team_shards (team_id BIGINT NOT NULL PRIMARY KEY, shard INT NOT NULL)");
+        }
+    }
+
+    public int team(Long teamId) {
+        Integer shard = locateTeam(teamId);
+        return shard == null ? Shards.HOME : shard;
+    }
+
+    // Null if no shard has the team
+    public Integer locateTeam(Long teamId) {
+        if (!shards.isSharded()) {
+            return Shards.HOME;
+        }
+        Integer shard = teams.getIfPresent(teamId);
+        if (shard != null) {
+            return shard;
+        }
+        List<Integer> rows = home.queryForList("SELECT shard FROM team_shards WHERE team_id = ?", Integer.class, teamId);
+        if (rows.isEmpty()) {
+            // Created before the directory, or its registration was lost
+            shard = probe("teams", teamId);
+            if (shard != null) {
+                register(teamId, shard);
+            }
+        } else {
+            shard = rows.get(0);
+        }
+        if (shard != null) {
+            teams.put(teamId, shard);
+        }
+        return shard;
+    }
+
+    public int project(Long projectId) {
+        return locate(projects, "projects", projectId);
+    }
+
+    public int task(Long taskId) {
+        return locate(tasks, "tasks", taskId);
+    }
+
+    // Ids grouped by their shard, in first-seen order
+    public Map<Integer, List<Long>> teamsByShard(Collection<Long> teamIds) {
+        Map<Integer, List<Long>> groups = new LinkedHashMap<>();
+        for (Long id : teamIds) {
+            groups.computeIfAbsent(team(id), shard -> new ArrayList<>()).add(id);
+        }
+        return groups;
+    }
+
+    // Ids grouped by the shard of their project, in first-seen order
+    public Map<Integer, List<Long>> projectsByShard(Collection<Long> projectIds) {
+        return groupBy(projectIds, projects, "projects");
+    }
+
+    public Map<Integer, List<Long>> tasksByShard(Collection<Long> taskIds) {
+        return groupBy(taskIds, tasks, "tasks");
+    }
+
+    // Shard for a new team: the one with the fewest teams
+    public int placeTeam() {
+        if (!shards.isSharded()) {
+            return Shards.HOME;
+        }
+        return teamCounts().entrySet().stream()
+                .min(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(Shards.HOME);
+    }
+
+    // Number of teams on each shard, counted on the shards themselves
+    public Map<Integer, Long> teamCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            counts.put(shard, new JdbcTemplate(shards.dataSource(shard)).queryForObject("SELECT COUNT(*) FROM teams", Long.class));
+        }
+        return counts;
+    }
+
+    public void teamPlaced(Long teamId, int shard) {
+        if (shards.isSharded()) {
+            teams.put(teamId, shard);
+            AfterCommit.run(() -> register(teamId, shard));
+        }
+    }
+
+    public void teamRemoved(Long teamId) {
+        if (shards.isSharded()) {
+            AfterCommit.run(() -> {
+                home.update("DELETE FROM team_shards WHERE team_id = ?", teamId);
+                teams.invalidate(teamId);
+            });
+        }
+    }
+
+    public void projectPlaced(Long projectId, int shard) {
+        projects.put(projectId, shard);
+    }
+
+    public void taskPlaced(Long taskId, int shard) {
+        tasks.put(taskId, shard);
+    }
+
+    // Called by the rebalancer once the copies on the new shard are committed
+    void teamMoved(Long teamId, int shard, Collection<Long> projectIds, Collection<Long> taskIds) {
+        if (home.update("UPDATE team_shards SET shard = ? WHERE team_id = ?", shard, teamId) == 0) {
+            register(teamId, shard);
+        }
+        teams.put(teamId, shard);
+        projects.invalidateAll(projectIds);
+        tasks.invalidateAll(taskIds);
+    }
+
+    private int locate(Cache<Long, Integer> cache, String table, Long id) {
+        if (!shards.isSharded()) {
+            return Shards.HOME;
+        }
+        Integer shard = cache.getIfPresent(id);
+        if (shard == null) {
+            shard = probe(table, id);
+            if (shard == null) {
+                return Shards.HOME;
+            }
+            cache.put(id, shard);
+        }
+        return shard;
+    }
+
+    private Map<Integer, List<Long>> groupBy(Collection<Long> ids, Cache<Long, Integer> cache, String table) {
+        Map<Integer, List<Long>> groups = new LinkedHashMap<>();
+        for (Long id : ids) {
+            groups.computeIfAbsent(locate(cache, table, id), shard -> new ArrayList<>()).add(id);
+        }
+        return groups;
+    }
+
+    private Integer probe(String table, Long id) {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            Integer found = new JdbcTemplate(shards.dataSource(shard))
+                    .queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Integer.class, id);
+            if (found != null && found > 0) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    private void register(Long teamId, int shard) {
+        try {
+            home.update("INSERT INTO team_shards (team_id, shard) VALUES (?, ?)", teamId, shard);
+        } catch (DuplicateKeyException e) {
+            // Registered concurrently, by a probe or by the creating transaction
+        }
+    }
+
+    private Cache<Long, Integer> cache() {
+        return Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(ttl).build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.TeamMoveResult;
+import com.projectmanagement.exception.BadRequestException;
+import com.projectmanagement.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves a team, with its members, projects, project stats, tasks and assignees, to another
+ * shard. The rows are locked on the old shard, copied to the new one and committed there, the
+ * directory is pointed at the new shard, and only then are the old rows deleted. Writes to the
+ * team meanwhile wait for the locks and then find the rows gone; other nodes follow the move
+ * within {@code app.sharding.directory-ttl}. Ids do not change, so the in-memory indexes and
+ * caches stay valid.
+ *
+ * <p>A move that fails before the new shard commits leaves everything as it was; one that fails
+ * after it leaves stale rows on the old shard, which moving the team back replaces.
+ */
+@Component
+public class ShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    // Moves run one at a time per node
+    public synchronized TeamMoveResult moveTeam(Long teamId, int target) {
+        if (!shards.isSharded()) {
+            throw new BadRequestException("Sharding is not enabled");
+        }
+        if (target < 0 || target >= shards.count()) {
+            throw new BadRequestException("Shard must be between 0 and " + (shards.count() - 1));
+        }
+        Integer source = shardDirectory.locateTeam(teamId);
+        if (source == null) {
+            throw new ResourceNotFoundException("Team", "id", teamId);
+        }
+        if (source == target) {
+            return new TeamMoveResult(teamId, source, target, 0, 0);
+        }
+
+        try (Connection from = shards.dataSource(source).getConnection();
+             Connection to = shards.dataSource(target).getConnection()) {
+            from.setAutoCommit(false);
+            to.setAutoCommit(false);
+            try {
+                TeamMoveResult result = move(teamId, source, target, jdbc(from), jdbc(to), to);
+                from.commit();
+                log.info("Moved team {} from shard {} to shard {}: {} projects, {} tasks",
+                        teamId, source, target, result.projects(), result.tasks());
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                from.rollback();
+                to.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Moving team " + teamId + " failed", e);
+        }
+    }
+
+    private TeamMoveResult move(Long teamId, int source, int target, JdbcTemplate from, JdbcTemplate to,
+                                Connection toConnection) throws SQLException {
+        List<Long> team = List.of(teamId);
+        List<Map<String, Object>> teams = ShardRows.select(from, "teams", "id", team, true);
+        if (teams.isEmpty()) {
+            throw new ResourceNotFoundException("Team", "id", teamId);
+        }
+        List<Map<String, Object>> projects = ShardRows.select(from, "projects", "team_id", team, true);
+        List<Long> projectIds = ids(projects);
+        List<Map<String, Object>> tasks = ShardRows.select(from, "tasks", "project_id", projectIds, true);
+        List<Long> taskIds = ids(tasks);
+        List<Map<String, Object>> members = ShardRows.select(from, "team_employees", "team_id", team, false);
+        List<Map<String, Object>> stats = ShardRows.select(from, "project_stats", "project_id", projectIds, false);
+        List<Map<String, Object>> assignees = ShardRows.select(from, "task_employees", "task_id", taskIds, false);
+
+        // Children first when deleting, parents first when inserting; a failed earlier move may have left copies
+        deleteTeam(to, teamId);
+        ShardRows.insert(to, "teams", teams);
+        ShardRows.insert(to, "team_employees", members);
+        ShardRows.insert(to, "projects", projects);
+        ShardRows.insert(to, "project_stats", stats);
+        ShardRows.insert(to, "tasks", tasks);
+        ShardRows.insert(to, "task_employees", assignees);
+        toConnection.commit();
+
+        shardDirectory.teamMoved(teamId, target, projectIds, taskIds);
+        deleteTeam(from, teamId);
+        return new TeamMoveResult(teamId, source, target, projectIds.size(), taskIds.size());
+    }
+
+    private void deleteTeam(JdbcTemplate jdbc, Long teamId) {
+        List<Long> projectIds = jdbc.queryForList("SELECT id FROM projects WHERE team_id = ?", Long.class, teamId);
+        List<Long> taskIds = ids(ShardRows.select(jdbc, "tasks", "project_id", projectIds, false));
+        ShardRows.delete(jdbc, "task_employees", "task_id", taskIds);
+        ShardRows.delete(jdbc, "tasks", "id", taskIds);
+        ShardRows.delete(jdbc, "project_stats", "project_id", projectIds);
+        ShardRows.delete(jdbc, "projects", "id", projectIds);
+        ShardRows.delete(jdbc, "team_employees", "team_id", List.of(teamId));
+        ShardRows.delete(jdbc, "teams", "id", List.of(teamId));
+    }
+
+    private static List<Long> ids(List<Map<String, Object>> rows) {
+        return rows.stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+    }
+
+    // Statements of one shard run on the connection holding the move's transaction there
+    private static JdbcTemplate jdbc(Connection connection) {
+        return new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+    }
+}
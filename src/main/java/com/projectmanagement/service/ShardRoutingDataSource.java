@@ -0,0 +1,55 @@
+package com.projectmanagement.service;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections to the shard bound by {@link Shards} to the current thread, shard 0
+ * when none is. Like the replica routing it decides when the connection is requested, so it is
+ * used behind a {@code LazyConnectionDataSourceProxy}. Closing it closes the pools of shards
+ * 1..N-1; shard 0 is closed by its owner.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(Shards.HOME));
+        // An unknown shard number is a bug, not a reason to write to shard 0
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    // The pool of one shard, for statements that must not follow the thread's binding
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Shards.current();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards.subList(1, shards.size())) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
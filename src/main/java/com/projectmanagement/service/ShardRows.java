@@ -0,0 +1,88 @@
+package com.projectmanagement.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Copies whole rows between shards with plain JDBC, whatever the columns of the table
+final class ShardRows {
+
+    private ShardRows() {
+    }
+
+    // Rows whose column is one of the ids, optionally locked until the transaction ends
+    static List<Map<String, Object>> select(JdbcTemplate jdbc, String table, String column, Collection<Long> ids, boolean lock) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbc);
+        for (List<Long> chunk : chunks(ids)) {
+            rows.addAll(named.queryForList("SELECT * FROM " + table + " WHERE " + column + " IN (:ids)"
+                    + (lock ? " FOR UPDATE" : ""), new MapSqlParameterSource("ids", chunk)));
+        }
+        return rows;
+    }
+
+    static int delete(JdbcTemplate jdbc, String table, String column, Collection<Long> ids) {
+        int deleted = 0;
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbc);
+        for (List<Long> chunk : chunks(ids)) {
+            deleted += named.update("DELETE FROM " + table + " WHERE " + column + " IN (:ids)",
+                    new MapSqlParameterSource("ids", chunk));
+        }
+        return deleted;
+    }
+
+    static void insert(JdbcTemplate jdbc, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = List.copyOf(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        jdbc.batchUpdate(sql, rows.stream().map(row -> columns.stream().map(row::get).toArray()).toList());
+    }
+
+    // Overwrites the row with the same key, or inserts it if there is none
+    static void upsert(JdbcTemplate jdbc, String table, String key, Map<String, Object> row) {
+        List<String> columns = row.keySet().stream().filter(column -> !column.equalsIgnoreCase(key)).toList();
+        List<Object> values = new ArrayList<>();
+        columns.forEach(column -> values.add(row.get(column)));
+        values.add(row.get(key));
+        int updated = jdbc.update("UPDATE " + table + " SET "
+                + columns.stream().map(column -> column + " = ?").collect(Collectors.joining(", "))
+                + " WHERE " + key + " = ?", values.toArray());
+        if (updated == 0) {
+            insert(jdbc, table, List.of(row));
+        }
+    }
+
+    // Every row of a table keyed by id, in batches
+    static long copyAll(JdbcTemplate from, JdbcTemplate to, String table) {
+        long copied = 0;
+        long after = Long.MIN_VALUE;
+        List<Map<String, Object>> rows;
+        do {
+            rows = from.queryForList("SELECT * FROM " + table + " WHERE id > ? ORDER BY id LIMIT " + BulkUpdates.CHUNK_SIZE, after);
+            insert(to, table, rows);
+            copied += rows.size();
+            if (!rows.isEmpty()) {
+                after = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+            }
+        } while (rows.size() == BulkUpdates.CHUNK_SIZE);
+        return copied;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> all = List.copyOf(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += BulkUpdates.CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + BulkUpdates.CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
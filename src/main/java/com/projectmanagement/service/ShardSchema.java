@@ -0,0 +1,116 @@
+package com.projectmanagement.service;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.DelayedDropRegistryNotAvailableImpl;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies {@code spring.jpa.hibernate.ddl-auto} to shards 1..N-1 as well; Hibernate itself only
+ * manages the schema of shard 0. The mapping is captured while the session factory is built and
+ * the schema tool runs once all singletons exist. On a shard whose schema it just created, every
+ * sequence is restarted at {@code shard * Shards.ID_SPACE}, so ids never collide between shards
+ * and a team can move without renumbering its rows. Such a shard also gets a copy of the
+ * employees, see {@link EmployeeReplication}.
+ */
+public class ShardSchema implements Integrator, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardSchema.class);
+
+    private final ShardRoutingDataSource routing;
+
+    private Metadata metadata;
+    private SessionFactoryImplementor sessionFactory;
+
+    public ShardSchema(ShardRoutingDataSource routing) {
+        this.routing = routing;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (metadata == null) {
+            throw new IllegalStateException("The shard schema integrator was not registered with Hibernate");
+        }
+        Map<String, Object> settings = new HashMap<>(sessionFactory.getProperties());
+        // Dropping at shutdown needs the factory's delayed-drop hook; the shards are recreated instead
+        if ("create-drop".equals(String.valueOf(settings.get(AvailableSettings.HBM2DDL_AUTO)))) {
+            settings.put(AvailableSettings.HBM2DDL_AUTO, "create");
+        }
+        for (int shard = 1; shard < routing.shardCount(); shard++) {
+            boolean existed = hasSchema(routing.shard(shard));
+            Shards.on(shard, () -> {
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(), settings,
+                        DelayedDropRegistryNotAvailableImpl.INSTANCE);
+                return null;
+            });
+            if (!existed && hasSchema(routing.shard(shard))) {
+                offsetSequences(shard);
+                long employees = ShardRows.copyAll(new JdbcTemplate(routing.shard(Shards.HOME)),
+                        new JdbcTemplate(routing.shard(shard)), "employees");
+                log.info("Created the schema of shard {} and copied {} employees to it", shard, employees);
+            }
+        }
+    }
+
+    private boolean hasSchema(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet tables = connection.getMetaData().getTables(null, null, "%", new String[]{"TABLE"})) {
+            while (tables.next()) {
+                if ("teams".equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read the schema of a shard", e);
+        }
+    }
+
+    // Native sequences are restarted; tables emulating one hold the next value in next_val
+    private void offsetSequences(int shard) {
+        long start = shard * Shards.ID_SPACE + 1;
+        Dialect dialect = sessionFactory.getServiceRegistry().getService(JdbcServices.class).getDialect();
+        JdbcTemplate jdbc = new JdbcTemplate(routing.shard(shard));
+        for (Namespace namespace : metadata.getDatabase().getNamespaces()) {
+            for (Sequence sequence : namespace.getSequences()) {
+                jdbc.execute("ALTER SEQUENCE " + sequence.getName().getSequenceName().render(dialect)
+                        + " RESTART WITH " + start);
+            }
+            for (Table table : namespace.getTables()) {
+                if (table.getColumnSpan() == 1 && table.getColumns().iterator().next().getName().equals("next_val")) {
+                    jdbc.update("UPDATE " + table.getName() + " SET next_val = ?", start);
+                }
+            }
+        }
+    }
+}
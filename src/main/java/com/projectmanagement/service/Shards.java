@@ -0,0 +1,232 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.KeysetPageable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Which shard the current thread talks to, and the ways of running work on one shard or all of
+ * them. Without {@code app.sharding.shards} there is a single shard and every method runs its
+ * work inline, in the caller's transaction.
+ *
+ * <p>A service method routes itself by calling {@link #bind(int)} before its first statement;
+ * the connection is fetched lazily, so the whole transaction then runs on that shard. Reads that
+ * span shards are scattered with {@link #gather}: each shard runs the query in its own read-only
+ * transaction on a worker thread and the pages are merged in sort order.
+ */
+@Component
+public class Shards {
+
+    // Shard of spring.datasource: the shard directory, employees and unassigned projects live here
+    public static final int HOME = 0;
+
+    // Sequences of shard k start at k * ID_SPACE, so ids stay unique across shards
+    static final long ID_SPACE = 1L << 40;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    @Autowired(required = false)
+    private ShardRoutingDataSource routing;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private final ExecutorService workers = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "shard-gather-" + workerCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? HOME : shard;
+    }
+
+    // Runs work with the thread bound to a shard; transactions it starts use that shard
+    public static <T> T on(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public boolean isSharded() {
+        return routing != null;
+    }
+
+    public int count() {
+        return routing == null ? 1 : routing.shardCount();
+    }
+
+    // The pool of one shard, for plain JDBC that must not follow the thread's binding
+    public DataSource dataSource(int shard) {
+        return routing == null ? dataSource : routing.shard(shard);
+    }
+
+    /**
+     * Routes the current transaction to a shard. Call it before the transaction's first
+     * statement; the binding ends with the transaction.
+     */
+    public void bind(int shard) {
+        if (!isSharded() || current() == shard) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A shard is bound for a transaction, but none is active");
+        }
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                restore(previous);
+            }
+        });
+    }
+
+    // Runs work in a new transaction on one shard; unsharded, inline
+    public <T> T inShard(int shard, boolean readOnly, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.setReadOnly(readOnly);
+        return on(shard, () -> transaction.execute(status -> work.get()));
+    }
+
+    /**
+     * Rows read for ids grouped by shard. When the ids all live on one shard the read runs in
+     * place, bound to it; otherwise each shard reads its ids in a read-only transaction of its own.
+     */
+    public <T> List<T> readByShard(Map<Integer, List<Long>> idsByShard, Function<List<Long>, List<T>> read) {
+        if (idsByShard.size() == 1) {
+            Map.Entry<Integer, List<Long>> only = idsByShard.entrySet().iterator().next();
+            bind(only.getKey());
+            return read.apply(only.getValue());
+        }
+        List<T> rows = new ArrayList<>();
+        idsByShard.forEach((shard, ids) -> rows.addAll(inShard(shard, true, () -> read.apply(ids))));
+        return rows;
+    }
+
+    // The work's result on every shard, one shard after the other, each in a new transaction
+    public <T> List<T> inEach(boolean readOnly, Supplier<T> work) {
+        List<T> results = new ArrayList<>(count());
+        for (int shard = 0; shard < count(); shard++) {
+            results.add(inShard(shard, readOnly, work));
+        }
+        return results;
+    }
+
+    // Runs work bound to every shard in turn, without a transaction of its own
+    public <T> List<T> onEach(Supplier<T> work) {
+        List<T> results = new ArrayList<>(count());
+        if (!isSharded()) {
+            results.add(work.get());
+            return results;
+        }
+        for (int shard = 0; shard < count(); shard++) {
+            results.add(on(shard, work));
+        }
+        return results;
+    }
+
+    /**
+     * One page of a keyset-paginated list over all shards: every shard reads its own first page
+     * in parallel and the pages are merged by the request's sort keys.
+     */
+    public <T extends Record> CursorPage<T> gather(KeysetPageable page, Supplier<CursorPage<T>> query) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        return page.merge(parallel(query));
+    }
+
+    // The rows every shard returns, concatenated; for lookups by id
+    public <T> List<T> gatherAll(Supplier<List<T>> query) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        return parallel(query).stream().flatMap(List::stream).toList();
+    }
+
+    /**
+     * One batch of an id-keyset scan over all shards: the first {@code limit} of the rows the
+     * shards return, by id. Every row starts with its id.
+     */
+    public List<Object[]> idBatch(Supplier<List<Object[]>> query, int limit) {
+        if (!isSharded()) {
+            return query.get();
+        }
+        return gatherAll(query).stream()
+                .sorted(Comparator.comparing(row -> (Long) row[0]))
+                .limit(limit)
+                .toList();
+    }
+
+    private <T> List<T> parallel(Supplier<T> work) {
+        List<Future<T>> futures = new ArrayList<>(count());
+        for (int shard = 0; shard < count(); shard++) {
+            int target = shard;
+            futures.add(workers.submit(() -> inShard(target, true, work)));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shard read failed", e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+
+    private static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
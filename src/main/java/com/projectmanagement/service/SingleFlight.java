@@ -0,0 +1,140 @@
+package com.projectmanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key runs the load, callers
+ * arriving while it runs wait for its result (or its exception) instead of running their own.
+ * Nothing is kept once the load finishes, so this is not a cache.
+ *
+ * <p>A waiter must not get a result read before a write it has already seen committed. Every
+ * committed read-write transaction therefore starts a new epoch, and a caller only joins a load
+ * started in the current one. Loads are meant to run outside a transaction, each in its own,
+ * and read from the primary, since a replica may still lag behind that commit.
+ *
+ * <p>At most {@code app.single-flight.max-keys} loads are shared at once; beyond that, and with
+ * {@code app.single-flight.enabled=false}, callers load on their own. A waiter gives up after
+ * {@code app.single-flight.timeout} and loads on its own too.
+ */
+@Component
+public class SingleFlight implements TransactionExecutionListener {
+
+    public static final String PROJECT = "project";
+    public static final String PROJECT_ETAG = "project-etag";
+    public static final String TASK = "task";
+    public static final String TASK_ETAG = "task-etag";
+    public static final String PROJECT_TASKS = "project-tasks";
+    public static final String PROJECT_TASKS_ETAG = "project-tasks-etag";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.single-flight.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.single-flight.max-keys:10000}")
+    private int maxKeys;
+
+    @Value("${app.single-flight.timeout:PT5S}")
+    private Duration timeout;
+
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong epoch = new AtomicLong();
+
+    @PostConstruct
+    void registerMeters() {
+        Gauge.builder("singleflight.active", inFlight, ConcurrentMap::size)
+                .description("Loads currently shared")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            epoch.incrementAndGet();
+        }
+    }
+
+    /**
+     * Result of the load for {@code namespace} and {@code key}, shared with concurrent callers
+     * passing equal keys. The key must implement {@code equals} and {@code hashCode}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String namespace, Object key, Supplier<T> read) {
+        Supplier<T> load = () -> ReadWriteRoutingDataSource.onPrimary(read);
+        if (!enabled) {
+            return load.get();
+        }
+        if (inFlight.size() >= maxKeys) {
+            calls(namespace, "bypassed").increment();
+            return load.get();
+        }
+        Key flightKey = new Key(namespace, key, epoch.get());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, flight);
+        if (running != null) {
+            return (T) await(namespace, running, load);
+        }
+
+        calls(namespace, "led").increment();
+        try {
+            T result = load.get();
+            inFlight.remove(flightKey, flight);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flightKey, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(String namespace, CompletableFuture<Object> running, Supplier<?> load) {
+        try {
+            Object result = running.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            calls(namespace, "collapsed").increment();
+            return result;
+        } catch (ExecutionException e) {
+            calls(namespace, "collapsed").increment();
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        } catch (TimeoutException e) {
+            calls(namespace, "timed_out").increment();
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared load", e);
+        }
+    }
+
+    private Counter calls(String namespace, String outcome) {
+        return Counter.builder("singleflight.calls")
+                .description("Coalescable reads by outcome: led a load, collapsed into one, bypassed, or timed out waiting")
+                .tag("namespace", namespace)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Key(String namespace, Object key, long epoch) {
+    }
+}
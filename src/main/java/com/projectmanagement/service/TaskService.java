@@ -1,24 +1,55 @@
 package com.projectmanagement.service;
 
+import com.projectmanagement.dto.BulkUpdateResult;
+import com.projectmanagement.dto.ChangeEvent.Change;
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.MembershipResult;
+import com.projectmanagement.dto.MembershipUpdate;
+import com.projectmanagement.dto.TaskBulkUpdate;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.dto.TaskSearch;
+import com.projectmanagement.exception.BadRequestException;
 import com.projectmanagement.exception.ResourceNotFoundException;
-import com.projectmanagement.model.Employee;
 import com.projectmanagement.model.Project;
 import com.projectmanagement.model.Task;
 import com.projectmanagement.model.Task.TaskPriority;
 import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.pagination.KeysetPageable;
 import com.projectmanagement.repository.EmployeeRepository;
 import com.projectmanagement.repository.ProjectRepository;
 import com.projectmanagement.repository.TaskRepository;
+import com.projectmanagement.repository.TaskSpecifications;
+import com.projectmanagement.service.ProjectStatsService.Contribution;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TaskService {
 
+    // Non-nullable columns a list endpoint may seek on
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of(
+            "id", Long.class,
+            "title", String.class);
+
     @Autowired
     private TaskRepository taskRepository;
 
@@ -28,29 +59,89 @@ public class TaskService {
     @Autowired
     private EmployeeRepository employeeRepository;
 
-    public Task create(Task task) {
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private OverdueIndex overdueIndex;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    // On the shard of its project; a task without a project stays on shard 0
+    public TaskDto create(Task task) {
         if (task.getStatus() == null) {
             task.setStatus(TaskStatus.TODO);
         }
         if (task.getPriority() == null) {
             task.setPriority(TaskPriority.MEDIUM);
         }
-        return taskRepository.save(task);
+        int shard = task.getProject() == null ? Shards.HOME : shardDirectory.project(task.getProject().getId());
+        shards.bind(shard);
+        // A project given by id only is a detached instance without a version; use a reference
+        if (task.getProject() != null) {
+            task.setProject(projectRepository.getReferenceById(task.getProject().getId()));
+        }
+        Task saved = taskRepository.save(task);
+        shardDirectory.taskPlaced(saved.getId(), shard);
+        projectStatsService.taskChanged(null, saved);
+        overdueIndex.taskChanged(saved);
+        changeFeed.taskChanged(Change.CREATED, saved, List.of());
+        return TaskDto.from(saved);
     }
 
+    // Remembered for the rest of a GET request, see BatchLoader
     @Transactional(readOnly = true)
-    public Task findById(Long id) {
-        return taskRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+    public TaskDto findById(Long id) {
+        TaskDto task = BatchLoader.load(BatchLoader.TASKS, id, this::fetch);
+        if (task == null) {
+            throw new ResourceNotFoundException("Task", "id", id);
+        }
+        return task;
     }
 
+    // The tasks in the order of their ids; unknown ids are skipped
     @Transactional(readOnly = true)
-    public List<Task> findAll() {
-        return taskRepository.findAll();
+    public List<TaskDto> findAllById(Collection<Long> ids) {
+        return BatchLoader.loadAll(BatchLoader.TASKS, BulkUpdates.checkReadIds(ids), this::fetch);
     }
 
-    public Task update(Long id, Task taskDetails) {
-        Task task = findById(id);
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDto> findAll(CursorRequest request, FieldSelection fields) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return shards.gather(page, () -> list(page, fields, null,
+                () -> taskRepository.findAllBy(page.position(), page.limit(), page.sort())));
+    }
+
+    // ETags read from versions only, without loading the tasks
+    @Transactional(readOnly = true)
+    public String currentETag(Long id) {
+        shards.bind(shardDirectory.task(id));
+        List<Object[]> versions = taskRepository.findVersions(id);
+        if (versions.isEmpty()) {
+            throw new ResourceNotFoundException("Task", "id", id);
+        }
+        return ETags.withMemberRows("task", id, versions);
+    }
+
+    @Transactional(readOnly = true)
+    public String projectTasksETag(Long projectId) {
+        shards.bind(shardDirectory.project(projectId));
+        return ETags.projectTasks(projectId, taskRepository.findVersionSummaryByProjectId(projectId).get(0));
+    }
+
+    public TaskDto update(Long id, Task taskDetails, String ifMatch) {
+        shards.bind(shardDirectory.task(id));
+        Task task = getTask(id);
+        ETags.checkIfMatch(ifMatch, () -> currentETag(id));
+        Contribution before = Contribution.of(task);
+        Map<String, Object> fieldsBefore = ChangeFeed.snapshot(task);
 
         task.setTitle(taskDetails.getTitle());
         task.setDescription(taskDetails.getDescription());
@@ -64,73 +155,246 @@ public class TaskService {
             task.setStatus(taskDetails.getStatus());
         }
 
-        return taskRepository.save(task);
+        projectStatsService.taskChanged(before, task);
+        overdueIndex.taskChanged(task);
+        Task saved = taskRepository.saveAndFlush(task);
+        changeFeed.taskChanged(Change.UPDATED, saved, ChangeFeed.changedFields(fieldsBefore, ChangeFeed.snapshot(saved)));
+        return TaskDto.from(saved);
     }
 
     public void delete(Long id) {
-        Task task = findById(id);
+        shards.bind(shardDirectory.task(id));
+        Task task = getTask(id);
+        projectStatsService.taskChanged(Contribution.of(task), null);
+        overdueIndex.taskRemoved(id);
+        changeFeed.taskChanged(Change.DELETED, task, List.of());
         taskRepository.delete(task);
     }
 
     // Custom business methods
-    public Task assignToProject(Long taskId, Long projectId) {
-        Task task = findById(taskId);
+    // Only within a shard: a task changes shards with its project's team, see ShardRebalancer
+    public TaskDto assignToProject(Long taskId, Long projectId) {
+        int shard = shardDirectory.task(taskId);
+        if (shards.isSharded() && shardDirectory.project(projectId) != shard) {
+            throw new BadRequestException("Project " + projectId + " is on another shard than task " + taskId);
+        }
+        shards.bind(shard);
+        Task task = getTask(taskId);
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project", "id", projectId));
+        Contribution before = Contribution.of(task);
 
         task.setProject(project);
-        return taskRepository.save(task);
+        projectStatsService.taskChanged(before, task);
+        return published(taskRepository.saveAndFlush(task), "projectId");
     }
 
-    public Task assignEmployeeToTask(Long taskId, Long employeeId) {
-        Task task = findById(taskId);
-        Employee employee = employeeRepository.findById(employeeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", employeeId));
+    public MembershipResult assignEmployeeToTask(Long taskId, Long employeeId) {
+        return requireEmployee(updateAssignees(taskId, MembershipUpdate.adding(employeeId)), employeeId);
+    }
 
-        task.getEmployees().add(employee);
-        return taskRepository.save(task);
+    public MembershipResult removeEmployeeFromTask(Long taskId, Long employeeId) {
+        return requireEmployee(updateAssignees(taskId, MembershipUpdate.removing(employeeId)), employeeId);
     }
 
-    public Task removeEmployeeFromTask(Long taskId, Long employeeId) {
-        Task task = findById(taskId);
-        Employee employee = employeeRepository.findById(employeeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", employeeId));
+    // Set-based writes on task_employees, like TeamService.updateMembers
+    public MembershipResult updateAssignees(Long taskId, MembershipUpdate request) {
+        MembershipUpdate update = BulkUpdates.checkMembership(request);
+        shards.bind(shardDirectory.task(taskId));
+        List<Object[]> locked = taskRepository.lockVersion(taskId);
+        if (locked.isEmpty()) {
+            throw new ResourceNotFoundException("Task", "id", taskId);
+        }
+        Long version = ((Number) locked.get(0)[0]).longValue();
+        Long projectId = locked.get(0)[1] == null ? null : ((Number) locked.get(0)[1]).longValue();
 
-        task.getEmployees().remove(employee);
-        return taskRepository.save(task);
+        int removed = BulkUpdates.inChunks(update.remove(), ids -> taskRepository.removeAssignees(taskId, ids));
+        int added = BulkUpdates.inChunks(update.add(), ids -> taskRepository.addAssignees(taskId, ids));
+        MembershipResult result = new MembershipResult(added, removed);
+        if (result.changed()) {
+            taskRepository.incrementVersion(taskId);
+            changeFeed.taskAssigneesChanged(taskId, version + 1, projectId, taskRepository.findAssigneeIds(taskId));
+        }
+        return result;
     }
 
-    public Task updateStatus(Long taskId, TaskStatus status) {
-        Task task = findById(taskId);
+    public TaskDto updateStatus(Long taskId, TaskStatus status) {
+        shards.bind(shardDirectory.task(taskId));
+        Task task = getTask(taskId);
+        Contribution before = Contribution.of(task);
         task.setStatus(status);
-        return taskRepository.save(task);
+        projectStatsService.taskChanged(before, task);
+        overdueIndex.taskChanged(task);
+        return published(taskRepository.saveAndFlush(task), "status");
     }
 
-    public Task updatePriority(Long taskId, TaskPriority priority) {
-        Task task = findById(taskId);
+    public TaskDto updatePriority(Long taskId, TaskPriority priority) {
+        shards.bind(shardDirectory.task(taskId));
+        Task task = getTask(taskId);
+        Contribution before = Contribution.of(task);
         task.setPriority(priority);
-        return taskRepository.save(task);
+        projectStatsService.taskChanged(before, task);
+        return published(taskRepository.saveAndFlush(task), "priority");
+    }
+
+    /**
+     * One UPDATE statement instead of a load and save per task. Sharded, each shard holding
+     * targets runs it in a transaction of its own, so the shards commit independently.
+     */
+    public BulkUpdateResult bulkUpdate(TaskBulkUpdate request) {
+        if (request.status() == null && request.priority() == null) {
+            throw new BadRequestException("Nothing to update: status or priority is required");
+        }
+        boolean byIds = BulkUpdates.targetsIds(request.ids(), request.filter() == null || request.filter().isEmpty());
+
+        int updated = 0;
+        if (byIds) {
+            for (Map.Entry<Integer, List<Long>> ids : shardDirectory.tasksByShard(request.ids()).entrySet()) {
+                updated += shards.inShard(ids.getKey(), false, () -> bulkUpdateHere(ids.getValue(), request));
+            }
+        } else if (request.filter().projectId() != null) {
+            updated = shards.inShard(shardDirectory.project(request.filter().projectId()), false, () -> bulkUpdateHere(null, request));
+        } else {
+            updated = shards.inEach(false, () -> bulkUpdateHere(null, request)).stream().mapToInt(Integer::intValue).sum();
+        }
+        return new BulkUpdateResult(updated);
+    }
+
+    // Set-based update of the given tasks, or of those matching the request's filter, on the bound shard
+    private int bulkUpdateHere(List<Long> ids, TaskBulkUpdate request) {
+        // One read of the target rows feeds the stats rollup, the overdue index and the change feed
+        int updated;
+        List<Object[]> targets;
+        if (ids != null) {
+            targets = taskRepository.findUpdateTargetsByIdIn(ids);
+            updated = taskRepository.updateStatusAndPriority(ids, request.status(), request.priority());
+        } else {
+            TaskBulkUpdate.Filter filter = request.filter();
+            targets = taskRepository.findUpdateTargetsWhere(filter.projectId(), filter.status(), filter.priority());
+            updated = taskRepository.updateStatusAndPriorityWhere(filter.projectId(), filter.status(), filter.priority(),
+                    request.status(), request.priority());
+        }
+        projectStatsService.recompute(targets.stream().map(row -> (Long) row[2]).filter(Objects::nonNull).distinct().toList());
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (request.status() != null) {
+            overdueIndex.tasksChanged(targets, request.status());
+            values.put("status", request.status());
+        }
+        if (request.priority() != null) {
+            values.put("priority", request.priority());
+        }
+        changeFeed.tasksUpdated(targets, values);
+        return updated;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDto> findByProjectId(Long projectId, CursorRequest request, FieldSelection fields) {
+        shards.bind(shardDirectory.project(projectId));
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return list(page, fields, TaskSpecifications.inProject(projectId),
+                () -> taskRepository.findByProjectId(projectId, page.position(), page.limit(), page.sort()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDto> findByEmployeeId(Long employeeId, CursorRequest request, FieldSelection fields) {
+        if (!employeeRepository.existsById(employeeId)) {
+            throw new ResourceNotFoundException("Employee", "id", employeeId);
+        }
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return shards.gather(page, () -> list(page, fields, TaskSpecifications.assignedTo(employeeId),
+                () -> taskRepository.findByEmployeesId(employeeId, page.position(), page.limit(), page.sort())));
     }
 
     @Transactional(readOnly = true)
-    public List<Task> findByProjectId(Long projectId) {
-        return taskRepository.findByProjectId(projectId);
+    public CursorPage<TaskDto> findByStatus(TaskStatus status, CursorRequest request, FieldSelection fields) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return shards.gather(page, () -> list(page, fields, TaskSpecifications.withStatus(status),
+                () -> taskRepository.findByStatus(status, page.position(), page.limit(), page.sort())));
     }
 
     @Transactional(readOnly = true)
-    public List<Task> findByEmployeeId(Long employeeId) {
-        Employee employee = employeeRepository.findById(employeeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", employeeId));
-        return taskRepository.findByEmployeesContaining(employee);
+    public CursorPage<TaskDto> findByPriority(TaskPriority priority, CursorRequest request, FieldSelection fields) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return shards.gather(page, () -> list(page, fields, TaskSpecifications.withPriority(priority),
+                () -> taskRepository.findByPriority(priority, page.position(), page.limit(), page.sort())));
     }
 
+    // Served from the overdue index when sorted by id, from the database otherwise
     @Transactional(readOnly = true)
-    public List<Task> findByStatus(TaskStatus status) {
-        return taskRepository.findByStatus(status);
+    public CursorPage<TaskDto> findOverdueTasks(CursorRequest request, FieldSelection fields) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        if (overdueIndex.isReady() && page.sortsById()) {
+            List<Long> ids = overdueIndex.overdueTasks(page.afterId(), page.isDescending(), page.limit().max() + 1);
+            if (!fields.expands("employees")) {
+                return page.toPage(ids, pageIds -> shards.gatherAll(() -> taskRepository.findProjected(
+                        TaskSpecifications.withIds(pageIds), fields, ScrollPosition.keyset(), Limit.of(pageIds.size()),
+                        Sort.by("id")).getContent()), TaskDto::id);
+            }
+            return page.toPage(ids, pageIds -> shards.gatherAll(() -> taskRepository.fetchEmployees(pageIds).stream()
+                    .map(TaskDto::from).toList()), TaskDto::id);
+        }
+        LocalDate today = LocalDate.now();
+        return shards.gather(page, () -> list(page, fields, TaskSpecifications.overdueOn(today),
+                () -> taskRepository.findByDueDateBeforeAndStatusNot(
+                        today, TaskStatus.DONE, page.position(), page.limit(), page.sort())));
     }
 
+    // Any combination of the criteria in one query, keyset-paginated like the other lists
     @Transactional(readOnly = true)
-    public List<Task> findByPriority(TaskPriority priority) {
-        return taskRepository.findByPriority(priority);
+    public CursorPage<TaskDto> search(TaskSearch search, CursorRequest request, FieldSelection fields) {
+        if (search.dueFrom() != null && search.dueTo() != null && search.dueFrom().isAfter(search.dueTo())) {
+            throw new BadRequestException("dueFrom must not be after dueTo");
+        }
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        Specification<Task> spec = TaskSpecifications.matching(search);
+        return shards.gather(page, () -> list(page, fields, spec, () -> taskRepository.findBy(spec,
+                query -> query.sortBy(page.sort()).limit(page.limit().max()).scroll(page.position()))));
+    }
+
+    // A single-assignee change that did nothing may have named an unknown employee
+    private MembershipResult requireEmployee(MembershipResult result, Long employeeId) {
+        if (!result.changed() && !employeeRepository.existsById(employeeId)) {
+            throw new ResourceNotFoundException("Employee", "id", employeeId);
+        }
+        return result;
+    }
+
+    private TaskDto published(Task saved, String field) {
+        changeFeed.taskChanged(Change.UPDATED, saved, List.of(field));
+        return TaskDto.from(saved);
+    }
+
+    // One IN list per chunk of ids on each shard
+    private Map<Long, TaskDto> fetch(List<Long> ids) {
+        return shards.readByShard(shardDirectory.tasksByShard(ids), onShard ->
+                        BulkUpdates.readInChunks(onShard, taskRepository::fetchEmployees).stream().map(TaskDto::from).toList())
+                .stream()
+                .collect(Collectors.toMap(TaskDto::id, Function.identity()));
+    }
+
+    private Task getTask(Long id) {
+        return taskRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Task", "id", id));
+    }
+
+    /**
+     * A list whose response leaves out the assignees reads only the selected columns of the
+     * tasks matching {@code spec}, in one statement. Otherwise the tasks come from
+     * {@code entities} and their assignees from a second statement.
+     */
+    private CursorPage<TaskDto> list(KeysetPageable page, FieldSelection fields, Specification<Task> spec,
+                                     Supplier<Window<Task>> entities) {
+        if (!fields.expands("employees")) {
+            return page.toPage(taskRepository.findProjected(spec, fields, page.position(), page.limit(), page.sort()));
+        }
+        return toDtoPage(page, entities.get());
+    }
+
+    // Second statement of every list read: initializes the assignees of the whole page at once
+    private CursorPage<TaskDto> toDtoPage(KeysetPageable page, Window<Task> window) {
+        if (!window.isEmpty()) {
+            taskRepository.fetchEmployees(window.stream().map(Task::getId).toList());
+        }
+        return page.toPage(window).map(TaskDto::from);
     }
 }
\ No newline at end of file
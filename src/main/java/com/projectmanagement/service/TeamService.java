@@ -1,87 +1,239 @@
 package com.projectmanagement.service;
 
+import com.projectmanagement.dto.ChangeEvent.Change;
+import com.projectmanagement.dto.MembershipResult;
+import com.projectmanagement.dto.MembershipUpdate;
+import com.projectmanagement.dto.TeamDto;
 import com.projectmanagement.exception.ResourceNotFoundException;
-import com.projectmanagement.model.Employee;
 import com.projectmanagement.model.Team;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.pagination.KeysetPageable;
 import com.projectmanagement.repository.EmployeeRepository;
 import com.projectmanagement.repository.TeamRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class TeamService {
 
+    // Non-nullable columns a list endpoint may seek on
+    private static final Map<String, Class<?>> SORT_KEYS = Map.of(
+            "id", Long.class,
+            "name", String.class);
+
     @Autowired
     private TeamRepository teamRepository;
 
     @Autowired
     private EmployeeRepository employeeRepository;
 
-    public Team create(Team team) {
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private OverdueIndex overdueIndex;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    // A team and everything under it live on one shard; a new team goes where there are fewest
+    public TeamDto create(Team team) {
         if (team.getCreatedDate() == null) {
             team.setCreatedDate(LocalDate.now());
         }
-        return teamRepository.save(team);
+        int shard = shardDirectory.placeTeam();
+        shards.bind(shard);
+        Team saved = teamRepository.save(team);
+        shardDirectory.teamPlaced(saved.getId(), shard);
+        nameSearchIndex.teamChanged(saved);
+        changeFeed.teamChanged(Change.CREATED, saved, List.of());
+        return TeamDto.from(saved);
     }
 
+    // Cache loads read the primary, see ReadWriteRoutingDataSource.onPrimary
+    @Cacheable(cacheNames = ReadCache.TEAMS, key = "#id", sync = true)
     @Transactional(readOnly = true)
-    public Team findById(Long id) {
-        return teamRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Team", "id", id));
+    public TeamDto findById(Long id) {
+        TeamDto team = ReadWriteRoutingDataSource.onPrimary(() -> BatchLoader.load(BatchLoader.TEAMS, id, this::fetch));
+        if (team == null) {
+            throw new ResourceNotFoundException("Team", "id", id);
+        }
+        return team;
     }
 
+    // The teams in the order of their ids; unknown ids are skipped. Cached teams are not read again
     @Transactional(readOnly = true)
-    public List<Team> findAll() {
-        return teamRepository.findAll();
+    public List<TeamDto> findAllById(Collection<Long> ids) {
+        return BatchLoader.loadAll(BatchLoader.TEAMS, BulkUpdates.checkReadIds(ids), missing -> {
+            Map<Long, TeamDto> found = readCache.cached(ReadCache.TEAMS, missing, TeamDto.class);
+            found.putAll(fetch(missing.stream().filter(id -> !found.containsKey(id)).toList()));
+            return found;
+        });
     }
 
-    public Team update(Long id, Team teamDetails) {
-        Team team = findById(id);
+    @Transactional(readOnly = true)
+    public CursorPage<TeamDto> findAll(CursorRequest request) {
+        KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+        return shards.gather(page, () -> toDtoPage(page, teamRepository.findAllBy(page.position(), page.limit(), page.sort())));
+    }
+
+    public TeamDto update(Long id, Team teamDetails, String ifMatch) {
+        shards.bind(shardDirectory.team(id));
+        Team team = getTeam(id);
+        ETags.checkIfMatch(ifMatch, () -> ETags.team(TeamDto.from(team)));
+        readCache.teamChanged(id);
+        List<String> fields = new ArrayList<>();
+        if (!Objects.equals(team.getName(), teamDetails.getName())) {
+            fields.add("name");
+        }
+        if (!Objects.equals(team.getDescription(), teamDetails.getDescription())) {
+            fields.add("description");
+        }
 
         team.setName(teamDetails.getName());
         team.setDescription(teamDetails.getDescription());
+        nameSearchIndex.teamChanged(team);
 
-        return teamRepository.save(team);
+        Team saved = teamRepository.saveAndFlush(team);
+        changeFeed.teamChanged(Change.UPDATED, saved, fields);
+        return TeamDto.from(saved);
     }
 
     public void delete(Long id) {
-        Team team = findById(id);
+        shards.bind(shardDirectory.team(id));
+        Team team = getTeam(id);
+        readCache.teamChanged(id);
+        nameSearchIndex.teamRemoved(id);
+        shardDirectory.teamRemoved(id);
+        // Its projects and their tasks are deleted with it
+        team.getProjects().forEach(project -> {
+            projectStatsService.projectDeleted(project.getId());
+            overdueIndex.projectRemoved(project);
+            project.getTasks().forEach(task -> changeFeed.taskChanged(Change.DELETED, task, List.of()));
+            changeFeed.projectChanged(Change.DELETED, project, List.of());
+        });
+        changeFeed.teamChanged(Change.DELETED, team, List.of());
         teamRepository.delete(team);
     }
 
     // Custom business methods
-    public Team addEmployeeToTeam(Long teamId, Long employeeId) {
-        Team team = findById(teamId);
-        Employee employee = employeeRepository.findById(employeeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", employeeId));
-
-        team.getEmployees().add(employee);
-        return teamRepository.save(team);
+    public MembershipResult addEmployeeToTeam(Long teamId, Long employeeId) {
+        return requireEmployee(updateMembers(teamId, MembershipUpdate.adding(employeeId)), employeeId);
     }
 
-    public Team removeEmployeeFromTeam(Long teamId, Long employeeId) {
-        Team team = findById(teamId);
-        Employee employee = employeeRepository.findById(employeeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", employeeId));
+    public MembershipResult removeEmployeeFromTeam(Long teamId, Long employeeId) {
+        return requireEmployee(updateMembers(teamId, MembershipUpdate.removing(employeeId)), employeeId);
+    }
 
-        team.getEmployees().remove(employee);
-        return teamRepository.save(team);
+    /**
+     * Adds and removes members with a few set-based statements on team_employees, however large
+     * the team: neither the team's nor the employees' collections are loaded. Members already
+     * present (or absent) and unknown employee ids are skipped; the team version is bumped only
+     * when a row changed.
+     */
+    public MembershipResult updateMembers(Long teamId, MembershipUpdate request) {
+        MembershipUpdate update = BulkUpdates.checkMembership(request);
+        shards.bind(shardDirectory.team(teamId));
+        Long version = teamRepository.lockVersion(teamId)
+                .orElseThrow(() -> new ResourceNotFoundException("Team", "id", teamId));
+
+        int removed = BulkUpdates.inChunks(update.remove(), ids -> teamRepository.removeMembers(teamId, ids));
+        int added = BulkUpdates.inChunks(update.add(), ids -> teamRepository.addMembers(teamId, ids));
+        MembershipResult result = new MembershipResult(added, removed);
+        if (result.changed()) {
+            teamRepository.incrementVersion(teamId);
+            readCache.teamChanged(teamId, Stream.concat(update.add().stream(), update.remove().stream())
+                    .toArray(Long[]::new));
+            changeFeed.teamMembersChanged(teamId, version + 1);
+        }
+        return result;
     }
 
+    @Cacheable(cacheNames = ReadCache.TEAMS_BY_EMPLOYEE, key = "@readCache.teamsByEmployeeKey(#employeeId, #request)", sync = true)
     @Transactional(readOnly = true)
-    public List<Team> findTeamsByEmployee(Long employeeId) {
-        Employee employee = employeeRepository.findById(employeeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee", "id", employeeId));
-        return teamRepository.findByEmployeesContaining(employee);
+    public CursorPage<TeamDto> findTeamsByEmployee(Long employeeId, CursorRequest request) {
+        return ReadWriteRoutingDataSource.onPrimary(() -> {
+            if (!employeeRepository.existsById(employeeId)) {
+                throw new ResourceNotFoundException("Employee", "id", employeeId);
+            }
+            KeysetPageable page = KeysetPageable.of(request, SORT_KEYS);
+            return shards.gather(page, () -> toDtoPage(page,
+                    teamRepository.findByEmployeesId(employeeId, page.position(), page.limit(), page.sort())));
+        });
     }
 
+    // Ranked matches on name and description; a plain name scan until the index is built
     @Transactional(readOnly = true)
-    public List<Team> searchByName(String name) {
-        return teamRepository.findByNameContainingIgnoreCase(name);
+    public List<TeamDto> searchByName(String name, Integer limit) {
+        int max = NameSearchIndex.limit(name, limit);
+        if (!nameSearchIndex.isReady()) {
+            KeysetPageable page = KeysetPageable.of(CursorRequest.firstPage(max), SORT_KEYS);
+            return shards.gather(page, () -> toDtoPage(page, teamRepository.findByNameContainingIgnoreCase(
+                    name, page.position(), page.limit(), page.sort()))).getContent();
+        }
+        List<Long> ids = nameSearchIndex.searchTeams(name, max);
+        Map<Long, TeamDto> byId = ids.isEmpty() ? Map.of() : shards.gatherAll(() -> teamRepository.fetchEmployees(ids)
+                        .stream().map(TeamDto::from).toList()).stream()
+                .collect(Collectors.toMap(TeamDto::id, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // One IN list per chunk of ids on each shard, members fetched with the teams
+    private Map<Long, TeamDto> fetch(List<Long> ids) {
+        return shards.readByShard(shardDirectory.teamsByShard(ids), onShard ->
+                        BulkUpdates.readInChunks(onShard, teamRepository::fetchEmployees).stream().map(TeamDto::from).toList())
+                .stream()
+                .collect(Collectors.toMap(TeamDto::id, Function.identity()));
+    }
+
+    private Team getTeam(Long id) {
+        return teamRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Team", "id", id));
+    }
+
+    // A single-member change that did nothing may have named an unknown employee
+    private MembershipResult requireEmployee(MembershipResult result, Long employeeId) {
+        if (!result.changed() && !employeeRepository.existsById(employeeId)) {
+            throw new ResourceNotFoundException("Employee", "id", employeeId);
+        }
+        return result;
+    }
+
+    // Second statement of every list read: initializes the members of the whole page at once
+    private CursorPage<TeamDto> toDtoPage(KeysetPageable page, Window<Team> window) {
+        if (!window.isEmpty()) {
+            teamRepository.fetchEmployees(window.stream().map(Team::getId).toList());
+        }
+        return page.toPage(window).map(TeamDto::from);
     }
 }
\ No newline at end of file
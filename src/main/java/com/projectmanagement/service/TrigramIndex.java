@@ -0,0 +1,308 @@
+package com.projectmanagement.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from character trigrams to documents, for ranked prefix and typo-tolerant
+ * search over short texts such as names. Text is lower-cased, stripped of accents and split into
+ * words; each word is padded as {@code "  word "}, so the leading trigrams encode word starts.
+ *
+ * <p>Documents get an internal number in insertion order and postings are sorted {@code int}
+ * arrays, so adding a document only appends. Updates and deletes tombstone the old number; the
+ * postings are compacted once a quarter of them are dead. Thread-safe: searches share a read
+ * lock, writes take the write lock.
+ */
+final class TrigramIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Indexed by document number; texts[n] is null once document n is deleted
+    private long[] ids = new long[1024];
+    private String[] texts = new String[1024];
+    private int documents;
+    private int deleted;
+
+    private final Map<Long, Integer> documentById = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    public record Hit(long id, double score) {
+    }
+
+    // Lower-case words separated by single spaces
+    static String normalize(String... fields) {
+        StringBuilder text = new StringBuilder();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            String folded = MARKS.matcher(Normalizer.normalize(field, Normalizer.Form.NFD)).replaceAll("");
+            for (String word : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+                if (!word.isEmpty()) {
+                    text.append(text.isEmpty() ? "" : " ").append(word);
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    public void put(long id, String text) {
+        long[] grams = trigrams(text, false);
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            append(id, text, grams);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends every document of {@code other}, which must not share ids with this index. Used to
+     * merge partitions built in parallel; their postings are shifted and concatenated as is.
+     */
+    public void addAll(TrigramIndex other) {
+        lock.writeLock().lock();
+        other.lock.readLock().lock();
+        try {
+            int offset = documents;
+            for (int document = 0; document < other.documents; document++) {
+                append(other.ids[document], other.texts[document], new long[0]);
+                if (other.texts[document] == null) {
+                    documentById.remove(other.ids[document]);
+                    deleted++;
+                }
+            }
+            other.postings.forEach((gram, list) -> {
+                Postings merged = postings.computeIfAbsent(gram, g -> new Postings());
+                for (int i = 0; i < list.size; i++) {
+                    merged.add(list.documents[i] + offset);
+                }
+            });
+        } finally {
+            other.lock.readLock().unlock();
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents sharing at least {@code minSimilarity} of the query's trigrams, best first. The
+     * last query word is treated as a prefix. A document in which every query word starts a word
+     * ranks above any partial match; ties go to the shorter text, then the lower id.
+     */
+    public List<Hit> search(String query, int limit, double minSimilarity) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String[] words = normalized.split(" ");
+        long[] grams = trigrams(normalized, true);
+        int required = (int) Math.ceil(grams.length * minSimilarity);
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(grams.length);
+            long total = 0;
+            for (long gram : grams) {
+                Postings list = postings.get(gram);
+                if (list != null) {
+                    lists.add(list);
+                    total += list.size;
+                }
+            }
+            if (lists.size() < required) {
+                return List.of();
+            }
+
+            PriorityQueue<Candidate> best = new PriorityQueue<>(Comparator.reverseOrder());
+            forEachMatch(lists, total, required, (document, matched) -> {
+                String text = texts[document];
+                if (text == null) {
+                    return;
+                }
+                double score = (double) matched / grams.length + (startsWords(text, words) ? 1 : 0);
+                best.add(new Candidate(ids[document], score, text.length()));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            });
+
+            List<Hit> hits = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                Candidate candidate = best.poll();
+                hits.add(new Hit(candidate.id(), candidate.score()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Counts per document how many of the query's posting lists contain it
+    private void forEachMatch(List<Postings> lists, long total, int required, MatchConsumer consumer) {
+        // A dense counter beats hashing once the lists cover a large part of the index
+        if (total > documents / 8) {
+            int[] counts = new int[documents];
+            for (Postings list : lists) {
+                for (int i = 0; i < list.size; i++) {
+                    counts[list.documents[i]]++;
+                }
+            }
+            for (int document = 0; document < documents; document++) {
+                if (counts[document] >= required) {
+                    consumer.accept(document, counts[document]);
+                }
+            }
+            return;
+        }
+        Map<Integer, int[]> counts = new HashMap<>();
+        for (Postings list : lists) {
+            for (int i = 0; i < list.size; i++) {
+                counts.computeIfAbsent(list.documents[i], d -> new int[1])[0]++;
+            }
+        }
+        counts.forEach((document, count) -> {
+            if (count[0] >= required) {
+                consumer.accept(document, count[0]);
+            }
+        });
+    }
+
+    private static boolean startsWords(String text, String[] words) {
+        String padded = " " + text;
+        for (String word : words) {
+            if (!padded.contains(" " + word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Distinct trigrams of normalized text; a query's last word gets no trailing pad
+    static long[] trigrams(String text, boolean prefixQuery) {
+        Set<Long> grams = new LinkedHashSet<>();
+        if (text.isEmpty()) {
+            return new long[0];
+        }
+        String[] words = text.split(" ");
+        for (int w = 0; w < words.length; w++) {
+            boolean open = prefixQuery && w == words.length - 1;
+            String padded = "  " + words[w] + (open ? "" : " ");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+            }
+        }
+        return grams.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void append(long id, String text, long[] grams) {
+        if (documents == ids.length) {
+            ids = Arrays.copyOf(ids, documents * 2);
+            texts = Arrays.copyOf(texts, documents * 2);
+        }
+        int document = documents++;
+        ids[document] = id;
+        texts[document] = text;
+        documentById.put(id, document);
+        for (long gram : grams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(document);
+        }
+    }
+
+    private void removeDocument(long id) {
+        Integer document = documentById.remove(id);
+        if (document != null) {
+            texts[document] = null;
+            deleted++;
+        }
+    }
+
+    // Renumbers the live documents and drops the tombstoned ones from every posting list
+    private void compactIfSparse() {
+        if (deleted < 1024 || deleted * 4 < documents) {
+            return;
+        }
+        long[] oldIds = ids;
+        String[] oldTexts = texts;
+        int oldDocuments = documents;
+        ids = new long[Math.max(1024, oldDocuments - deleted)];
+        texts = new String[ids.length];
+        documents = 0;
+        deleted = 0;
+        documentById.clear();
+        postings.clear();
+        for (int document = 0; document < oldDocuments; document++) {
+            if (oldTexts[document] != null) {
+                append(oldIds[document], oldTexts[document], trigrams(oldTexts[document], false));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface MatchConsumer {
+        void accept(int document, int matched);
+    }
+
+    private record Candidate(long id, double score, int length) implements Comparable<Candidate> {
+
+        // Natural order is best first
+        @Override
+        public int compareTo(Candidate other) {
+            int byScore = Double.compare(other.score, score);
+            if (byScore != 0) {
+                return byScore;
+            }
+            int byLength = Integer.compare(length, other.length);
+            return byLength != 0 ? byLength : Long.compare(id, other.id);
+        }
+    }
+
+    private static final class Postings {
+        private int[] documents = new int[4];
+        private int size;
+
+        void add(int document) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.PinnedSiteDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records where virtual threads block while pinned to their carrier, typically I/O inside a
+ * {@code synchronized} block of a driver or library, which ties up one of the few carrier
+ * threads for the whole wait. Listens to the JFR {@code jdk.VirtualThreadPinned} event in
+ * process; each pinning site is logged once when first seen and counted in {@link #sites()}.
+ *
+ * <p>Only active in virtual-thread mode. Pins shorter than {@code app.threads.pinning-threshold}
+ * are not reported.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REPORTED_FRAMES = 12;
+
+    @Value("${app.threads.pinning-threshold:20ms}")
+    private Duration threshold;
+
+    private final ConcurrentMap<String, Site> sites = new ConcurrentHashMap<>();
+    private RecordingStream recording;
+
+    @PostConstruct
+    void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::record);
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        recording.close();
+    }
+
+    // Sites by total time pinned, worst first
+    public List<PinnedSiteDto> sites() {
+        return sites.values().stream()
+                .map(Site::toDto)
+                .sorted(Comparator.comparingDouble(PinnedSiteDto::totalMillis).reversed())
+                .toList();
+    }
+
+    private void record(RecordedEvent event) {
+        List<String> stackTrace = frames(event.getStackTrace());
+        String frame = stackTrace.stream()
+                .filter(f -> !f.startsWith("java.") && !f.startsWith("jdk.") && !f.startsWith("sun."))
+                .findFirst()
+                .orElse(stackTrace.isEmpty() ? "unknown" : stackTrace.get(0));
+
+        Site site = sites.computeIfAbsent(frame, f -> {
+            log.warn("Virtual thread pinned for {} ms at {}:\n\t{}", event.getDuration().toMillis(), f,
+                    String.join("\n\t", stackTrace));
+            return new Site(f, stackTrace);
+        });
+        site.add(event.getDuration());
+    }
+
+    private static List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(REPORTED_FRAMES)
+                .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName()
+                        + ":" + f.getLineNumber())
+                .toList();
+    }
+
+    private static final class Site {
+        private final String frame;
+        private final List<String> stackTrace;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        Site(String frame, List<String> stackTrace) {
+            this.frame = frame;
+            this.stackTrace = stackTrace;
+        }
+
+        synchronized void add(Duration duration) {
+            count++;
+            totalNanos += duration.toNanos();
+            maxNanos = Math.max(maxNanos, duration.toNanos());
+        }
+
+        synchronized PinnedSiteDto toDto() {
+            return new PinnedSiteDto(frame, stackTrace, count, totalNanos / 1e6, maxNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.projectmanagement;
+
+import com.projectmanagement.service.QueryBudget;
+import com.projectmanagement.service.QueryCounter;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Fails a test annotated with {@link QueryBudget} when its body issues more statements than the
+ * budget or repeats one statement shape too often. Only the test method itself is counted, not
+ * its {@code @BeforeEach} setup, and only statements on the test thread.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        if (budget != null) {
+            context.getStore(NAMESPACE).put(QueryCounter.Scope.class, QueryCounter.start(budget.value(), budget.maxRepeats()));
+        }
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryCounter.Scope scope = context.getStore(NAMESPACE).remove(QueryCounter.Scope.class, QueryCounter.Scope.class);
+        if (scope == null) {
+            return;
+        }
+        scope.close();
+        if (scope.overBudget() != null) {
+            StringBuilder message = new StringBuilder("Over query budget: ").append(scope.overBudget());
+            scope.shapes().forEach((shape, runs) -> message.append("\n  ").append(runs).append("x ").append(shape));
+            throw new AssertionFailedError(message.toString(), scope.overBudgetAt());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.projectmanagement;
+
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Team;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Unsaved entities with their required properties set, shared by the tests. The project or team
+ * an entity belongs to is an id-only reference, as API clients send it.
+ */
+public final class TestData {
+
+    public static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+
+    private TestData() {
+    }
+
+    public static Project project(String name) {
+        Project project = new Project();
+        project.setName(name);
+        project.setStartDate(START_DATE);
+        return project;
+    }
+
+    // Owned by the team, unless teamId is null
+    public static Project project(String name, Long teamId) {
+        Project project = project(name);
+        if (teamId != null) {
+            project.setTeam(teamReference(teamId));
+        }
+        return project;
+    }
+
+    public static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+
+    // In the project, unless projectId is null
+    public static Task task(String title, Long projectId) {
+        Task task = task(title);
+        if (projectId != null) {
+            task.setProject(projectReference(projectId));
+        }
+        return task;
+    }
+
+    // With a unique email, so that tests can create the same name twice
+    public static Employee employee(String firstName, String lastName) {
+        Employee employee = new Employee();
+        employee.setFirstName(firstName);
+        employee.setLastName(lastName);
+        employee.setEmail((firstName + "." + lastName).replace(' ', '.').toLowerCase()
+                + "." + UUID.randomUUID() + "@company.com");
+        return employee;
+    }
+
+    public static Team team(String name) {
+        Team team = new Team();
+        team.setName(name);
+        return team;
+    }
+
+    public static Project projectReference(Long id) {
+        Project project = new Project();
+        project.setId(id);
+        return project;
+    }
+
+    public static Team teamReference(Long id) {
+        Team team = new Team();
+        team.setId(id);
+        return team;
+    }
+}
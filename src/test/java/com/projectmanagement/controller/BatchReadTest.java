@@ -0,0 +1,187 @@
+package com.projectmanagement.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.repository.EmployeeRepository;
+import com.projectmanagement.repository.ProjectRepository;
+import com.projectmanagement.repository.TaskRepository;
+import com.projectmanagement.repository.TeamRepository;
+import com.projectmanagement.service.BatchLoader;
+import com.projectmanagement.service.TaskService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.projectmanagement.TestData.employee;
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.task;
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BatchReadTest {
+
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final List<Long> taskIds = new ArrayList<>();
+    private final List<Long> teamIds = new ArrayList<>();
+    private Long projectId;
+
+    @BeforeAll
+    void seed() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            employees.add(employeeRepository.save(employee("Batch" + i, "Reader")));
+        }
+        for (int i = 0; i < 2; i++) {
+            Team team = team("Batch team " + i);
+            team.setEmployees(Set.of(employees.get(i), employees.get(i + 1)));
+            teamIds.add(teamRepository.save(team).getId());
+        }
+
+        Project project = projectRepository.save(project("Batch project"));
+        projectId = project.getId();
+        for (int i = 0; i < 20; i++) {
+            Task task = task("Batch task " + i);
+            task.setProject(project);
+            task.setEmployees(Set.of(employees.get(i % 3)));
+            taskIds.add(taskRepository.save(task).getId());
+        }
+    }
+
+    @Test
+    void idsAreReadInOneStatementInTheirOrder() throws Exception {
+        Long first = taskIds.get(0);
+        Long last = taskIds.get(taskIds.size() - 1);
+        String ids = last + "," + UNKNOWN + "," + first + "," + last;
+
+        Statistics statistics = statistics();
+        mockMvc.perform(get("/api/tasks").param("ids", ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(last))
+                .andExpect(jsonPath("$[1].id").value(first))
+                .andExpect(jsonPath("$[1].employees.length()").value(1));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(get("/api/projects").param("ids", projectId + "," + UNKNOWN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Batch project"));
+        mockMvc.perform(get("/api/employees").param("ids", String.valueOf(UNKNOWN)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void longListsArePostedAndChunked() throws Exception {
+        List<Long> ids = new ArrayList<>(taskIds);
+        LongStream.range(1, 1500).map(i -> UNKNOWN - i).forEach(ids::add);
+
+        Statistics statistics = statistics();
+        mockMvc.perform(post("/api/tasks/by-ids").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(taskIds.size()));
+        // One IN list per 1000 ids
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cachedTeamsAreNotReadAgain() throws Exception {
+        mockMvc.perform(get("/api/teams/" + teamIds.get(0))).andExpect(status().isOk());
+
+        Statistics statistics = statistics();
+        mockMvc.perform(get("/api/teams").param("ids", String.valueOf(teamIds.get(0))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].employees.length()").value(2));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(post("/api/teams/by-ids").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(teamIds)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void emptyAndOversizedRequestsAreRejected() throws Exception {
+        mockMvc.perform(post("/api/employees/by-ids").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        String tooMany = LongStream.rangeClosed(1, 10_001).mapToObj(Long::toString)
+                .collect(Collectors.joining(",", "[", "]"));
+        mockMvc.perform(post("/api/projects/by-ids").contentType(MediaType.APPLICATION_JSON).content(tooMany))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void loadedReadModelsAreRememberedWithinAScope() {
+        Statistics statistics = statistics();
+        try (BatchLoader.Scope ignored = BatchLoader.open()) {
+            taskService.findAllById(taskIds);
+            for (Long id : taskIds) {
+                TaskDto task = taskService.findById(id);
+                assertEquals(id, task.id());
+            }
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        // Without a scope every call reads again
+        taskService.findById(taskIds.get(0));
+        taskService.findById(taskIds.get(0));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,179 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.dto.TeamDto;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.service.ChangeFeed;
+import com.projectmanagement.service.ProjectService;
+import com.projectmanagement.service.TaskService;
+import com.projectmanagement.service.TeamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.task;
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * The change stream pushes committed writes only, filtered per subscription, and resumes after
+ * the Last-Event-ID of a reconnecting client. Two sender threads, so one stalled client would
+ * starve the rest if it could.
+ */
+@SpringBootTest(properties = {
+        "app.changes.sender-threads=2",
+        "app.changes.heartbeat=PT0.1S",
+        "app.changes.send-timeout=PT0.5S"})
+@AutoConfigureMockMvc
+class ChangeStreamTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)\\nevent:change\\ndata:\\{\"type\":\"TASK\",\"id\":(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void streamsCommittedChangesOfTheSubscribedProject() throws Exception {
+        ProjectDto board = projectService.create(project("Board"));
+        ProjectDto other = projectService.create(project("Other"));
+        MockHttpServletResponse stream = subscribe("projectId", board.id());
+
+        TaskDto task = taskService.create(task("Card", board.id()));
+        taskService.create(task("Elsewhere", other.id()));
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.create(task("Rolled back", board.id()));
+            status.setRollbackOnly();
+        });
+        taskService.updateStatus(task.id(), TaskStatus.IN_PROGRESS);
+
+        String updated = "{\"type\":\"TASK\",\"id\":" + task.id() + ",\"version\":1,\"change\":\"UPDATED\",\"fields\":[\"status\"],\"projectId\":" + board.id();
+        String content = await(stream, updated);
+        assertTrue(content.contains("{\"type\":\"TASK\",\"id\":" + task.id() + ",\"version\":0,\"change\":\"CREATED\""));
+        // Only events of the board: its task's creation and the status change
+        assertTrue(content.indexOf("CREATED") < content.indexOf(updated));
+        assertFalse(content.contains("\"projectId\":" + other.id()));
+        assertFalse(content.substring(content.indexOf("CREATED") + 1).contains("CREATED"));
+    }
+
+    @Test
+    void teamSubscriptionsSeeTheTasksOfTheTeamsProjects() throws Exception {
+        TeamDto wallboard = teamService.create(team("Wallboard team"));
+        ProjectDto project = projectService.create(project("Team project"));
+        projectService.assignToTeam(project.id(), wallboard.id());
+        MockHttpServletResponse stream = subscribe("teamId", wallboard.id());
+
+        TaskDto task = taskService.create(task("Team card", project.id()));
+        Task details = task("Renamed card", project.id());
+        details.setStatus(TaskStatus.TODO);
+        taskService.update(task.id(), details, null);
+
+        await(stream, "\"id\":" + task.id() + ",\"version\":1,\"change\":\"UPDATED\",\"fields\":[\"title\"],\"projectId\":"
+                + project.id() + ",\"teamId\":" + wallboard.id());
+    }
+
+    @Test
+    void resumesAfterTheLastEventId() throws Exception {
+        ProjectDto board = projectService.create(project("Resumed"));
+        MockHttpServletResponse first = subscribe("projectId", board.id());
+        TaskDto seen = taskService.create(task("Seen", board.id()));
+        Matcher event = EVENT_ID.matcher(await(first, "\"id\":" + seen.id() + ","));
+        assertTrue(event.find());
+        String lastEventId = event.group(1);
+
+        TaskDto missed = taskService.create(task("Missed", board.id()));
+        MockHttpServletResponse resumed = mockMvc.perform(get("/api/changes/stream")
+                        .param("projectId", board.id().toString())
+                        .header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        String content = await(resumed, "\"id\":" + missed.id() + ",");
+        assertFalse(content.contains("\"id\":" + seen.id() + ","));
+
+        MockHttpServletResponse unknown = mockMvc.perform(get("/api/changes/stream").header("Last-Event-ID", "older-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        await(unknown, "event:reset");
+    }
+
+    @Test
+    void aStalledSubscriberIsDisconnectedWithoutHoldingUpTheOthers() throws Exception {
+        ProjectDto board = projectService.create(project("Stalled"));
+        SseEmitter stalled = changeFeed.subscribe(board.id(), null, null);
+        MockHttpServletResponse live = subscribe("projectId", board.id());
+        int subscribers = changeFeed.subscriberCount();
+
+        // Sends wait for the emitter's monitor like a write to a client that stopped reading
+        synchronized (stalled) {
+            for (int i = 0; i < 3; i++) {
+                TaskDto task = taskService.create(task("Card " + i, board.id()));
+                await(live, "\"id\":" + task.id() + ",");
+            }
+            awaitTrue(() -> changeFeed.subscriberCount() == subscribers - 1, "the stalled subscriber to be dropped");
+            TaskDto later = taskService.create(task("Later", board.id()));
+            await(live, "\"id\":" + later.id() + ",");
+        }
+    }
+
+    private MockHttpServletResponse subscribe(String filter, Long id) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/changes/stream").param(filter, id.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    // Events are written from other threads; waits until the expected one arrived
+    private static String await(MockHttpServletResponse stream, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getContentAsString();
+        while (!content.contains(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("No event containing " + expected + " in:\n" + content);
+            }
+            Thread.sleep(20);
+            content = stream.getContentAsString();
+        }
+        return content;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String waitingFor) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Timed out waiting for " + waitingFor);
+            }
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.dto.EmployeeDto;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.dto.TeamDto;
+import com.projectmanagement.service.EmployeeService;
+import com.projectmanagement.service.ProjectService;
+import com.projectmanagement.service.TaskService;
+import com.projectmanagement.service.TeamService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.projectmanagement.TestData.employee;
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.task;
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETags follow the versions of everything a representation embeds; a matching If-None-Match is
+ * answered 304 without loading the entity, and a stale If-Match is rejected with 412.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class ConditionalRequestTest {
+
+    private static final String PROJECT_JSON = "{\"name\":\"%s\",\"startDate\":\"2024-01-01\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void unchangedProjectIsNotModifiedUntilUpdated() throws Exception {
+        ProjectDto project = projectService.create(project("Polled"));
+        String uri = "/api/projects/" + project.id();
+        String etag = etag(uri);
+
+        Statistics statistics = statistics();
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        String updated = mockMvc.perform(put(uri).contentType(MediaType.APPLICATION_JSON)
+                        .content(PROJECT_JSON.formatted("Renamed")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, updated);
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, updated))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void staleIfMatchIsRejected() throws Exception {
+        ProjectDto project = projectService.create(project("Locked"));
+        String uri = "/api/projects/" + project.id();
+        String etag = etag(uri);
+
+        mockMvc.perform(put(uri).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON)
+                        .content(PROJECT_JSON.formatted("First writer")))
+                .andExpect(status().isOk());
+        mockMvc.perform(put(uri).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON)
+                        .content(PROJECT_JSON.formatted("Second writer")))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("First writer", projectService.findById(project.id()).name());
+    }
+
+    @Test
+    void taskListTagCoversAssigneesAndBulkUpdates() throws Exception {
+        ProjectDto project = projectService.create(project("Listed"));
+        TaskDto created = taskService.create(task("Tracked", project.id()));
+        EmployeeDto employee = employeeService.create(employee("Assignee", "Tagged"));
+        String uri = "/api/tasks/project/" + project.id();
+
+        String initial = etag(uri);
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, initial))
+                .andExpect(status().isNotModified());
+
+        taskService.assignEmployeeToTask(created.id(), employee.id());
+        String assigned = etag(uri);
+        assertNotEquals(initial, assigned);
+
+        employeeService.update(employee.id(), employee("Renamed", "Tagged"), null);
+        String renamed = etag(uri);
+        assertNotEquals(assigned, renamed);
+
+        mockMvc.perform(patch("/api/tasks/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + created.id() + "],\"status\":\"DONE\"}"))
+                .andExpect(status().isOk());
+        String bulkUpdated = etag(uri);
+        assertNotEquals(renamed, bulkUpdated);
+
+        TaskDto second = taskService.create(task("Added", project.id()));
+        String withSecond = etag(uri);
+        assertNotEquals(bulkUpdated, withSecond);
+        taskService.delete(second.id());
+        assertNotEquals(withSecond, etag(uri));
+
+        // Polls read one row of aggregates, not a row per task
+        String current = etag(uri);
+        Statistics statistics = statistics();
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, current))
+                .andExpect(status().isNotModified());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void partialBodiesHaveTheirOwnTags() throws Exception {
+        ProjectDto project = projectService.create(project("Trimmed"));
+        String uri = "/api/projects/" + project.id();
+        String full = etag(uri);
+        String partial = mockMvc.perform(get(uri).param("fields", "name"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(full, partial);
+
+        mockMvc.perform(get(uri).param("fields", "name").header(HttpHeaders.IF_NONE_MATCH, partial))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(uri).param("fields", "name").header(HttpHeaders.IF_NONE_MATCH, full))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, partial))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void cachedTeamIsNotModifiedWithoutSql() throws Exception {
+        TeamDto created = teamService.create(team("Tagged"));
+        EmployeeDto member = employeeService.create(employee("Member", "Tagged"));
+        teamService.addEmployeeToTeam(created.id(), member.id());
+        String uri = "/api/teams/" + created.id();
+        String etag = etag(uri);
+
+        Statistics statistics = statistics();
+        mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        employeeService.update(member.id(), employee("Promoted", "Tagged"), null);
+        assertNotEquals(etag, etag(uri));
+    }
+
+    private String etag(String uri) throws Exception {
+        return mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,175 @@
+package com.projectmanagement.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.repository.EmployeeRepository;
+import com.projectmanagement.repository.ProjectRepository;
+import com.projectmanagement.repository.TaskRepository;
+import com.projectmanagement.repository.TeamRepository;
+import com.projectmanagement.service.QueryCounter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.projectmanagement.TestData.employee;
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.task;
+import static com.projectmanagement.TestData.team;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code ?fields=} trims task and project lists down to the selected columns in the query
+ * itself; every other GET trims the serialized body, and {@code ?expand=} controls the embedded
+ * employees.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FieldSelectionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Employee employee;
+    private Team team;
+    private Project project;
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        employee = employeeRepository.save(employee("Fiona", "Fields"));
+
+        team = team("Mobile");
+        team.getEmployees().add(employee);
+        teamRepository.save(team);
+
+        project = project("Sparse");
+        project.setDescription("Long form description ".repeat(50));
+        project.setTeam(team);
+        projectRepository.save(project);
+
+        for (int i = 0; i < 20; i++) {
+            Task task = task("Card " + (char) ('t' - i % 5) + i);
+            task.setDescription("Acceptance criteria and notes ".repeat(40));
+            task.setStatus(TaskStatus.TODO);
+            task.setDueDate(LocalDate.of(2024, 6, 1).plusDays(i));
+            task.setProject(project);
+            task.getEmployees().add(employee);
+            taskIds.add(taskRepository.save(task).getId());
+        }
+    }
+
+    @Test
+    void selectedTaskColumnsAreAllThatIsQueriedAndSent() throws Exception {
+        String uri = "/api/tasks/project/" + project.getId();
+        String full = mockMvc.perform(get(uri).param("size", "20"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String partial;
+        try (QueryCounter.Scope scope = QueryCounter.start()) {
+            partial = mockMvc.perform(get(uri).param("size", "20").param("fields", "title,status,dueDate"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(20)))
+                    .andReturn().getResponse().getContentAsString();
+            // The ETag lookup and one narrow select, no assignee fetch
+            assertEquals(2, scope.statements());
+            String select = List.copyOf(scope.shapes().keySet()).get(1);
+            assertFalse(select.contains("description"), select);
+            assertFalse(select.contains("task_employees"), select);
+        }
+
+        Map<String, Object> first = JsonPath.read(partial, "$.content[0]");
+        assertEquals(Set.of("id", "title", "status", "dueDate"), first.keySet());
+        assertTrue(partial.length() * 10 < full.length(), partial.length() + " vs " + full.length());
+    }
+
+    @Test
+    void narrowListsPageWithTheSameCursors() throws Exception {
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/tasks/status/TODO").param("size", "7").param("sort", "title")
+                    .param("fields", "status");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String page = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            seen.addAll(JsonPath.read(page, "$.content[*].id"));
+            cursor = JsonPath.read(page, "$.nextCursor");
+        } while (cursor != null);
+
+        List<Integer> expected = mockMvc.perform(get("/api/tasks/status/TODO").param("size", "500").param("sort", "title"))
+                .andReturn().getResponse().getContentAsString()
+                .transform(body -> JsonPath.read(body, "$.content[*].id"));
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void otherEndpointsTrimTheBodyAndExpandEmployees() throws Exception {
+        mockMvc.perform(get("/api/projects/" + project.getId()).param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Sparse"))
+                .andExpect(jsonPath("$.description").doesNotExist());
+
+        mockMvc.perform(get("/api/teams/" + team.getId()).param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Mobile"))
+                .andExpect(jsonPath("$.employees").doesNotExist());
+        // Embedded read models are written whole
+        mockMvc.perform(get("/api/teams/" + team.getId()).param("fields", "name").param("expand", "employees"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.employees[0].email").value(employee.getEmail()));
+        mockMvc.perform(get("/api/tasks/" + taskIds.get(0)).param("expand", ""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").exists())
+                .andExpect(jsonPath("$.employees").doesNotExist());
+
+        mockMvc.perform(get("/api/projects/team/" + team.getId()).param("fields", "name,teamId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].teamId").value(team.getId().intValue()))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    void unknownFieldsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/tasks").param("fields", "title,secret"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/employees/" + employeeRepository.findAll().get(0).getId()).param("fields", "salaryBand"))
+                .andExpect(status().isBadRequest());
+    }
+}
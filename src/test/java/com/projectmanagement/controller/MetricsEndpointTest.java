@@ -0,0 +1,59 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.service.HibernateQueryMeters;
+import com.projectmanagement.service.ProjectService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.projectmanagement.TestData.project;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The Prometheus scrape carries request timers per route template and status, Hibernate
+ * statistics including per-query timings, the connection pool and the read cache.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private HibernateQueryMeters hibernateQueryMeters;
+
+    @Test
+    void exposesRequestHibernateAndPoolMetrics() throws Exception {
+        ProjectDto created = projectService.create(project("Metrics"));
+
+        mockMvc.perform(get("/api/tasks/project/{id}", created.id())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/projects/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+        hibernateQueryMeters.registerNewQueries();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{error=\"none\",exception=\"none\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/tasks/project/{projectId}\"")))
+                .andExpect(content().string(containsString("uri=\"/api/projects/{id}\"")))
+                .andExpect(content().string(containsString("quantile=\"0.99\"")))
+                .andExpect(content().string(containsString("hibernate_query_executions_total")))
+                .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+                .andExpect(content().string(containsString("hibernate_collections_fetches_total")))
+                .andExpect(content().string(containsString("hibernate_query_execution_max_seconds{entityManagerFactory=\"entityManagerFactory\",query=\"SELECT p.version FROM Project p WHERE p.id = :id\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"employees\"")));
+    }
+}
@@ -0,0 +1,103 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.QueryBudgetExtension;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.repository.ProjectRepository;
+import com.projectmanagement.repository.TaskRepository;
+import com.projectmanagement.service.QueryBudget;
+import com.projectmanagement.service.QueryCounter;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement counting per test and per request: shapes collapse literals and IN lists, and the
+ * dev-mode guard reports requests over their budget.
+ */
+@SpringBootTest(properties = {"app.query-budget.enabled=true", "app.query-budget.max-statements=2"})
+@AutoConfigureMockMvc
+@ExtendWith({QueryBudgetExtension.class, OutputCaptureExtension.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Long projectId;
+    private final List<Long> taskIds = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        Project project = projectRepository.save(project("Budget"));
+        projectId = project.getId();
+        for (int i = 0; i < 3; i++) {
+            Task task = task("Budget " + i);
+            task.setProject(project);
+            taskIds.add(taskRepository.save(task).getId());
+        }
+    }
+
+    @Test
+    @QueryBudget(1)
+    void singleTaskReadUsesOneStatement() throws Exception {
+        mockMvc.perform(get("/api/tasks/{id}", taskIds.get(0))).andExpect(status().isOk());
+    }
+
+    @Test
+    void repeatedShapesAreCounted() {
+        try (QueryCounter.Scope scope = QueryCounter.start(10, 2)) {
+            // One lookup per id, the N+1 pattern
+            taskIds.forEach(taskRepository::findById);
+            assertEquals(3, scope.statements());
+            assertEquals(3, scope.maxRepeats());
+            assertTrue(scope.overBudget().startsWith("same statement run 3 times, limit 2"));
+            assertNotNull(scope.overBudgetAt());
+        }
+
+        try (QueryCounter.Scope scope = QueryCounter.start()) {
+            taskRepository.findAllById(taskIds.subList(0, 2));
+            taskRepository.findAllById(taskIds);
+            assertEquals(1, scope.shapes().size(), "IN lists of any length are one shape");
+            assertNull(scope.overBudget());
+        }
+    }
+
+    @Test
+    void devGuardWarnsAboutRequestsOverBudget(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/api/tasks/{id}", taskIds.get(0))).andExpect(status().isOk());
+        assertFalse(output.getOut().contains("over its query budget"));
+
+        // Page, assignees and the versions query behind the ETag
+        mockMvc.perform(get("/api/tasks/project/{id}", projectId)).andExpect(status().isOk());
+        assertTrue(output.getOut().contains("GET /api/tasks/project/" + projectId
+                + " over its query budget: 3 statements, budget 2"));
+        assertTrue(output.getOut().contains("java.lang.Throwable: Over query budget at: "));
+    }
+}
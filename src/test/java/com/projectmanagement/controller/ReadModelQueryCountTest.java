@@ -0,0 +1,134 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.repository.EmployeeRepository;
+import com.projectmanagement.repository.ProjectRepository;
+import com.projectmanagement.repository.TaskRepository;
+import com.projectmanagement.repository.TeamRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.projectmanagement.TestData.employee;
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.task;
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements each read endpoint issues. The counts must not grow with
+ * the number of rows on the page: assignees and members are loaded for the whole page at once.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadModelQueryCountTest {
+
+    private static final int TASKS_PER_PROJECT = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Long projectId;
+    private Long taskId;
+    private Long teamId;
+
+    @BeforeAll
+    void seed() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            employees.add(employeeRepository.save(employee("First" + i, "Last" + i)));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            Team team = team("Team " + i);
+            team.setEmployees(Set.of(employees.get(i), employees.get(i + 1)));
+            teamId = teamRepository.save(team).getId();
+        }
+
+        for (int p = 0; p < 2; p++) {
+            Project project = projectRepository.save(project("Project " + p));
+            projectId = project.getId();
+
+            for (int i = 0; i < TASKS_PER_PROJECT; i++) {
+                Task task = task("Task " + p + "-" + i);
+                task.setStatus(i % 2 == 0 ? TaskStatus.TODO : TaskStatus.IN_PROGRESS);
+                task.setPriority(i % 3 == 0 ? TaskPriority.HIGH : TaskPriority.LOW);
+                task.setProject(project);
+                task.setEmployees(Set.of(employees.get(i % 5), employees.get((i + 1) % 5)));
+                taskId = taskRepository.save(task).getId();
+            }
+        }
+    }
+
+    @Test
+    void taskListsUseTwoStatements() throws Exception {
+        assertStatements(2, "/api/tasks?size=50");
+        assertStatements(2, "/api/tasks/status/TODO");
+        assertStatements(2, "/api/tasks/priority/HIGH");
+        // Plus the versions-only query behind the list's ETag
+        assertStatements(3, "/api/tasks/project/" + projectId);
+    }
+
+    @Test
+    void singleTaskUsesOneStatement() throws Exception {
+        assertStatements(1, "/api/tasks/" + taskId);
+    }
+
+    @Test
+    void teamReadsDoNotLoadMembersPerRow() throws Exception {
+        assertStatements(2, "/api/teams");
+        assertStatements(1, "/api/teams/" + teamId);
+    }
+
+    @Test
+    void projectAndEmployeeListsUseOneStatement() throws Exception {
+        assertStatements(1, "/api/projects");
+        assertStatements(1, "/api/employees");
+    }
+
+    private void assertStatements(long expected, String uri) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").exists());
+
+        assertEquals(expected, statistics.getPrepareStatementCount(), "SQL statements for GET " + uri);
+    }
+}
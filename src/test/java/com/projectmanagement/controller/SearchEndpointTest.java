@@ -0,0 +1,176 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.TestData;
+import com.jayway.jsonpath.JsonPath;
+import com.projectmanagement.QueryBudgetExtension;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.repository.EmployeeRepository;
+import com.projectmanagement.repository.ProjectRepository;
+import com.projectmanagement.repository.TaskRepository;
+import com.projectmanagement.repository.TeamRepository;
+import com.projectmanagement.service.QueryBudget;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Search criteria combine into one query per page (plus the assignee fetch for tasks) and page
+ * with the same cursors as the other lists.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(QueryBudgetExtension.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Employee alice;
+    private Team platform;
+    private final List<Project> projects = new ArrayList<>();
+    private final List<Task> tasks = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        alice = employee("alice");
+        Employee bob = employee("bob");
+        platform = team("Platform", alice, bob);
+        Team mobile = team("Mobile", bob);
+
+        projects.add(project("Gateway", platform, ProjectStatus.IN_PROGRESS, 50_000.0, LocalDate.of(2024, 6, 30)));
+        projects.add(project("Billing", platform, ProjectStatus.PLANNED, 8_000.0, LocalDate.of(2024, 3, 31)));
+        projects.add(project("App", mobile, ProjectStatus.IN_PROGRESS, 70_000.0, LocalDate.of(2024, 9, 30)));
+
+        // Gateway: TODO/HIGH due in May assigned to alice, IN_PROGRESS/LOW, DONE/HIGH assigned to alice
+        tasks.add(task(projects.get(0), TaskStatus.TODO, TaskPriority.HIGH, LocalDate.of(2024, 5, 1), alice));
+        tasks.add(task(projects.get(0), TaskStatus.IN_PROGRESS, TaskPriority.LOW, LocalDate.of(2024, 5, 15)));
+        tasks.add(task(projects.get(0), TaskStatus.DONE, TaskPriority.HIGH, LocalDate.of(2024, 4, 1), alice));
+        // Billing and App
+        tasks.add(task(projects.get(1), TaskStatus.IN_PROGRESS, TaskPriority.HIGH, LocalDate.of(2024, 5, 20), alice));
+        tasks.add(task(projects.get(2), TaskStatus.TODO, TaskPriority.HIGH, LocalDate.of(2024, 5, 2), bob));
+    }
+
+    @Test
+    @QueryBudget(2)
+    void tasksMatchEveryCriterionInOneQuery() throws Exception {
+        mockMvc.perform(get("/api/tasks/search")
+                        .param("status", "TODO", "IN_PROGRESS")
+                        .param("priority", "HIGH")
+                        .param("teamId", platform.getId().toString())
+                        .param("employeeId", alice.getId().toString())
+                        .param("dueFrom", "2024-05-01")
+                        .param("dueTo", "2024-05-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id").value(contains(id(tasks.get(0).getId()), id(tasks.get(3).getId()))))
+                .andExpect(jsonPath("$.content[0].employees[0].id").value(id(alice.getId())));
+    }
+
+    @Test
+    void taskSearchPagesWithCursors() throws Exception {
+        String first = mockMvc.perform(get("/api/tasks/search").param("priority", "HIGH").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id").value(contains(id(tasks.get(0).getId()), id(tasks.get(2).getId()))))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/tasks/search").param("priority", "HIGH").param("size", "2")
+                        .param("cursor", JsonPath.<String>read(first, "$.nextCursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id").value(contains(id(tasks.get(3).getId()), id(tasks.get(4).getId()))))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    @QueryBudget(1)
+    void projectsMatchMemberBudgetAndEndDate() throws Exception {
+        mockMvc.perform(get("/api/projects/search")
+                        .param("memberId", alice.getId().toString())
+                        .param("status", "IN_PROGRESS", "PLANNED")
+                        .param("minBudget", "10000")
+                        .param("endTo", "2024-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].id").value(contains(id(projects.get(0).getId()))));
+    }
+
+    @Test
+    void emptyAndInvalidCriteria() throws Exception {
+        mockMvc.perform(get("/api/projects/search").param("teamId", "-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value(empty()));
+        mockMvc.perform(get("/api/tasks/search").param("dueFrom", "2024-06-01").param("dueTo", "2024-05-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/projects/search").param("minBudget", "10").param("maxBudget", "5"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tasks/search").param("status", "SOMEDAY"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // JSON numbers are read back as integers
+    private static int id(Long id) {
+        return id.intValue();
+    }
+
+    private Employee employee(String name) {
+        return employeeRepository.save(TestData.employee(name, "Search"));
+    }
+
+    private Team team(String name, Employee... members) {
+        Team team = TestData.team(name);
+        team.setEmployees(Set.of(members));
+        return teamRepository.save(team);
+    }
+
+    private Project project(String name, Team team, ProjectStatus status, Double budget, LocalDate endDate) {
+        Project project = TestData.project(name);
+        project.setTeam(team);
+        project.setStatus(status);
+        project.setBudget(budget);
+        project.setEndDate(endDate);
+        return projectRepository.save(project);
+    }
+
+    private Task task(Project project, TaskStatus status, TaskPriority priority, LocalDate dueDate, Employee... assignees) {
+        Task task = TestData.task(project.getName() + " " + status);
+        task.setProject(project);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setDueDate(dueDate);
+        task.setEmployees(Set.of(assignees));
+        return taskRepository.save(task);
+    }
+}
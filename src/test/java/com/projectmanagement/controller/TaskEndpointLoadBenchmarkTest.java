@@ -0,0 +1,211 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.ProjectmanagementApplication;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.service.ProjectService;
+import com.projectmanagement.service.TaskService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Throughput and latency of the {@code TaskController} read endpoints with request handling on
+ * Tomcat's platform thread pool against virtual threads. Every SQL statement is delayed by
+ * {@code load.benchmark.latency-ms} to stand in for MySQL round trips, so the requests are
+ * I/O-bound as in production. Both runs use the same connection pool, larger than Tomcat's
+ * default 200 threads. Needs a JDK 21 runtime; run with {@code mvn test -Pbenchmark,virtual-threads}.
+ */
+@Tag("benchmark")
+class TaskEndpointLoadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskEndpointLoadBenchmarkTest.class);
+    private static final int CLIENTS = Integer.getInteger("load.benchmark.clients", 800);
+    private static final int SECONDS = Integer.getInteger("load.benchmark.seconds", 15);
+    private static final int LATENCY_MS = Integer.getInteger("load.benchmark.latency-ms", 10);
+    private static final int POOL_SIZE = Integer.getInteger("load.benchmark.pool-size", 400);
+
+    @Test
+    void virtualThreadsServeMoreConcurrentRequests() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need JDK 21");
+
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        platform.report("platform");
+        virtual.report("virtual");
+
+        assertEquals(0, platform.errors() + virtual.errors());
+        assertTrue(virtual.throughput() > platform.throughput(), "virtual threads should not be capped by the pool size of Tomcat");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProjectmanagementApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                        // Measures the thread model, not admission control
+                        "app.bulkhead.enabled=false")
+                .initializers(c -> c.getBeanFactory().addBeanPostProcessor(new StatementLatency()))
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<String> uris = seed(context, "http://localhost:" + port);
+            // Warm up, then measure
+            load(uris, 2);
+            return load(uris, SECONDS);
+        }
+    }
+
+    private List<String> seed(ConfigurableApplicationContext context, String base) {
+        ProjectService projectService = context.getBean(ProjectService.class);
+        TaskService taskService = context.getBean(TaskService.class);
+        List<String> uris = new ArrayList<>();
+        for (int p = 0; p < 10; p++) {
+            ProjectDto created = projectService.create(project("Load " + p));
+            uris.add(base + "/api/tasks/project/" + created.id() + "?size=20");
+            for (int i = 0; i < 20; i++) {
+                TaskDto saved = taskService.create(task("Load task " + i, created.id()));
+                if (i % 5 == 0) {
+                    uris.add(base + "/api/tasks/" + saved.id());
+                }
+            }
+        }
+        uris.add(base + "/api/tasks/status/TODO?size=20");
+        return uris;
+    }
+
+    private Result load(List<String> uris, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            int offset = c;
+            results.add(clients.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                int errors = 0;
+                for (int i = offset; System.nanoTime() < deadline; i++) {
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(uris.get(i % uris.size()))).build();
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors++;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+                long[] measured = Arrays.copyOf(latencies, count + 1);
+                measured[count] = -errors;
+                return measured;
+            }));
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        long errors = 0;
+        for (Future<long[]> result : results) {
+            long[] measured = result.get();
+            for (int i = 0; i < measured.length - 1; i++) {
+                latencies.add(measured[i]);
+            }
+            errors -= measured[measured.length - 1];
+        }
+        clients.shutdown();
+        latencies.sort(null);
+        return new Result(latencies.size() / (double) seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), errors);
+    }
+
+    private double percentile(List<Long> sorted, double p) {
+        return sorted.isEmpty() ? 0 : sorted.get((int) Math.min(sorted.size() - 1, sorted.size() * p)) / 1e6;
+    }
+
+    private record Result(double throughput, double p50, double p99, long errors) {
+
+        void report(String threads) {
+            log.info("{} threads: {} req/s, p50 {} ms, p99 {} ms, {} errors", threads,
+                    "%,.0f".formatted(throughput), "%.1f".formatted(p50), "%.1f".formatted(p99), errors);
+        }
+    }
+
+    // Delays every statement execution like a network round trip to the database would
+    private static class StatementLatency implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return result instanceof Connection connection ? proxy(Connection.class, connection, this::statement) : result;
+            });
+        }
+
+        private Object statement(Object target, Method method, Object[] args) throws Exception {
+            Object result = method.invoke(target, args);
+            if (result instanceof PreparedStatement statement) {
+                return proxy(PreparedStatement.class, statement, this::execute);
+            }
+            return result;
+        }
+
+        private Object execute(Object target, Method method, Object[] args) throws Exception {
+            if (method.getName().startsWith("execute")) {
+                Thread.sleep(LATENCY_MS);
+            }
+            return method.invoke(target, args);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+            InvocationHandler handler = (p, method, args) -> {
+                try {
+                    return invocation.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        @FunctionalInterface
+        private interface Invocation {
+            Object invoke(Object target, Method method, Object[] args) throws Exception;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.BulkResult;
+import com.projectmanagement.model.Task;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static com.projectmanagement.TestData.task;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rows per second of the bulk endpoint against one {@link TaskService#create} call per row.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BulkImportBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportBenchmarkTest.class);
+    private static final int SINGLE_ROWS = Integer.getInteger("bulk.benchmark.single-rows", 2_000);
+    private static final int BULK_ROWS = Integer.getInteger("bulk.benchmark.bulk-rows", 50_000);
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Test
+    void bulkInsertOutperformsSingleInserts() throws Exception {
+        // Warm up both paths so JIT and connection pool state do not skew the first measurement
+        insertOneByOne(200);
+        bulkImportService.importTasks(new ByteArrayInputStream(ndjson(200)));
+
+        long start = System.nanoTime();
+        insertOneByOne(SINGLE_ROWS);
+        double singleRate = rowsPerSecond(SINGLE_ROWS, System.nanoTime() - start);
+
+        byte[] body = ndjson(BULK_ROWS);
+        start = System.nanoTime();
+        BulkResult result = bulkImportService.importTasks(new ByteArrayInputStream(body));
+        double bulkRate = rowsPerSecond(BULK_ROWS, System.nanoTime() - start);
+
+        log.info("single insert: {} rows/s ({} rows)", "%,.0f".formatted(singleRate), SINGLE_ROWS);
+        log.info("bulk insert: {} rows/s ({} rows), {}x", "%,.0f".formatted(bulkRate), BULK_ROWS,
+                "%.1f".formatted(bulkRate / singleRate));
+
+        assertEquals(BULK_ROWS, result.created());
+        assertTrue(bulkRate > singleRate, "bulk path should be faster than one insert per call");
+    }
+
+    private void insertOneByOne(int rows) {
+        for (int i = 0; i < rows; i++) {
+            Task task = task("Single " + i);
+            task.setEstimatedHours(4);
+            taskService.create(task);
+        }
+    }
+
+    private byte[] ndjson(int rows) {
+        StringBuilder body = new StringBuilder(rows * 64);
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"title\":\"Bulk ").append(i).append("\",\"estimatedHours\":4,\"priority\":\"HIGH\"}\n");
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private double rowsPerSecond(int rows, long nanos) {
+        return rows / (nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,73 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.BulkResult;
+import com.projectmanagement.repository.EmployeeRepository;
+import com.projectmanagement.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.bulk.chunk-size=3")
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Test
+    void importsJsonArrayAndReportsInvalidItems() throws Exception {
+        long before = taskRepository.count();
+        String body = """
+                [
+                  {"title": "Schema", "priority": "HIGH"},
+                  {"title": ""},
+                  {"title": "Bad enum", "status": "NOPE"},
+                  {"title": "Missing project", "projectId": 999999},
+                  {"title": "API"}
+                ]""";
+
+        BulkResult result = bulkImportService.importTasks(stream(body));
+
+        assertEquals(5, result.received());
+        assertEquals(2, result.created());
+        assertEquals(3, result.failed());
+        assertEquals(1, result.errors().get(0).index());
+        assertEquals(2, result.errors().get(1).index());
+        assertEquals(3, result.errors().get(2).index());
+        assertEquals(before + 2, taskRepository.count());
+    }
+
+    @Test
+    void importsNdjsonAndRejectsDuplicateEmails() throws Exception {
+        String body = """
+                {"firstName": "Ada", "lastName": "Lovelace", "email": "ada.bulk@company.com"}
+                {"firstName": "Alan", "lastName": "Turing", "email": "alan.bulk@company.com"}
+                {"firstName": "Ada", "lastName": "Again", "email": "ada.bulk@company.com"}
+                {"firstName": "Grace", "lastName": "Hopper", "email": "grace.bulk@company.com"}
+                """;
+
+        BulkResult result = bulkImportService.importEmployees(stream(body));
+
+        assertEquals(4, result.received());
+        assertEquals(3, result.created());
+        assertEquals(2, result.errors().get(0).index());
+        assertTrue(result.errors().get(0).message().contains("Email already exists"));
+        assertTrue(employeeRepository.findByEmail("grace.bulk@company.com").isPresent());
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
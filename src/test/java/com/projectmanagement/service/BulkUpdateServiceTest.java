@@ -0,0 +1,159 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.TestData;
+import com.projectmanagement.dto.BulkUpdateResult;
+import com.projectmanagement.dto.ProjectBulkUpdate;
+import com.projectmanagement.dto.TaskBulkUpdate;
+import com.projectmanagement.exception.BadRequestException;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.repository.ProjectRepository;
+import com.projectmanagement.repository.TaskRepository;
+import com.projectmanagement.repository.TeamRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BulkUpdateServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Team team;
+    private Project project;
+    private Project otherProject;
+
+    @BeforeEach
+    void seed() {
+        team = teamRepository.save(team("Sprint team"));
+
+        project = project("Board", team);
+        otherProject = project("Other", null);
+    }
+
+    @Test
+    void updatesTasksByIdsInOneStatement() {
+        Task first = task(project, TaskStatus.IN_PROGRESS);
+        Task second = task(project, TaskStatus.TODO);
+        Task untouched = task(project, TaskStatus.TODO);
+        entityManager.flush();
+        Statistics statistics = statistics();
+
+        BulkUpdateResult result = taskService.bulkUpdate(
+                new TaskBulkUpdate(List.of(first.getId(), second.getId()), null, TaskStatus.DONE, null));
+
+        assertEquals(2, result.updated());
+        // One UPDATE for the tasks, however many ids; the project_stats rollup of the touched
+        // projects costs a lookup of their ids, one aggregation and a load of the rows to merge
+        assertEquals(1 + 3, statistics.getPrepareStatementCount());
+        // The context was cleared, so the instances loaded before the update are no longer managed
+        assertFalse(entityManager.contains(first));
+        assertEquals(TaskStatus.DONE, taskRepository.findById(first.getId()).orElseThrow().getStatus());
+        assertEquals(TaskStatus.DONE, taskRepository.findById(second.getId()).orElseThrow().getStatus());
+        assertEquals(TaskStatus.TODO, taskRepository.findById(untouched.getId()).orElseThrow().getStatus());
+        // Priority was not part of the request
+        assertEquals(TaskPriority.MEDIUM, taskRepository.findById(first.getId()).orElseThrow().getPriority());
+    }
+
+    @Test
+    void updatesTasksMatchingFilter() {
+        Task inProgress = task(project, TaskStatus.IN_PROGRESS);
+        Task todo = task(project, TaskStatus.TODO);
+        Task elsewhere = task(otherProject, TaskStatus.IN_PROGRESS);
+
+        BulkUpdateResult result = taskService.bulkUpdate(new TaskBulkUpdate(null,
+                new TaskBulkUpdate.Filter(project.getId(), TaskStatus.IN_PROGRESS, null),
+                TaskStatus.DONE, TaskPriority.LOW));
+
+        assertEquals(1, result.updated());
+        Task updated = taskRepository.findById(inProgress.getId()).orElseThrow();
+        assertEquals(TaskStatus.DONE, updated.getStatus());
+        assertEquals(TaskPriority.LOW, updated.getPriority());
+        assertEquals(TaskStatus.TODO, taskRepository.findById(todo.getId()).orElseThrow().getStatus());
+        assertEquals(TaskStatus.IN_PROGRESS, taskRepository.findById(elsewhere.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updatesProjectsMatchingFilter() {
+        Project planned = project("Planned", team);
+
+        BulkUpdateResult result = projectService.bulkUpdate(new ProjectBulkUpdate(null,
+                new ProjectBulkUpdate.Filter(team.getId(), null), ProjectStatus.CANCELLED));
+
+        assertEquals(2, result.updated());
+        assertEquals(ProjectStatus.CANCELLED, projectRepository.findById(planned.getId()).orElseThrow().getStatus());
+        assertEquals(ProjectStatus.PLANNED, projectRepository.findById(otherProject.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void rejectsAmbiguousOrUnboundedTargets() {
+        TaskBulkUpdate.Filter filter = new TaskBulkUpdate.Filter(project.getId(), null, null);
+
+        assertThrows(BadRequestException.class, () -> taskService.bulkUpdate(
+                new TaskBulkUpdate(List.of(1L), filter, TaskStatus.DONE, null)));
+        assertThrows(BadRequestException.class, () -> taskService.bulkUpdate(
+                new TaskBulkUpdate(null, new TaskBulkUpdate.Filter(null, null, null), TaskStatus.DONE, null)));
+        assertThrows(BadRequestException.class, () -> taskService.bulkUpdate(
+                new TaskBulkUpdate(List.of(1L), null, null, null)));
+        assertThrows(BadRequestException.class, () -> projectService.bulkUpdate(
+                new ProjectBulkUpdate(List.of(), null, ProjectStatus.COMPLETED)));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Project project(String name, Team owner) {
+        Project p = TestData.project(name);
+        p.setStatus(ProjectStatus.PLANNED);
+        p.setTeam(owner);
+        return projectRepository.save(p);
+    }
+
+    private Task task(Project owner, TaskStatus status) {
+        Task t = TestData.task("Card");
+        t.setStatus(status);
+        t.setPriority(TaskPriority.MEDIUM);
+        t.setProject(owner);
+        return taskRepository.save(t);
+    }
+}
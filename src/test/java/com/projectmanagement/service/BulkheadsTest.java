@@ -0,0 +1,114 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.bulkhead.lists.max-concurrency=2",
+        "app.bulkhead.lists.queue-size=1",
+        "app.bulkhead.lists.max-wait=PT0.1S",
+        "app.bulkhead.lists.retry-after=PT3S",
+        "app.bulkhead.handlers.TeamController.getAllTeams=none",
+        "app.bulkhead.queue.max-concurrency=1",
+        "app.bulkhead.queue.queue-size=1",
+        "app.bulkhead.queue.max-wait=PT10S",
+        "app.bulkhead.aimd.max-concurrency=8",
+        "app.bulkhead.aimd.min-concurrency=2",
+        "app.bulkhead.aimd.target-latency=PT0.1S"
+})
+@AutoConfigureMockMvc
+class BulkheadsTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void fullBulkheadShedsItsEndpointsOnly() throws Exception {
+        Bulkheads.Permit first = bulkheads.acquire(Bulkhead.LISTS);
+        Bulkheads.Permit second = bulkheads.acquire(Bulkhead.LISTS);
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+        mockMvc.perform(get("/api/projects/overdue")).andExpect(status().isServiceUnavailable());
+        // Single reads are not in a bulkhead, and the team list was taken out of it
+        mockMvc.perform(get("/api/projects/" + Long.MAX_VALUE)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/teams")).andExpect(status().isOk());
+        assertEquals(2.0, meterRegistry.get("bulkhead.rejected").tag("bulkhead", Bulkhead.LISTS).counter().count());
+
+        first.release();
+        second.release();
+        mockMvc.perform(get("/api/tasks")).andExpect(status().isOk());
+        assertEquals(0, bulkheads.compartment(Bulkhead.LISTS).active());
+    }
+
+    @Test
+    void queuedRequestGetsTheNextPermit() throws Exception {
+        Bulkheads.Permit held = bulkheads.acquire("queue");
+        CompletableFuture<Bulkheads.Permit> queued = CompletableFuture.supplyAsync(() -> bulkheads.acquire("queue"));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (bulkheads.compartment("queue").queued() == 0) {
+            assertTrue(System.nanoTime() < deadline, "request did not queue");
+            Thread.sleep(5);
+        }
+
+        // The queue holds one request, the next is shed at once
+        assertThrows(ServiceUnavailableException.class, () -> bulkheads.acquire("queue"));
+        assertFalse(queued.isDone());
+
+        held.release();
+        queued.get(5, TimeUnit.SECONDS).release();
+        assertEquals(0, bulkheads.compartment("queue").active());
+    }
+
+    @Test
+    void limitBacksOffOnSlowRequestsAndRecovers() {
+        Bulkheads.Compartment aimd = bulkheads.compartment("aimd");
+        assertEquals(8, aimd.limit());
+
+        for (int i = 0; i < 20; i++) {
+            bulkheads.acquire("aimd").release(SLOW);
+        }
+        assertEquals(2, aimd.limit());
+        assertEquals(2.0, meterRegistry.get("bulkhead.limit").tag("bulkhead", "aimd").gauge().value());
+
+        // Fast requests only raise the limit while it is in use
+        for (int i = 0; i < 100 && aimd.limit() < 8; i++) {
+            List<Bulkheads.Permit> busy = new ArrayList<>();
+            for (int permit = aimd.limit(); permit > 0; permit--) {
+                busy.add(bulkheads.acquire("aimd"));
+            }
+            busy.forEach(permit -> permit.release(FAST));
+        }
+        assertEquals(8, aimd.limit());
+    }
+}
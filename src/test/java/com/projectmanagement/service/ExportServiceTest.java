@@ -0,0 +1,113 @@
+package com.projectmanagement.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Exports a million synthetic tasks. Runs in its own surefire execution with a 128 MB heap
+ * (see the {@code small-heap} execution in pom.xml), so materializing the table would fail
+ * with an OutOfMemoryError. The database is file-backed so the rows do not live on the heap;
+ * H2's own shutdown hook is disabled so that create-drop finishes before the file is closed.
+ */
+@Tag("small-heap")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/export-test;MODE=MySQL;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportServiceTest {
+
+    private static final int TASK_ROWS = Integer.getInteger("export.test.rows", 1_000_000);
+    private static final int PROJECT_ROWS = 10_000;
+    private static final int BATCH = 5_000;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        List<Object[]> projects = new ArrayList<>(BATCH);
+        for (int i = 1; i <= PROJECT_ROWS; i++) {
+            projects.add(new Object[]{i, "Project " + i, Date.valueOf(LocalDate.of(2024, 1, 1)), "IN_PROGRESS"});
+            if (projects.size() == BATCH) {
+                jdbcTemplate.batchUpdate("INSERT INTO projects (id, name, start_date, status) VALUES (?, ?, ?, ?)", projects);
+                projects.clear();
+            }
+        }
+
+        List<Object[]> tasks = new ArrayList<>(BATCH);
+        for (int i = 1; i <= TASK_ROWS; i++) {
+            tasks.add(new Object[]{i, "Task " + i, "Synthetic task number " + i, "MEDIUM", "TODO", 8,
+                    Date.valueOf(LocalDate.of(2024, 6, 1)), (i % PROJECT_ROWS) + 1});
+            if (tasks.size() == BATCH) {
+                insertTasks(tasks);
+                tasks.clear();
+            }
+        }
+        if (!tasks.isEmpty()) {
+            insertTasks(tasks);
+        }
+    }
+
+    @Test
+    void exportsEveryTaskWithFlatMemory() throws Exception {
+        LineCountingStream out = new LineCountingStream();
+
+        long written = exportService.exportTasks(out);
+
+        assertEquals(TASK_ROWS, written);
+        assertEquals(TASK_ROWS, out.lines);
+    }
+
+    @Test
+    void exportsEveryProject() throws Exception {
+        LineCountingStream out = new LineCountingStream();
+
+        long written = exportService.exportProjects(out);
+
+        assertEquals(PROJECT_ROWS, written);
+        assertEquals(PROJECT_ROWS, out.lines);
+    }
+
+    private void insertTasks(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, title, description, priority, status, estimated_hours, due_date, project_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    // Discards the payload, only counting NDJSON records
+    private static class LineCountingStream extends OutputStream {
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
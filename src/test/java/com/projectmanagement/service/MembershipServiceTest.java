@@ -0,0 +1,122 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.MembershipResult;
+import com.projectmanagement.dto.MembershipUpdate;
+import com.projectmanagement.exception.BadRequestException;
+import com.projectmanagement.exception.ResourceNotFoundException;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Team;
+import com.projectmanagement.repository.EmployeeRepository;
+import com.projectmanagement.repository.TaskRepository;
+import com.projectmanagement.repository.TeamRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.projectmanagement.TestData.employee;
+import static com.projectmanagement.TestData.task;
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class MembershipServiceTest {
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void changesLargeTeamsWithoutLoadingMembers() {
+        Team team = teamRepository.save(team("Large team"));
+        List<Long> ids = employees(2500);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<Long> request = new ArrayList<>(ids);
+        request.add(ids.get(0));
+        request.add(-1L);
+        MembershipResult result = teamService.updateMembers(team.getId(), new MembershipUpdate(request, null));
+
+        assertEquals(new MembershipResult(2500, 0), result);
+        // Lock, one INSERT per 1000 ids, the version bump and the member ids the read cache evicts
+        assertEquals(1 + 3 + 1 + 1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getCollectionLoadCount());
+
+        result = teamService.updateMembers(team.getId(), new MembershipUpdate(ids.subList(0, 10), ids.subList(10, 15)));
+        assertEquals(new MembershipResult(0, 5), result);
+        assertEquals(2495, teamRepository.findMemberIds(List.of(team.getId())).size());
+        assertEquals(team.getVersion() + 2, teamRepository.findById(team.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void assignsTaskEmployeesOneAtATime() {
+        Task task = taskRepository.save(task("Pairing"));
+        Long employeeId = employees(1).get(0);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(new MembershipResult(1, 0), taskService.assignEmployeeToTask(task.getId(), employeeId));
+        assertEquals(new MembershipResult(0, 0), taskService.assignEmployeeToTask(task.getId(), employeeId));
+        assertEquals(List.of(employeeId), taskRepository.findAssigneeIds(task.getId()));
+        assertEquals(task.getVersion() + 1, taskRepository.findById(task.getId()).orElseThrow().getVersion());
+
+        assertThrows(ResourceNotFoundException.class, () -> taskService.assignEmployeeToTask(task.getId(), -1L));
+        assertThrows(ResourceNotFoundException.class, () -> taskService.assignEmployeeToTask(-1L, employeeId));
+
+        assertEquals(new MembershipResult(0, 1), taskService.removeEmployeeFromTask(task.getId(), employeeId));
+        assertEquals(List.of(), taskRepository.findAssigneeIds(task.getId()));
+    }
+
+    @Test
+    void rejectsEmptyOrContradictoryChanges() {
+        Team team = teamRepository.save(team("Strict team"));
+
+        assertThrows(BadRequestException.class, () -> teamService.updateMembers(team.getId(),
+                new MembershipUpdate(null, List.of())));
+        assertThrows(BadRequestException.class, () -> teamService.updateMembers(team.getId(),
+                new MembershipUpdate(List.of(1L), List.of(1L))));
+    }
+
+    private List<Long> employees(int count) {
+        List<Employee> employees = IntStream.range(0, count)
+                .mapToObj(i -> employee("Member", String.valueOf(i))).toList();
+        return employeeRepository.saveAll(employees).stream().map(Employee::getId).toList();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,98 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.TestData;
+import com.projectmanagement.dto.EmployeeDto;
+import com.projectmanagement.dto.TeamDto;
+import com.projectmanagement.exception.BadRequestException;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.model.Team;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Name search goes through the trigram index once it is built and must see every committed
+ * write. Not transactional: index updates only happen on commit.
+ */
+@SpringBootTest(properties = "app.search.build-threads=3")
+class NameSearchIndexTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private NameSearchIndex nameSearchIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void ranksPrefixAndMisspelledMatches() {
+        EmployeeDto marguerite = employeeService.create(employee("Marguerite", "Quackenbush", "Architect"));
+        EmployeeDto margaret = employeeService.create(employee("Margaret", "Quackenbosh", "Engineer"));
+        employeeService.create(employee("Marcus", "Thornbury", "Engineer"));
+        nameSearchIndex.rebuild();
+        assertTrue(nameSearchIndex.isReady());
+
+        assertEquals(List.of(margaret.id(), marguerite.id()), ids(employeeService.searchByName("marg quack", null)));
+        assertEquals(marguerite.id(), ids(employeeService.searchByName("Quakenbush", null)).get(0));
+        assertEquals(List.of(marguerite.id()), ids(employeeService.searchByName("MARGUÉRITE archit", null)));
+        assertEquals(1, employeeService.searchByName("marg quack", 1).size());
+        assertThrows(BadRequestException.class, () -> employeeService.searchByName("marg", NameSearchIndex.MAX_LIMIT + 1));
+    }
+
+    @Test
+    void followsCommittedWritesOnly() {
+        nameSearchIndex.rebuild();
+        EmployeeDto ophelia = employeeService.create(employee("Ophelia", "Vandersloot", null));
+        assertEquals(List.of(ophelia.id()), ids(employeeService.searchByName("vandersl", null)));
+
+        employeeService.update(ophelia.id(), employee("Ophelia", "Wintergreen", null), null);
+        assertEquals(List.of(), employeeService.searchByName("vandersloot", null));
+        assertEquals(List.of(ophelia.id()), ids(employeeService.searchByName("wintergreen", null)));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            employeeService.create(employee("Rolled", "Backwater", null));
+            status.setRollbackOnly();
+        });
+        assertEquals(List.of(), employeeService.searchByName("backwater", null));
+
+        employeeService.delete(ophelia.id());
+        assertEquals(List.of(), employeeService.searchByName("wintergreen", null));
+    }
+
+    @Test
+    void searchesTeamNamesAndDescriptions() {
+        Team team = team("Platform Reliability");
+        team.setDescription("Owns the on-call rotation");
+        TeamDto reliability = teamService.create(team);
+        nameSearchIndex.rebuild();
+
+        assertEquals(reliability.id(), teamService.searchByName("reliab", null).get(0).id());
+        assertEquals(reliability.id(), teamService.searchByName("on-call", null).get(0).id());
+
+        teamService.delete(reliability.id());
+        assertEquals(List.of(), teamService.searchByName("reliability", null));
+    }
+
+    private List<Long> ids(List<EmployeeDto> employees) {
+        return employees.stream().map(EmployeeDto::id).toList();
+    }
+
+    private Employee employee(String firstName, String lastName, String position) {
+        Employee employee = TestData.employee(firstName, lastName);
+        employee.setPosition(position);
+        return employee;
+    }
+}
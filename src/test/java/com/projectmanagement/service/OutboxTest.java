@@ -0,0 +1,170 @@
+package com.projectmanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.dto.TeamDto;
+import com.projectmanagement.model.OutboxEvent;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.task;
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Writes leave outbox rows only when they commit; the relay hands them to the file sink in
+ * order, retries a failed batch and compaction removes what was published. Not transactional:
+ * the rows are inserted on commit.
+ */
+@SpringBootTest(properties = {"app.outbox.retention=PT0S", "app.outbox.max-backoff=PT0S", "app.outbox.batch-size=2"})
+class OutboxTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private OutboxSink sink;
+
+    @Value("${app.outbox.file.directory}")
+    private Path directory;
+
+    @BeforeEach
+    void removeEarlierRuns() throws IOException {
+        Files.deleteIfExists(directory.resolve(RollingFileOutboxSink.CURRENT));
+    }
+
+    @Test
+    void relaysCommittedWritesInOrder() throws IOException {
+        TaskDto task = taskService.create(task("Outboxed"));
+        taskService.updateStatus(task.id(), TaskStatus.IN_PROGRESS);
+        taskService.updatePriority(task.id(), TaskPriority.HIGH);
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.updateStatus(task.id(), TaskStatus.DONE);
+            status.setRollbackOnly();
+        });
+
+        outboxRelay.relay();
+
+        List<JsonNode> messages = messagesFor(task.id());
+        assertEquals(List.of("CREATED", "UPDATED", "UPDATED"),
+                messages.stream().map(message -> message.get("type").asText()).toList());
+        assertTrue(messages.get(0).get("id").asLong() < messages.get(1).get("id").asLong());
+        assertTrue(messages.get(1).get("id").asLong() < messages.get(2).get("id").asLong());
+        assertEquals("Outboxed", messages.get(0).get("data").get("title").asText());
+        assertEquals("{\"status\":\"IN_PROGRESS\"}", messages.get(1).get("data").toString());
+        assertEquals("{\"priority\":\"HIGH\"}", messages.get(2).get("data").toString());
+
+        assertTrue(outboxEventRepository.findOldestUnpublished().isEmpty());
+        assertEquals(0.0, meterRegistry.get("outbox.lag").timeGauge().value());
+    }
+
+    @Test
+    void deliversEachAggregateInVersionOrder() throws IOException {
+        outboxRelay.relay();
+        long taskId = Long.MAX_VALUE - 1;
+        // Version 2 drew the smaller id, as from another instance's sequence block, and a batch ends before version 1
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.save(new OutboxEvent("TASK", taskId, 2L, "UPDATED", "{\"status\":\"DONE\"}"));
+            outboxEventRepository.save(new OutboxEvent("TASK", Long.MAX_VALUE - 2, 0L, "CREATED", "{}"));
+            outboxEventRepository.save(new OutboxEvent("TASK", taskId, 1L, "UPDATED", "{\"priority\":\"HIGH\"}"));
+        });
+
+        outboxRelay.relay();
+
+        assertEquals(List.of(1L, 2L), messagesFor(taskId).stream().map(message -> message.get("version").asLong()).toList());
+        assertTrue(outboxEventRepository.findOldestUnpublished().isEmpty());
+    }
+
+    @Test
+    void tasksDeletedWithTheirProjectOrTeamAreOutboxed() throws IOException {
+        ProjectDto project = projectService.create(project("Cascading"));
+        TaskDto task = taskService.create(task("Deleted with its project", project.id()));
+        TeamDto team = teamService.create(team("Outboxed team"));
+        ProjectDto teamProject = projectService.create(project("Cascading with its team", team.id()));
+        TaskDto teamTask = taskService.create(task("Deleted with its team", teamProject.id()));
+
+        projectService.delete(project.id());
+        teamService.delete(team.id());
+        outboxRelay.relay();
+
+        assertEquals(List.of("CREATED", "DELETED"), messagesFor(task.id()).stream().map(message -> message.get("type").asText()).toList());
+        assertEquals(List.of("CREATED", "DELETED"), messagesFor(teamTask.id()).stream().map(message -> message.get("type").asText()).toList());
+    }
+
+    @Test
+    void retriesFailedBatchAndCompactsPublished() throws IOException {
+        doThrow(new IOException("disk full")).doCallRealMethod().when(sink).publish(any());
+        double retries = meterRegistry.get("outbox.retries").counter().count();
+
+        TaskDto task = taskService.create(task("Retried"));
+        outboxRelay.relay();
+        assertEquals(retries + 1, meterRegistry.get("outbox.retries").counter().count());
+        assertTrue(outboxEventRepository.findOldestUnpublished().isPresent());
+        assertTrue(messagesFor(task.id()).isEmpty());
+
+        outboxRelay.relay();
+        assertEquals(1, messagesFor(task.id()).size());
+        assertTrue(outboxEventRepository.findOldestUnpublished().isEmpty());
+
+        outboxRelay.compact();
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    private List<JsonNode> messagesFor(Long taskId) throws IOException {
+        Path file = directory.resolve(RollingFileOutboxSink.CURRENT);
+        List<JsonNode> messages = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return messages;
+        }
+        for (String line : Files.readAllLines(file)) {
+            JsonNode message = objectMapper.readTree(line);
+            if ("TASK".equals(message.get("aggregateType").asText()) && message.get("aggregateId").asLong() == taskId) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,149 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.TestData;
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.TaskBulkUpdate;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import com.projectmanagement.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The overdue lists come from the due-date index once it is built; it must follow every
+ * committed write, roll over with the day and be repaired by reconciliation. Not transactional:
+ * index updates only happen on commit.
+ */
+@SpringBootTest
+class OverdueIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private OverdueIndex overdueIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rollsItemsOverAsDaysPass() {
+        DueDateIndex index = new DueDateIndex(TODAY);
+        index.put(1, TODAY.minusDays(1));
+        index.put(2, TODAY);
+        index.put(3, TODAY.plusDays(2));
+        index.put(4, null);
+        assertEquals(List.of(1L), index.overdue(null, false, 10));
+
+        index.advanceTo(TODAY.plusDays(1));
+        assertEquals(List.of(1L, 2L), index.overdue(null, false, 10));
+
+        // Moving a due date out, closing an item and going back a day change nothing else
+        index.put(3, TODAY.plusDays(5));
+        index.remove(1);
+        index.advanceTo(TODAY.plusDays(3));
+        index.advanceTo(TODAY);
+        assertEquals(List.of(2L), index.overdue(null, false, 10));
+        assertEquals(2, index.size());
+
+        for (long id = 10; id < 20; id++) {
+            index.put(id, TODAY.minusDays(id));
+        }
+        assertEquals(List.of(13L, 14L, 15L), index.overdue(12L, false, 3));
+        assertEquals(List.of(19L, 18L), index.overdue(null, true, 2));
+    }
+
+    @Test
+    void followsCommittedWrites() {
+        overdueIndex.rebuild();
+        assertTrue(overdueIndex.isReady());
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        ProjectDto late = projectService.create(project("Late", yesterday));
+        ProjectDto onTime = projectService.create(project("On time", LocalDate.now()));
+        assertTrue(overdueProjects().contains(late.id()));
+        assertFalse(overdueProjects().contains(onTime.id()));
+
+        projectService.updateStatus(late.id(), ProjectStatus.COMPLETED);
+        assertFalse(overdueProjects().contains(late.id()));
+
+        TaskDto first = taskService.create(task(onTime.id(), yesterday));
+        TaskDto second = taskService.create(task(onTime.id(), yesterday));
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.create(task(onTime.id(), yesterday));
+            status.setRollbackOnly();
+        });
+        assertEquals(List.of(first.id(), second.id()), overdueTasksOf(onTime.id()));
+
+        taskService.bulkUpdate(new TaskBulkUpdate(null, new TaskBulkUpdate.Filter(onTime.id(), null, null),
+                TaskStatus.DONE, null));
+        assertEquals(List.of(), overdueTasksOf(onTime.id()));
+        taskService.bulkUpdate(new TaskBulkUpdate(List.of(second.id()), null, TaskStatus.IN_PROGRESS, null));
+        assertEquals(List.of(second.id()), overdueTasksOf(onTime.id()));
+
+        projectService.delete(onTime.id());
+        assertFalse(overdueIndex.overdueTasks(null, false, Integer.MAX_VALUE).contains(second.id()));
+    }
+
+    @Test
+    void reconciliationRepairsDrift() {
+        overdueIndex.rebuild();
+        // Written behind the service's back
+        Task task = TestData.task("Unreported");
+        task.setDueDate(LocalDate.now().minusDays(3));
+        Long id = taskRepository.save(task).getId();
+        assertFalse(overdueIndex.overdueTasks(null, false, Integer.MAX_VALUE).contains(id));
+
+        overdueIndex.reconcile();
+        assertTrue(overdueIndex.overdueTasks(null, false, Integer.MAX_VALUE).contains(id));
+        CursorPage<TaskDto> page = taskService.findOverdueTasks(CursorRequest.firstPage(CursorRequest.MAX_SIZE), FieldSelection.ALL);
+        assertTrue(page.getContent().stream().anyMatch(dto -> dto.id().equals(id)));
+    }
+
+    private List<Long> overdueProjects() {
+        return projectService.findOverdueProjects(CursorRequest.firstPage(CursorRequest.MAX_SIZE), FieldSelection.ALL).getContent()
+                .stream().map(ProjectDto::id).toList();
+    }
+
+    private List<Long> overdueTasksOf(Long projectId) {
+        return taskService.findOverdueTasks(CursorRequest.firstPage(CursorRequest.MAX_SIZE), FieldSelection.ALL).getContent().stream()
+                .filter(task -> projectId.equals(task.projectId()))
+                .map(TaskDto::id)
+                .toList();
+    }
+
+    private static Project project(String name, LocalDate endDate) {
+        Project project = TestData.project(name);
+        project.setEndDate(endDate);
+        return project;
+    }
+
+    private static Task task(Long projectId, LocalDate dueDate) {
+        Task task = TestData.task("Due " + dueDate, projectId);
+        task.setDueDate(dueDate);
+        return task;
+    }
+}
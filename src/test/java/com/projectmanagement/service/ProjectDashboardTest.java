@@ -0,0 +1,91 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.TestData;
+import com.projectmanagement.dto.ProjectProgressDto;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Project.ProjectStatus;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ProjectDashboardTest {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void aggregatesEveryProjectInOneStatement() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        Project busy = project("Busy");
+        task(busy, TaskStatus.DONE, TaskPriority.HIGH, 5, yesterday);
+        task(busy, TaskStatus.DONE, TaskPriority.LOW, 3, null);
+        task(busy, TaskStatus.IN_PROGRESS, TaskPriority.HIGH, null, yesterday);
+        task(busy, TaskStatus.TODO, TaskPriority.CRITICAL, 2, LocalDate.now().plusDays(3));
+        Project empty = project("Empty");
+        entityManager.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ProjectProgressDto> dashboard = projectService.getDashboard(List.of(empty.getId(), busy.getId()));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, dashboard.size());
+        ProjectProgressDto card = dashboard.get(0);
+        assertEquals(busy.getId(), card.projectId());
+        assertEquals(4, card.totalTasks());
+        assertEquals(2L, card.tasksByStatus().get(TaskStatus.DONE));
+        assertEquals(1L, card.tasksByStatus().get(TaskStatus.TODO));
+        assertEquals(2L, card.tasksByPriority().get(TaskPriority.HIGH));
+        assertEquals(0L, card.tasksByPriority().get(TaskPriority.MEDIUM));
+        assertEquals(10, card.estimatedHours());
+        // Only unfinished tasks count as overdue
+        assertEquals(1, card.overdueTasks());
+        assertEquals(50, card.percentComplete());
+
+        ProjectProgressDto emptyCard = dashboard.get(1);
+        assertEquals(0, emptyCard.totalTasks());
+        assertEquals(0, emptyCard.estimatedHours());
+        assertEquals(0, emptyCard.percentComplete());
+    }
+
+    private Project project(String name) {
+        Project project = TestData.project(name);
+        project.setStatus(ProjectStatus.IN_PROGRESS);
+        projectService.create(project);
+        return project;
+    }
+
+    private void task(Project project, TaskStatus status, TaskPriority priority, Integer hours, LocalDate dueDate) {
+        Task task = TestData.task("Card");
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setEstimatedHours(hours);
+        task.setDueDate(dueDate);
+        task.setProject(project);
+        taskService.create(task);
+    }
+}
@@ -0,0 +1,170 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.TestData;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.StatsDriftReport;
+import com.projectmanagement.dto.TaskBulkUpdate;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.model.ProjectStats;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.Task.TaskPriority;
+import com.projectmanagement.model.Task.TaskStatus;
+import com.projectmanagement.repository.ProjectStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every task write path must keep project_stats equal to a from-scratch aggregation. Not
+ * transactional: each service call commits like a request would.
+ */
+@SpringBootTest
+class ProjectStatsServiceTest {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Autowired
+    private ProjectStatsRepository projectStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everyTaskWritePathKeepsTheRollupExact() throws Exception {
+        ProjectDto first = projectService.create(project("First"));
+        ProjectDto second = projectService.create(project("Second"));
+
+        TaskDto a = taskService.create(task("A", first, 5));
+        TaskDto b = taskService.create(task("B", first, 3));
+        TaskDto c = taskService.create(task("C", second, null));
+        bulkImportService.importTasks(new ByteArrayInputStream(("""
+                {"title": "Imported 1", "projectId": %d, "estimatedHours": 2, "priority": "HIGH"}
+                {"title": "Imported 2", "projectId": %d, "status": "DONE"}
+                """.formatted(first.id(), second.id())).getBytes(StandardCharsets.UTF_8)));
+
+        taskService.updateStatus(a.id(), TaskStatus.IN_PROGRESS);
+        taskService.updatePriority(b.id(), TaskPriority.CRITICAL);
+        Task changes = task("B renamed", null, 8);
+        changes.setStatus(TaskStatus.DONE);
+        taskService.update(b.id(), changes, null);
+        taskService.assignToProject(c.id(), first.id());
+        taskService.bulkUpdate(new TaskBulkUpdate(null,
+                new TaskBulkUpdate.Filter(first.id(), TaskStatus.TODO, null), TaskStatus.DONE, null));
+        taskService.delete(a.id());
+
+        ProjectStats stats = projectStatsRepository.findById(first.id()).orElseThrow();
+        // B (done, medium again after the full update, 8h), C (done, medium), Imported 1 (done by the bulk update, high, 2h)
+        assertEquals(0, stats.getTodoCount());
+        assertEquals(3, stats.getDoneCount());
+        assertEquals(0, stats.getCriticalCount());
+        assertEquals(2, stats.getMediumCount());
+        assertEquals(1, stats.getHighCount());
+        assertEquals(10, stats.getEstimatedHours());
+        assertEquals(0, projectStatsService.verify().driftedProjects());
+    }
+
+    @Test
+    void rebuildReportsAndRepairsDrift() {
+        ProjectDto project = projectService.create(project("Drifting"));
+        taskService.create(task("Only", project, 4));
+        jdbcTemplate.update("UPDATE project_stats SET todo_count = 7, estimated_hours = 0 WHERE project_id = ?", project.id());
+        jdbcTemplate.update("DELETE FROM project_stats WHERE project_id <> ?", project.id());
+
+        StatsDriftReport report = projectStatsService.rebuild();
+
+        assertTrue(report.repaired());
+        StatsDriftReport.Drift drift = report.drifts().stream()
+                .filter(d -> d.projectId().equals(project.id()))
+                .findFirst().orElseThrow();
+        assertEquals(7, drift.actual().todoCount());
+        assertEquals(1, drift.expected().todoCount());
+        assertEquals(4, drift.expected().estimatedHours());
+        assertEquals(0, projectStatsService.verify().driftedProjects());
+    }
+
+    @Test
+    void concurrentWritersSeedAMissingRowOnce() throws Exception {
+        int writers = 8;
+        ProjectDto project = projectService.create(project("Seeded concurrently"));
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            for (int round = 0; round < 5; round++) {
+                jdbcTemplate.update("DELETE FROM project_stats WHERE project_id = ?", project.id());
+                CyclicBarrier start = new CyclicBarrier(writers);
+                List<Future<TaskDto>> created = new ArrayList<>();
+                for (int i = 0; i < writers; i++) {
+                    String title = "Racer " + round + "-" + i;
+                    created.add(pool.submit(() -> {
+                        start.await();
+                        return taskService.create(task(title, project, 1));
+                    }));
+                }
+                // Rethrows a writer's duplicate key, if any
+                for (Future<TaskDto> task : created) {
+                    task.get();
+                }
+                assertEquals(writers * (round + 1L),
+                        projectStatsRepository.findById(project.id()).orElseThrow().getEstimatedHours());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, projectStatsService.verify().driftedProjects());
+    }
+
+    @Test
+    void deletingAProjectRemovesItsRow() {
+        ProjectDto project = projectService.create(project("Short lived"));
+        taskService.create(task("Task", project, 1));
+
+        projectService.delete(project.id());
+
+        assertNull(projectStatsRepository.findById(project.id()).orElse(null));
+    }
+
+    @Test
+    void deletingATeamRemovesTheRowsOfItsProjects() {
+        Long teamId = teamService.create(team("Short lived team")).id();
+        ProjectDto project = projectService.create(project("Owned", teamId));
+        taskService.create(task("Task", project, 2));
+
+        teamService.delete(teamId);
+
+        assertNull(projectStatsRepository.findById(project.id()).orElse(null));
+    }
+
+    private static Task task(String title, ProjectDto project, Integer hours) {
+        Task task = TestData.task(title, project == null ? null : project.id());
+        task.setEstimatedHours(hours);
+        return task;
+    }
+}
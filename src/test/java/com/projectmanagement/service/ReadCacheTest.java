@@ -0,0 +1,136 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.TestData;
+import com.projectmanagement.dto.CacheStatsDto;
+import com.projectmanagement.dto.EmployeeDto;
+import com.projectmanagement.dto.TeamDto;
+import com.projectmanagement.exception.ResourceNotFoundException;
+import com.projectmanagement.model.Employee;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cached reads must be served without SQL and must reflect every committed write made through
+ * the services. Not transactional: evictions only happen on commit.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ReadCacheTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private ReadCache readCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private EmployeeDto alice;
+    private EmployeeDto bob;
+    private TeamDto team;
+
+    @BeforeEach
+    void seed() {
+        alice = employeeService.create(employee("Alice"));
+        bob = employeeService.create(employee("Bob"));
+        team = teamService.create(team("Cache team"));
+        teamService.addEmployeeToTeam(team.id(), alice.id());
+    }
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() {
+        employeeService.findById(alice.id());
+        teamService.findById(team.id());
+        Statistics statistics = statistics();
+
+        assertEquals("Alice", employeeService.findById(alice.id()).firstName());
+        assertEquals(1, teamService.findById(team.id()).employees().size());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        CacheStatsDto employees = readCache.statistics().stream()
+                .filter(s -> s.name().equals(ReadCache.EMPLOYEES))
+                .findFirst().orElseThrow();
+        assertTrue(employees.hitCount() >= 1);
+    }
+
+    @Test
+    void employeeUpdateEvictsEmployeeEmailAndTeamEntries() {
+        String oldEmail = alice.email();
+        employeeService.findByEmail(oldEmail);
+        teamService.findById(team.id());
+        teamService.findTeamsByEmployee(alice.id(), new CursorRequest());
+
+        Employee changes = employee("Alicia");
+        employeeService.update(alice.id(), changes, null);
+
+        assertEquals("Alicia", employeeService.findById(alice.id()).firstName());
+        assertEquals("Alicia", employeeService.findByEmail(changes.getEmail()).firstName());
+        assertThrows(ResourceNotFoundException.class, () -> employeeService.findByEmail(oldEmail));
+        assertEquals("Alicia", teamService.findById(team.id()).employees().get(0).firstName());
+        CursorPage<TeamDto> teams = teamService.findTeamsByEmployee(alice.id(), new CursorRequest());
+        assertEquals("Alicia", teams.getContent().get(0).employees().get(0).firstName());
+    }
+
+    @Test
+    void membershipChangesEvictTeamAndEveryMembersPages() {
+        teamService.findById(team.id());
+        teamService.findTeamsByEmployee(alice.id(), new CursorRequest());
+        teamService.findTeamsByEmployee(bob.id(), new CursorRequest());
+
+        teamService.addEmployeeToTeam(team.id(), bob.id());
+
+        assertEquals(2, teamService.findById(team.id()).employees().size());
+        assertEquals(1, teamService.findTeamsByEmployee(bob.id(), new CursorRequest()).getContent().size());
+        // Alice's page embeds the member list, which now includes Bob
+        assertEquals(2, teamService.findTeamsByEmployee(alice.id(), new CursorRequest())
+                .getContent().get(0).employees().size());
+
+        teamService.removeEmployeeFromTeam(team.id(), alice.id());
+
+        assertEquals(0, teamService.findTeamsByEmployee(alice.id(), new CursorRequest()).getContent().size());
+        assertEquals(1, teamService.findById(team.id()).employees().size());
+    }
+
+    @Test
+    void rolledBackWritesKeepTheCachedEntry() {
+        employeeService.findById(alice.id());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            employeeService.update(alice.id(), employee("Rolled back"), null);
+            status.setRollbackOnly();
+        });
+        Statistics statistics = statistics();
+
+        assertEquals("Alice", employeeService.findById(alice.id()).firstName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Employee employee(String firstName) {
+        return TestData.employee(firstName, "Cache");
+    }
+}
@@ -0,0 +1,170 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.service.ReadWriteRoutingDataSource.Selection;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routing against embedded databases that each answer with their own name: the primary and two
+ * replicas, plus a replica that is down.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final Clock clock = mock(Clock.class);
+    private final DataSource primary = database("primary");
+    private final DataSource replica1 = database("replica-1");
+    private final DataSource replica2 = database("replica-2");
+    private final DataSource down = mock(DataSource.class);
+
+    private long now = 1_000_000;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(clock.millis()).thenAnswer(invocation -> now);
+        when(down.getConnection()).thenThrow(new SQLException("Connection refused"));
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void sendsReadOnlyTransactionsToReplicasInTurn() {
+        route(List.of(replica1, replica2), Selection.ROUND_ROBIN, Duration.ZERO);
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1"), List.of(read(), read(), read()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", node());
+    }
+
+    @Test
+    void prefersTheReplicaWithFewestConnections() {
+        route(List.of(replica1, replica2), Selection.LEAST_CONNECTIONS, Duration.ZERO);
+        TransactionTemplate nested = new TransactionTemplate(readOnly.getTransactionManager(), readOnly);
+        nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        List<String> reads = readOnly.execute(status -> {
+            // The outer transaction holds a replica-1 connection throughout
+            String outer = node();
+            return List.of(outer, nested.execute(inner -> node()), nested.execute(inner -> node()));
+        });
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-2"), reads);
+        assertEquals(List.of(0, 0), routing.activeConnections());
+    }
+
+    @Test
+    void skipsFailedReplicasAndFallsBackToThePrimary() throws SQLException {
+        route(List.of(down, replica1), Selection.ROUND_ROBIN, Duration.ZERO);
+        assertEquals(List.of("replica-1", "replica-1", "replica-1"), List.of(read(), read(), read()));
+        // Tried once, then left alone for the retry interval
+        verify(down, times(1)).getConnection();
+
+        now += Duration.ofSeconds(30).toMillis();
+        assertEquals(List.of("replica-1", "replica-1"), List.of(read(), read()));
+        verify(down, times(2)).getConnection();
+
+        route(List.of(down), Selection.ROUND_ROBIN, Duration.ZERO);
+        assertEquals("primary", read());
+    }
+
+    @Test
+    void loadsPinnedToThePrimarySkipTheReplicas() {
+        route(List.of(replica1), Selection.ROUND_ROBIN, Duration.ZERO);
+
+        assertEquals("primary", ReadWriteRoutingDataSource.onPrimary(this::read));
+        assertEquals("primary", ReadWriteRoutingDataSource.onPrimary(() -> ReadWriteRoutingDataSource.onPrimary(this::read)));
+        assertEquals("replica-1", read());
+    }
+
+    @Test
+    void readsFollowWritesToThePrimaryWithinTheWindow() {
+        route(List.of(replica1), Selection.ROUND_ROBIN, Duration.ofSeconds(5));
+        MockHttpServletResponse response = request(null);
+        assertEquals("replica-1", read());
+        readWrite.executeWithoutResult(status -> node());
+        assertEquals("primary", read());
+
+        Cookie cookie = response.getCookie(ReadYourWrites.COOKIE);
+        assertNotNull(cookie);
+        assertEquals(5, cookie.getMaxAge());
+
+        request(cookie);
+        assertEquals("primary", read());
+        now += Duration.ofSeconds(5).toMillis();
+        assertEquals("replica-1", read());
+    }
+
+    private void route(List<DataSource> replicas, Selection selection, Duration readYourWrites) {
+        routing = new ReadWriteRoutingDataSource(primary, replicas, selection, Duration.ofSeconds(30),
+                new ReadYourWrites(readYourWrites, clock), clock);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String read() {
+        return readOnly.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static MockHttpServletResponse request(Cookie cookie) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookie != null) {
+            request.setCookies(cookie);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE node (name VARCHAR(20))");
+            connection.createStatement().execute("INSERT INTO node VALUES ('" + name + "')");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return dataSource;
+    }
+}
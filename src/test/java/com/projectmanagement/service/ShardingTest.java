@@ -0,0 +1,207 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.dto.EmployeeDto;
+import com.projectmanagement.dto.FieldSelection;
+import com.projectmanagement.dto.ProjectDto;
+import com.projectmanagement.dto.ProjectSearch;
+import com.projectmanagement.dto.TaskDto;
+import com.projectmanagement.dto.TeamDto;
+import com.projectmanagement.dto.TeamMoveResult;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.pagination.CursorPage;
+import com.projectmanagement.pagination.CursorRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static com.projectmanagement.TestData.employee;
+import static com.projectmanagement.TestData.project;
+import static com.projectmanagement.TestData.task;
+import static com.projectmanagement.TestData.team;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Three shards: spring.datasource and two more in-memory databases. Rows are checked on the
+ * shards themselves with plain JDBC.
+ */
+@SpringBootTest(properties = "app.sharding.shards="
+        + "jdbc:h2:mem:shard_1_${random.uuid};MODE=MySQL,jdbc:h2:mem:shard_2_${random.uuid};MODE=MySQL")
+class ShardingTest {
+
+    @Autowired
+    private TeamService teamService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private ShardDirectory shardDirectory;
+
+    @Autowired
+    private Shards shards;
+
+    @Test
+    void keepsATeamAndEverythingUnderItOnOneShard() {
+        int expected = shardDirectory.placeTeam();
+        TeamDto team = teamService.create(team("Placed"));
+        assertEquals(expected, shardDirectory.team(team.id()));
+
+        ProjectDto project = projectService.create(projectWithBudget("Placed project", team.id(), 100.0));
+        TaskDto task = taskService.create(task("Placed task", project.id()));
+
+        assertEquals(List.of(expected), shardsHolding("teams", team.id()));
+        assertEquals(List.of(expected), shardsHolding("projects", project.id()));
+        assertEquals(List.of(expected), shardsHolding("tasks", task.id()));
+        assertEquals(List.of(expected), shardsHolding("project_stats", "project_id", project.id()));
+        assertEquals(project.id(), taskService.findById(task.id()).projectId());
+        assertEquals(1, projectService.findByTeamId(team.id(), CursorRequest.firstPage(10), FieldSelection.ALL).getSize());
+    }
+
+    @Test
+    void startsTheSequencesOfEachShardInTheirOwnRange() {
+        for (int shard = 1; shard < shards.count(); shard++) {
+            Long next = jdbc(shard).queryForObject("SELECT NEXT VALUE FOR team_seq", Long.class);
+            assertTrue(next > shard * Shards.ID_SPACE && next < (shard + 1) * Shards.ID_SPACE, "shard " + shard + ": " + next);
+        }
+    }
+
+    @Test
+    void mergesPagesReadFromAllShards() {
+        double budget = 1000 + Math.random();
+        List<String> names = new ArrayList<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            TeamDto team = teamService.create(team("Merge " + shard));
+            shardRebalancer.moveTeam(team.id(), shard);
+            for (int i = 0; i < 3; i++) {
+                String name = "Merged " + (char) ('a' + i * shards.count() + shard);
+                projectService.create(projectWithBudget(name, team.id(), budget));
+                names.add(name);
+            }
+        }
+        names.sort(null);
+        ProjectSearch search = new ProjectSearch(null, null, null, null, null, budget, budget);
+
+        List<ProjectDto> full = readAll(search, FieldSelection.ALL);
+        assertEquals(names, full.stream().map(ProjectDto::name).toList());
+
+        // The sort key is merged on even when it is not among the selected fields
+        List<ProjectDto> partial = readAll(search, new FieldSelection(Set.of("budget"), null));
+        assertEquals(full.stream().map(ProjectDto::id).toList(), partial.stream().map(ProjectDto::id).toList());
+        assertTrue(partial.stream().allMatch(project -> project.budget() == budget));
+
+        CursorRequest descending = CursorRequest.firstPage(2);
+        descending.setSort("name");
+        descending.setDirection(Sort.Direction.DESC);
+        List<String> top = projectService.search(search, descending, FieldSelection.ALL).getContent().stream()
+                .map(ProjectDto::name).toList();
+        assertEquals(List.of(names.get(names.size() - 1), names.get(names.size() - 2)), top);
+    }
+
+    @Test
+    void copiesEmployeesToEveryShard() {
+        EmployeeDto employee = employeeService.create(employee("Sam", "Shard"));
+        assertEquals(allShards(), shardsHolding("employees", employee.id()));
+
+        employeeService.delete(employee.id());
+        assertEquals(List.of(), shardsHolding("employees", employee.id()));
+    }
+
+    @Test
+    void movesATeamWithItsMembersProjectsAndTasks() {
+        EmployeeDto member = employeeService.create(employee("Sam", "Shard"));
+        TeamDto team = teamService.create(team("Moving"));
+        teamService.addEmployeeToTeam(team.id(), member.id());
+        ProjectDto project = projectService.create(projectWithBudget("Moving project", team.id(), 50.0));
+        TaskDto task = taskService.create(task("Moving task", project.id()));
+        taskService.assignEmployeeToTask(task.id(), member.id());
+        int source = shardDirectory.team(team.id());
+        int target = (source + 1) % shards.count();
+
+        TeamMoveResult result = shardRebalancer.moveTeam(team.id(), target);
+
+        assertEquals(new TeamMoveResult(team.id(), source, target, 1, 1), result);
+        for (String table : List.of("teams", "projects", "tasks")) {
+            Long id = switch (table) {
+                case "teams" -> team.id();
+                case "projects" -> project.id();
+                default -> task.id();
+            };
+            assertEquals(List.of(target), shardsHolding(table, id), table);
+        }
+        assertEquals(List.of(target), shardsHolding("team_employees", "team_id", team.id()));
+        assertEquals(List.of(target), shardsHolding("task_employees", "task_id", task.id()));
+
+        assertEquals(List.of(member.id()), taskService.findById(task.id()).employees().stream().map(EmployeeDto::id).toList());
+        assertEquals("Moving project", projectService.findById(project.id()).name());
+        assertEquals(List.of(team.id()), teamService.findTeamsByEmployee(member.id(), CursorRequest.firstPage(10))
+                .getContent().stream().map(TeamDto::id).toList());
+
+        // Writes follow the team to its new shard
+        TaskDto added = taskService.create(task("Added after the move", project.id()));
+        assertEquals(List.of(target), shardsHolding("tasks", added.id()));
+        assertEquals(new TeamMoveResult(team.id(), target, target, 0, 0), shardRebalancer.moveTeam(team.id(), target));
+    }
+
+    private List<ProjectDto> readAll(ProjectSearch search, FieldSelection fields) {
+        CursorRequest request = CursorRequest.firstPage(4);
+        request.setSort("name");
+        List<ProjectDto> read = new ArrayList<>();
+        CursorPage<ProjectDto> page;
+        do {
+            page = projectService.search(search, request, fields);
+            read.addAll(page.getContent());
+            request.setCursor(page.getNextCursor());
+        } while (page.isHasNext());
+        return read;
+    }
+
+    private List<Integer> shardsHolding(String table, Long id) {
+        return shardsHolding(table, "id", id);
+    }
+
+    private List<Integer> shardsHolding(String table, String column, Long id) {
+        List<Integer> holding = new ArrayList<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            Integer rows = jdbc(shard).queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ?",
+                    Integer.class, id);
+            if (rows != null && rows > 0) {
+                holding.add(shard);
+            }
+        }
+        return holding;
+    }
+
+    private List<Integer> allShards() {
+        List<Integer> all = new ArrayList<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            all.add(shard);
+        }
+        return all;
+    }
+
+    private JdbcTemplate jdbc(int shard) {
+        return new JdbcTemplate(shards.dataSource(shard));
+    }
+
+    private static Project projectWithBudget(String name, Long teamId, double budget) {
+        Project project = project(name, teamId);
+        project.setBudget(budget);
+        return project;
+    }
+}
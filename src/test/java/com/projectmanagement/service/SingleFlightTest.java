@@ -0,0 +1,151 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Callers are held inside a load until the others are parked waiting for it, so every
+ * assertion is about callers that really overlapped.
+ */
+@SpringBootTest
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        String namespace = namespace();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Object> results = new ConcurrentLinkedQueue<>();
+
+        List<Thread> callers = callers(CALLERS, () -> results.add(singleFlight.execute(namespace, 42L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return new Object();
+        })));
+        awaitParked(callers.subList(1, CALLERS));
+        release.countDown();
+        join(callers);
+
+        assertEquals(1, loads.get());
+        assertEquals(CALLERS, results.size());
+        assertEquals(1, results.stream().distinct().count());
+        assertEquals(CALLERS - 1, calls(namespace, "collapsed"));
+        assertEquals(1, calls(namespace, "led"));
+    }
+
+    @Test
+    void waitersGetTheLoadsException() throws Exception {
+        String namespace = namespace();
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        List<Thread> callers = callers(3, () -> {
+            try {
+                singleFlight.execute(namespace, 7L, () -> {
+                    await(release);
+                    throw new ResourceNotFoundException("Project", "id", 7L);
+                });
+            } catch (RuntimeException e) {
+                failures.add(e);
+            }
+        });
+        awaitParked(callers.subList(1, 3));
+        release.countDown();
+        join(callers);
+
+        assertEquals(3, failures.size());
+        failures.forEach(failure -> assertInstanceOf(ResourceNotFoundException.class, failure));
+    }
+
+    @Test
+    void callersAfterACommittedWriteStartANewLoad() throws Exception {
+        String namespace = namespace();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Thread> leader = callers(1, () -> singleFlight.execute(namespace, 1L, () -> {
+            await(release);
+            return "before";
+        }));
+        awaitParked(leader);
+
+        transactionTemplate.executeWithoutResult(status -> {
+        });
+        String after = singleFlight.execute(namespace, 1L, () -> "after");
+        release.countDown();
+        join(leader);
+
+        assertEquals("after", after);
+        assertEquals(2, calls(namespace, "led"));
+    }
+
+    // The first caller starts immediately; the others once it is inside the load
+    private static List<Thread> callers(int count, Runnable call) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Thread thread = new Thread(call);
+            thread.start();
+            threads.add(thread);
+            if (i == 0) {
+                awaitParked(threads);
+            }
+        }
+        return threads;
+    }
+
+    private static void awaitParked(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING
+                || thread.getState() == Thread.State.TIMED_WAITING)) {
+            assertTrue(System.nanoTime() < deadline, "callers did not block");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void join(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long calls(String namespace, String outcome) {
+        return (long) meterRegistry.get("singleflight.calls").tag("namespace", namespace).tag("outcome", outcome)
+                .counter().count();
+    }
+
+    private static String namespace() {
+        return "test-" + UUID.randomUUID();
+    }
+}